@@ -0,0 +1,31 @@
+package com.inventory.config;
+
+import com.inventory.service.ArchiveJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+/**
+ * Runs the archive mover every inventory.archive.interval (inventory.archive.enabled=true)
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "inventory.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ArchiveScheduling implements SchedulingConfigurer {
+
+    private final ArchiveJob archiveJob;
+    private final InventoryProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        Duration interval = properties.getArchive().getInterval();
+        registrar.addFixedDelayTask(new FixedDelayTask(archiveJob::archiveAll, interval, interval));
+    }
+}
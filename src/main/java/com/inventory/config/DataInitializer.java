@@ -6,15 +6,21 @@ import com.inventory.entity.Order;
 import com.inventory.repository.InventoryRepository;
 import com.inventory.repository.ItemRepository;
 import com.inventory.repository.OrderRepository;
+import com.inventory.service.OrderNumberAllocator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 
+/**
+ * Sample data from the Excel sheet; the synthetic profile loads a generated dataset instead
+ */
 @Component
+@Profile("!synthetic")
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
@@ -22,6 +28,7 @@ public class DataInitializer implements CommandLineRunner {
     private final ItemRepository itemRepository;
     private final InventoryRepository inventoryRepository;
     private final OrderRepository orderRepository;
+    private final OrderNumberAllocator orderNumberAllocator;
 
     @Override
     @Transactional
@@ -48,17 +55,17 @@ public class DataInitializer implements CommandLineRunner {
         createInventory(pen, 2, "W"); // Pen: -2 (Withdrawal)
         createInventory(book, 3, "T"); // Book: +3 (additional Top Up)
 
-        // 3. Create Orders (10 orders: O1-O10)
-        createOrder("O1", pen, 1, 5.00); // Order Pen x1
-        createOrder("O2", book, 2, 40.00); // Order Book x2
-        createOrder("O3", bag, 1, 150.00); // Order Bag x1
-        createOrder("O4", pencil, 3, 9.00); // Order Pencil x3
-        createOrder("O5", shoe, 1, 300.00); // Order Shoe x1
-        createOrder("O6", box, 1, 75.00); // Order Box x1
-        createOrder("O7", cap, 2, 100.00); // Order Cap x2
-        createOrder("O8", pen, 1, 5.00); // Order Pen x1
-        createOrder("O9", book, 1, 20.00); // Order Book x1
-        createOrder("O10", bag, 1, 150.00); // Order Bag x1
+        // 3. Create Orders (10 orders: O1-O10, numbered by the allocator)
+        createOrder(pen, 1, 5.00); // Order Pen x1
+        createOrder(book, 2, 40.00); // Order Book x2
+        createOrder(bag, 1, 150.00); // Order Bag x1
+        createOrder(pencil, 3, 9.00); // Order Pencil x3
+        createOrder(shoe, 1, 300.00); // Order Shoe x1
+        createOrder(box, 1, 75.00); // Order Box x1
+        createOrder(cap, 2, 100.00); // Order Cap x2
+        createOrder(pen, 1, 5.00); // Order Pen x1
+        createOrder(book, 1, 20.00); // Order Book x1
+        createOrder(bag, 1, 150.00); // Order Bag x1
 
         log.info("Sample data initialized successfully!");
         log.info("Items: 7, Inventory Transactions: 9, Orders: 10");
@@ -68,6 +75,7 @@ public class DataInitializer implements CommandLineRunner {
         Item item = new Item();
         item.setName(name);
         item.setPrice(BigDecimal.valueOf(price));
+        item.setCurrentStock(0);
         item.setIsDeleted(false);
         return itemRepository.save(item);
     }
@@ -79,15 +87,19 @@ public class DataInitializer implements CommandLineRunner {
         inventory.setType(type);
         inventory.setIsDeleted(false);
         inventoryRepository.save(inventory);
+        item.setCurrentStock(item.getCurrentStock() + ("T".equals(type) ? qty : -qty));
     }
 
-    private void createOrder(String orderNo, Item item, int qty, double price) {
+    private void createOrder(Item item, int qty, double price) {
         Order order = new Order();
-        order.setOrderNo(orderNo);
+        long orderSeq = orderNumberAllocator.next();
+        order.setOrderNo("O" + orderSeq);
+        order.setOrderSeq(orderSeq);
         order.setItem(item);
         order.setQty(qty);
         order.setPrice(BigDecimal.valueOf(price));
         order.setIsDeleted(false);
         orderRepository.save(order);
+        item.setCurrentStock(item.getCurrentStock() - qty);
     }
 }
@@ -0,0 +1,137 @@
+package com.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Application tuning settings under the "inventory" prefix
+ */
+@Component
+@ConfigurationProperties(prefix = "inventory")
+@Data
+public class InventoryProperties {
+
+    private OrderNumber orderNumber = new OrderNumber();
+    private BulkImport bulkImport = new BulkImport();
+    private ItemCache itemCache = new ItemCache();
+    private Stock stock = new Stock();
+    private WriteCombining writeCombining = new WriteCombining();
+    private Metrics metrics = new Metrics();
+    private Synthetic synthetic = new Synthetic();
+    private Export export = new Export();
+    private Checkpoint checkpoint = new Checkpoint();
+    private Archive archive = new Archive();
+    private BulkDelete bulkDelete = new BulkDelete();
+
+    @Data
+    public static class OrderNumber {
+        // Order numbers reserved from the database per round trip
+        private int blockSize = 50;
+    }
+
+    @Data
+    public static class BulkImport {
+        // Rows written per transaction during bulk import
+        private int chunkSize = 500;
+        // Row errors returned in the import response (all failures are still counted)
+        private int maxReportedErrors = 100;
+    }
+
+    @Data
+    public static class BulkDelete {
+        // Rows locked and soft deleted per transaction (one UPDATE each)
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class ItemCache {
+        // Set to false to read item metadata from the database on every request
+        private boolean enabled = true;
+        // Items kept in memory; least valuable entries are evicted beyond this
+        private long maxSize = 10_000;
+        // Entries expire this long after being loaded, bounding staleness from writes outside this application
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Stock {
+        // How order/inventory writes guard the item balance
+        private ConcurrencyMode concurrencyMode = ConcurrencyMode.PESSIMISTIC;
+        // Optimistic mode: attempts per stock change before giving up with 409 Conflict
+        private int optimisticMaxAttempts = 10;
+        // Optimistic mode: backoff after a lost race is random in [0, min(max, base * 2^retry))
+        private Duration optimisticBackoff = Duration.ofMillis(2);
+        private Duration optimisticMaxBackoff = Duration.ofMillis(50);
+        // Reserve order/withdrawal qty from in-memory counters before the transaction; oversells fail fast
+        private boolean admissionEnabled = false;
+        // Most stock buckets a hot item can be sharded over (PUT /api/v1/items/{id}/stock-buckets)
+        private int maxBuckets = 64;
+    }
+
+    @Data
+    public static class WriteCombining {
+        // Queue concurrent order/inventory writes per item and apply them in one locked transaction
+        private boolean enabled = false;
+        // Most requests applied in one transaction
+        private int maxBatchSize = 100;
+    }
+
+    @Data
+    public static class Metrics {
+        // Items that can get their own "item" tag value; all others share "other"
+        private int maxItemTags = 20;
+        // A lock wait at least this long marks the item as hot and gives it its own tag
+        private Duration hotItemLockWait = Duration.ofMillis(10);
+    }
+
+    @Data
+    public static class Synthetic {
+        // Dataset generated on startup under the "synthetic" profile
+        private int items = 100_000;
+        private long inventoryRows = 2_000_000;
+        private long orders = 1_000_000;
+        // Same seed, same sizes: same dataset
+        private long seed = 42;
+        // Popularity skew: item rank = items * u^skew; 1 is uniform, higher concentrates rows on low ids
+        private double skew = 3.0;
+    }
+
+    @Data
+    public static class Export {
+        // Rows the JDBC driver fetches per round trip while streaming an export
+        private int fetchSize = 1000;
+        // Exports streaming at once, each holding a pooled connection; more get 503
+        private int maxConcurrent = 4;
+    }
+
+    @Data
+    public static class Checkpoint {
+        // Also roll stock checkpoints forward in the background, not only before a rebuild
+        private boolean enabled = false;
+        // Delay between the end of one roll-forward and the start of the next
+        private Duration interval = Duration.ofHours(1);
+        // Items locked and rolled forward per transaction
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class Archive {
+        // Move old soft-deleted rows to the archive tables in the background
+        private boolean enabled = true;
+        // Delay between the end of one run and the start of the next
+        private Duration interval = Duration.ofMinutes(10);
+        // Rows stay in the hot tables for at least this long after being deleted
+        private Duration minAge = Duration.ofDays(7);
+        // Rows moved per transaction
+        private int batchSize = 1000;
+    }
+
+    public enum ConcurrencyMode {
+        PESSIMISTIC, // Lock the item row (SELECT ... FOR UPDATE) before reading the balance
+        OPTIMISTIC, // Read without a lock, apply with an UPDATE conditional on the item version, retry on conflict
+        GUARDED // Orders take stock with one UPDATE conditional on the balance; other writes lock as PESSIMISTIC
+    }
+}
@@ -0,0 +1,111 @@
+package com.inventory.config;
+
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ItemRepository;
+import com.inventory.repository.OrderRepository;
+import com.inventory.service.ItemMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Instrumentation for the stock write path
+ * Times item lock acquisition and stock aggregates by intercepting the repository methods that run them,
+ * and transaction commits through the transaction manager. HTTP latency per endpoint and connection pool
+ * waits come from the Spring Boot and HikariCP meters (see application.properties).
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String COMMIT = "inventory.transaction.commit";
+
+    // Repository methods whose whole duration is the item row lock wait
+    private static final Set<String> LOCK_METHODS = Set.of("findByIdWithLock", "findAllByIdWithLock");
+
+    // Repository methods that aggregate the ledger
+    private static final Set<String> STOCK_METHODS = Set.of(
+            "calculateStockFromInventory", "calculateStockFromInventoryByItemIds",
+            "getTotalOrderedQty", "getTotalOrderedQtyByItemIds");
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor(ObjectProvider<ItemMetrics> itemMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    Class<?> repository = factoryBean.getObjectType();
+                    if (repository == ItemRepository.class || repository == InventoryRepository.class
+                            || repository == OrderRepository.class) {
+                        factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                                (proxy, information) -> proxy.addAdvice(timingInterceptor(repository, itemMetrics))));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor timingInterceptor(Class<?> repository, ObjectProvider<ItemMetrics> itemMetrics) {
+        return invocation -> {
+            String method = invocation.getMethod().getName();
+            boolean lock = repository == ItemRepository.class && LOCK_METHODS.contains(method);
+            if (!lock && !STOCK_METHODS.contains(method)) {
+                return invocation.proceed();
+            }
+            Object[] arguments = invocation.getArguments();
+            Long itemId = (arguments.length > 0 && arguments[0] instanceof Long id) ? id : null;
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (lock) {
+                    itemMetrics.getObject().recordLockWait(itemId, nanos);
+                } else {
+                    itemMetrics.getObject().recordStockQuery(method, itemId, nanos);
+                }
+            }
+        };
+    }
+
+    /**
+     * Replaces the auto-configured JpaTransactionManager with one that times commits (including the flush)
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(MeterRegistry registry,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        Timer commitTimer = Timer.builder(COMMIT)
+                .description("Time to flush and commit a transaction")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                long start = System.nanoTime();
+                try {
+                    super.doCommit(status);
+                } finally {
+                    commitTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                }
+            }
+        };
+        // Cast selects customize(TransactionManager); the PlatformTransactionManager overload is deprecated
+        customizers.ifAvailable(customizer -> customizer.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,33 @@
+package com.inventory.config;
+
+import com.inventory.service.StockCheckpointJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+/**
+ * Runs the stock checkpoint roll-forward every inventory.checkpoint.interval (inventory.checkpoint.enabled=true)
+ * Off by default: each run locks the items it rolls forward, and checkpoints only speed up stock rebuilds,
+ * which roll them forward themselves. Fixed delay: a slow run is never overlapped by the next one.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "inventory.checkpoint", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class StockCheckpointScheduling implements SchedulingConfigurer {
+
+    private final StockCheckpointJob stockCheckpointJob;
+    private final InventoryProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        Duration interval = properties.getCheckpoint().getInterval();
+        registrar.addFixedDelayTask(new FixedDelayTask(stockCheckpointJob::rollForwardAll, interval, interval));
+    }
+}
@@ -0,0 +1,146 @@
+package com.inventory.config;
+
+import com.inventory.service.OrderNumberAllocator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Large seeded dataset for load tests and benchmarks (profile "synthetic", replaces DataInitializer)
+ * Rows are generated inside H2 with INSERT ... SELECT over SYSTEM_RANGE, in chunks, so nothing is
+ * materialized in the JVM or sent over JDBC. Values come from a hash of (seed, row number),
+ * so the same seed and sizes always produce the same dataset.
+ * Item popularity is skewed: inventory rows and orders pick item id = items * u^skew + 1 for a uniform u,
+ * so low ids are hot and the tail is cold.
+ */
+@Component
+@Profile("synthetic")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    // Rows per INSERT ... SELECT statement (and per transaction)
+    static final long CHUNK_ROWS = 500_000;
+
+    // Matches allocationSize of the pooled item/inventory sequences
+    private static final int SEQUENCE_POOL = 50;
+
+    // Value streams: each uses its own odd 32-bit multiplier, so the values of one row are unrelated
+    private static final int ITEM_PRICE = 0;
+    private static final int INVENTORY_ITEM = 1;
+    private static final int INVENTORY_TYPE = 2;
+    private static final int ORDER_ITEM = 3;
+    private static final int ORDER_QTY = 4;
+    private static final long[] STREAM_MULTIPLIERS = {2654435761L, 2246822519L, 3266489917L, 668265263L, 374761393L};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final InventoryProperties properties;
+
+    @Override
+    public void run(String... args) {
+        InventoryProperties.Synthetic settings = properties.getSynthetic();
+        log.info("Generating synthetic dataset: {} items, {} inventory rows, {} orders (seed {}, skew {})",
+                settings.getItems(), settings.getInventoryRows(), settings.getOrders(),
+                settings.getSeed(), settings.getSkew());
+        long start = System.nanoTime();
+
+        // Generated item ids always exist: skip the per-row foreign key lookups while loading (database-wide)
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            // 1. Items: price 1.00 - 500.00, balance computed in step 4
+            insertInChunks("item", settings.getItems(),
+                    "INSERT INTO item (id, name, price, current_stock, version, is_deleted) "
+                            + "SELECT X, 'Item ' || X, " + itemPrice("X", settings) + ", 0, 0, FALSE FROM SYSTEM_RANGE(?, ?)");
+
+            // 2. Inventory: 80% top-ups of 10-59, 20% withdrawals of 1-10 (type and qty from one value)
+            String u = unit("X", INVENTORY_TYPE, settings);
+            insertInChunks("inventory", settings.getInventoryRows(),
+                    "INSERT INTO inventory (id, item_id, qty, type, is_deleted) "
+                            + "SELECT X, " + skewedItemId(INVENTORY_ITEM, settings) + ", "
+                            + "CASE WHEN " + u + " < 0.8 THEN 10 + FLOOR(" + u + " * 62.5) ELSE 1 + FLOOR((" + u + " - 0.8) * 50) END, "
+                            + "CASE WHEN " + u + " < 0.8 THEN 'T' ELSE 'W' END, FALSE FROM SYSTEM_RANGE(?, ?)");
+
+            // 3. Orders: qty 1-5 at the item price (recomputed from the item id, no join), numbered O1..On
+            insertInChunks("orders", settings.getOrders(),
+                    "INSERT INTO orders (order_no, order_seq, item_id, qty, price, is_deleted) "
+                            + "SELECT 'O' || X, X, item_id, qty, qty * " + itemPrice("item_id", settings) + ", FALSE "
+                            + "FROM (SELECT X, " + skewedItemId(ORDER_ITEM, settings) + " AS item_id, "
+                            + "1 + FLOOR(" + unit("X", ORDER_QTY, settings) + " * 5) AS qty FROM SYSTEM_RANGE(?, ?))");
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+
+        // 4. Materialize balances, topping up any item the generated ledger would leave negative
+        reconcileBalances(settings.getInventoryRows());
+
+        // 5. Move id sequences and order numbers past the loaded rows
+        restartSequence("item_seq", settings.getItems());
+        restartSequence("inventory_seq",
+                jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM inventory", Long.class));
+        orderNumberAllocator.skipUsedNumbers();
+
+        log.info("Synthetic dataset ready in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * SQL for a uniform value in [0, 1) per row of one value stream
+     * Multiplicative (Weyl) hash of the row number, offset by a seed-derived constant per stream;
+     * plain SQL arithmetic, so H2 evaluates it without calling back into Java
+     */
+    static String unit(String row, int stream, InventoryProperties.Synthetic settings) {
+        long offset = mix(settings.getSeed() * STREAM_MULTIPLIERS.length + stream) >>> 32;
+        return "(BITAND(" + row + " * " + STREAM_MULTIPLIERS[stream] + " + " + offset + ", 4294967295) / 4294967296.0)";
+    }
+
+    // SplitMix64 finalizer: spreads nearby seeds over unrelated offsets
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String itemPrice(String itemId, InventoryProperties.Synthetic settings) {
+        return "CAST(1 + FLOOR(" + unit(itemId, ITEM_PRICE, settings) + " * 49900) / 100 AS DECIMAL(10, 2))";
+    }
+
+    private static String skewedItemId(int stream, InventoryProperties.Synthetic settings) {
+        return String.format(Locale.ROOT, "CAST(FLOOR(%d * POWER(%s, %s)) AS BIGINT) + 1",
+                settings.getItems(), unit("X", stream, settings), settings.getSkew());
+    }
+
+    private void insertInChunks(String table, long rows, String sql) {
+        long start = System.nanoTime();
+        for (long from = 1; from <= rows; from += CHUNK_ROWS) {
+            jdbcTemplate.update(sql, from, Math.min(rows, from + CHUNK_ROWS - 1));
+        }
+        log.info("Loaded {} {} rows in {} ms", rows, table, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void reconcileBalances(long inventoryRows) {
+        long start = System.nanoTime();
+        jdbcTemplate.update("MERGE INTO item i USING (SELECT item_id, "
+                + "SUM(CASE WHEN type = 'T' THEN qty ELSE -qty END) AS delta FROM inventory GROUP BY item_id) v "
+                + "ON i.id = v.item_id WHEN MATCHED THEN UPDATE SET current_stock = current_stock + v.delta");
+        jdbcTemplate.update("MERGE INTO item i USING (SELECT item_id, SUM(qty) AS delta FROM orders GROUP BY item_id) o "
+                + "ON i.id = o.item_id WHEN MATCHED THEN UPDATE SET current_stock = current_stock - o.delta");
+
+        // The ledger must explain every balance, so negatives get a top-up row rather than a silent reset
+        int corrected = jdbcTemplate.update("INSERT INTO inventory (id, item_id, qty, type, is_deleted) "
+                + "SELECT ? + ROW_NUMBER() OVER (ORDER BY id), id, -current_stock, 'T', FALSE "
+                + "FROM item WHERE current_stock < 0", inventoryRows);
+        jdbcTemplate.update("UPDATE item SET current_stock = 0 WHERE current_stock < 0");
+        log.info("Computed balances in {} ms ({} items topped up to zero)",
+                (System.nanoTime() - start) / 1_000_000, corrected);
+    }
+
+    private void restartSequence(String sequence, long maxId) {
+        // Pooled optimizer: a sequence value v hands out ids v - 49 .. v
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_POOL));
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventory.controller;
+
+import com.inventory.dto.response.ApiResponse;
+import com.inventory.dto.response.ArchiveRunResponse;
+import com.inventory.dto.response.ArchivedInventoryResponse;
+import com.inventory.dto.response.ArchivedItemResponse;
+import com.inventory.dto.response.ArchivedOrderResponse;
+import com.inventory.dto.response.CursorPage;
+import com.inventory.service.ArchiveJob;
+import com.inventory.service.ArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Read access to archived (soft-deleted and moved) rows, keyset-paginated like the live listings
+ */
+@RestController
+@RequestMapping("/api/v1/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+    private final ArchiveJob archiveJob;
+
+    @GetMapping("/inventories")
+    public ResponseEntity<ApiResponse<CursorPage<ArchivedInventoryResponse>>> getArchivedTransactions(
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<ArchivedInventoryResponse> inventories = archiveService.getArchivedTransactions(itemId, after, size);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Archived inventory transactions retrieved successfully", inventories));
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<ApiResponse<CursorPage<ArchivedOrderResponse>>> getArchivedOrders(
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<ArchivedOrderResponse> orders = archiveService.getArchivedOrders(itemId, after, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Archived orders retrieved successfully", orders));
+    }
+
+    @GetMapping("/items")
+    public ResponseEntity<ApiResponse<CursorPage<ArchivedItemResponse>>> getArchivedItems(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<ArchivedItemResponse> items = archiveService.getArchivedItems(after, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Archived items retrieved successfully", items));
+    }
+
+    /**
+     * Run the archive mover now instead of waiting for the next scheduled run
+     */
+    @PostMapping("/run")
+    public ResponseEntity<ApiResponse<ArchiveRunResponse>> archiveNow() {
+        ArchiveRunResponse result = archiveJob.archiveAll();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Archive run completed", result));
+    }
+}
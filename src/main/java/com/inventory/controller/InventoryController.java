@@ -1,17 +1,31 @@
 package com.inventory.controller;
 
+import com.inventory.dto.request.BulkDeleteRequest;
 import com.inventory.dto.request.InventoryRequest;
 import com.inventory.dto.response.ApiResponse;
+import com.inventory.dto.response.BulkDeleteResponse;
+import com.inventory.dto.response.CursorPage;
+import com.inventory.dto.response.ImportResponse;
 import com.inventory.dto.response.InventoryResponse;
+import com.inventory.service.BulkDeleteService;
+import com.inventory.service.ExportService;
+import com.inventory.service.ImportService;
 import com.inventory.service.InventoryService;
+import com.inventory.service.StockWriteCombiner;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/v1/inventories")
@@ -19,6 +33,10 @@ import org.springframework.web.bind.annotation.*;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final StockWriteCombiner stockWriteCombiner;
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final BulkDeleteService bulkDeleteService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<Page<InventoryResponse>>> getAllTransactions(
@@ -32,6 +50,17 @@ public class InventoryController {
                 new ApiResponse<>(true, "Inventory transactions retrieved successfully", inventories));
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<ApiResponse<CursorPage<InventoryResponse>>> getTransactionsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<InventoryResponse> inventories = inventoryService.getTransactionsAfter(after, size);
+
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Inventory transactions retrieved successfully", inventories));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<InventoryResponse>> getTransactionById(@PathVariable Long id) {
         InventoryResponse inventory = inventoryService.getTransactionById(id);
@@ -43,7 +72,7 @@ public class InventoryController {
     public ResponseEntity<ApiResponse<InventoryResponse>> recordTransaction(
             @Valid @RequestBody InventoryRequest request) {
 
-        InventoryResponse createdInventory = inventoryService.recordTransaction(request);
+        InventoryResponse createdInventory = stockWriteCombiner.recordTransaction(request);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(new ApiResponse<>(true, "Inventory transaction recorded successfully", createdInventory));
@@ -66,4 +95,55 @@ public class InventoryController {
                 .status(HttpStatus.NO_CONTENT)
                 .body(new ApiResponse<>(true, "Inventory transaction deleted successfully", null));
     }
+
+    /**
+     * Set-based soft delete of many inventory transactions (ids or filter), one UPDATE per batch
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ApiResponse<BulkDeleteResponse>> deleteTransactions(
+            @Valid @RequestBody BulkDeleteRequest request) {
+
+        BulkDeleteResponse result = bulkDeleteService.deleteTransactions(request);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Inventory transactions deleted: " + result.getDeleted(), result));
+    }
+
+    /**
+     * Streaming bulk import: text/csv (with header line) or application/x-ndjson
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<ImportResponse>> importInventories(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+
+        ImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ImportService.Format.NDJSON
+                : ImportService.Format.CSV;
+        ImportResponse result = importService.importInventories(body, format);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Inventory transactions imported: " + result.getImported() + " of " + result.getRowsRead()
+                        + " rows", result));
+    }
+
+    /**
+     * Streaming export of all inventory transactions: format=ndjson (default) or format=csv
+     * Any other format gets 400; 503 while inventory.export.max-concurrent exports are streaming
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInventories(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        ExportService.Slot slot = exportService.reserveSlot();
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                exportService.exportInventories(out, exportFormat);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat == ExportService.Format.CSV
+                        ? MediaType.parseMediaType("text/csv")
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inventories." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
 }
@@ -1,24 +1,47 @@
 package com.inventory.controller;
 
+import com.inventory.dto.request.BulkItemDeleteRequest;
 import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.StockBucketRequest;
 import com.inventory.dto.response.ApiResponse;
+import com.inventory.dto.response.BulkDeleteResponse;
+import com.inventory.dto.response.CursorPage;
+import com.inventory.dto.response.ImportResponse;
+import com.inventory.dto.response.ItemCacheStatsResponse;
 import com.inventory.dto.response.ItemResponse;
+import com.inventory.dto.response.StockBucketResponse;
+import com.inventory.dto.response.StockRebuildResponse;
+import com.inventory.service.BulkDeleteService;
+import com.inventory.service.ImportService;
+import com.inventory.service.ItemCatalogCache;
 import com.inventory.service.ItemService;
+import com.inventory.service.StockBucketService;
+import com.inventory.service.StockRebuildJob;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/v1/items")
 @RequiredArgsConstructor
 public class ItemController {
 
     private final ItemService itemService;
+    private final ImportService importService;
+    private final ItemCatalogCache itemCatalogCache;
+    private final BulkDeleteService bulkDeleteService;
+    private final StockBucketService stockBucketService;
+    private final StockRebuildJob stockRebuildJob;
 
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ItemResponse>>> getAllItems(
@@ -32,6 +55,17 @@ public class ItemController {
                 new ApiResponse<>(true, "Items retrieved successfully", items));
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<ApiResponse<CursorPage<ItemResponse>>> getItemsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<ItemResponse> items = itemService.getItemsAfter(after, size);
+
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Items retrieved successfully", items));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ItemResponse>> getItemById(@PathVariable Long id) {
         ItemResponse item = itemService.getItemById(id);
@@ -64,4 +98,68 @@ public class ItemController {
                 .status(HttpStatus.NO_CONTENT)
                 .body(new ApiResponse<>(true, "Item deleted successfully", null));
     }
+
+    /**
+     * Set-based soft delete of many items by id, one UPDATE per batch
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ApiResponse<BulkDeleteResponse>> deleteItems(
+            @Valid @RequestBody BulkItemDeleteRequest request) {
+
+        BulkDeleteResponse result = bulkDeleteService.deleteItems(request);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Items deleted: " + result.getDeleted(), result));
+    }
+
+    /**
+     * Shard a hot item's stock over N bucket rows (1 turns sharding off)
+     */
+    @PutMapping("/{id}/stock-buckets")
+    public ResponseEntity<ApiResponse<StockBucketResponse>> configureStockBuckets(
+            @PathVariable Long id,
+            @Valid @RequestBody StockBucketRequest request) {
+
+        StockBucketResponse buckets = stockBucketService.configure(id, request.getBuckets());
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Stock buckets configured successfully", buckets));
+    }
+
+    @GetMapping("/{id}/stock-buckets")
+    public ResponseEntity<ApiResponse<StockBucketResponse>> getStockBuckets(@PathVariable Long id) {
+        StockBucketResponse buckets = stockBucketService.getBuckets(id);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Stock buckets retrieved successfully", buckets));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<ItemCacheStatsResponse>> getCacheStats() {
+        ItemCacheStatsResponse stats = itemCatalogCache.stats();
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Item cache statistics retrieved successfully", stats));
+    }
+
+    @PostMapping("/stock/rebuild")
+    public ResponseEntity<ApiResponse<StockRebuildResponse>> rebuildStockBalances(
+            @RequestParam(defaultValue = "false") boolean full) {
+        StockRebuildResponse result = stockRebuildJob.rebuildStockBalances(full);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Stock balances rebuilt successfully", result));
+    }
+
+    /**
+     * Streaming bulk import: text/csv (with header line) or application/x-ndjson
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<ImportResponse>> importItems(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+
+        ImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ImportService.Format.NDJSON
+                : ImportService.Format.CSV;
+        ImportResponse result = importService.importItems(body, format);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Items imported: " + result.getImported() + " of " + result.getRowsRead()
+                        + " rows", result));
+    }
 }
@@ -1,17 +1,28 @@
 package com.inventory.controller;
 
+import com.inventory.dto.request.BatchOrderRequest;
+import com.inventory.dto.request.BulkOrderDeleteRequest;
 import com.inventory.dto.request.OrderRequest;
 import com.inventory.dto.response.ApiResponse;
+import com.inventory.dto.response.BatchOrderResponse;
+import com.inventory.dto.response.BulkDeleteResponse;
+import com.inventory.dto.response.CursorPage;
 import com.inventory.dto.response.OrderResponse;
+import com.inventory.service.BulkDeleteService;
+import com.inventory.service.ExportService;
 import com.inventory.service.OrderService;
+import com.inventory.service.StockWriteCombiner;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -19,6 +30,9 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final StockWriteCombiner stockWriteCombiner;
+    private final ExportService exportService;
+    private final BulkDeleteService bulkDeleteService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<Page<OrderResponse>>> getAllOrders(
@@ -32,6 +46,17 @@ public class OrderController {
                 new ApiResponse<>(true, "Orders retrieved successfully", orders));
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<ApiResponse<CursorPage<OrderResponse>>> getOrdersAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<OrderResponse> orders = orderService.getOrdersAfter(after, size);
+
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Orders retrieved successfully", orders));
+    }
+
     @GetMapping("/{orderNo}")
     public ResponseEntity<ApiResponse<OrderResponse>> getOrderById(@PathVariable String orderNo) {
         OrderResponse order = orderService.getOrderById(orderNo);
@@ -41,18 +66,30 @@ public class OrderController {
 
     @PostMapping
     public ResponseEntity<ApiResponse<OrderResponse>> createOrder(@Valid @RequestBody OrderRequest request) {
-        OrderResponse createdOrder = orderService.createOrder(request);
+        OrderResponse createdOrder = stockWriteCombiner.createOrder(request);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(new ApiResponse<>(true, "Order created successfully", createdOrder));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchOrderResponse>> createOrderBatch(
+            @Valid @RequestBody BatchOrderRequest request) {
+
+        BatchOrderResponse result = orderService.createOrderBatch(request);
+        return ResponseEntity
+                .status(result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(new ApiResponse<>(true,
+                        "Batch processed: " + result.getSucceeded() + " created, " + result.getFailed() + " failed",
+                        result));
+    }
+
     @PutMapping("/{orderNo}")
     public ResponseEntity<ApiResponse<OrderResponse>> updateOrder(
             @PathVariable String orderNo,
             @Valid @RequestBody OrderRequest request) {
 
-        OrderResponse updatedOrder = orderService.updateOrder(orderNo, request);
+        OrderResponse updatedOrder = stockWriteCombiner.updateOrder(orderNo, request);
         return ResponseEntity.ok(
                 new ApiResponse<>(true, "Order updated successfully", updatedOrder));
     }
@@ -64,4 +101,38 @@ public class OrderController {
                 .status(HttpStatus.NO_CONTENT)
                 .body(new ApiResponse<>(true, "Order deleted successfully", null));
     }
+
+    /**
+     * Set-based soft delete of many orders (ids or filter), one UPDATE per batch
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ApiResponse<BulkDeleteResponse>> deleteOrders(
+            @Valid @RequestBody BulkOrderDeleteRequest request) {
+
+        BulkDeleteResponse result = bulkDeleteService.deleteOrders(request);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Orders deleted: " + result.getDeleted(), result));
+    }
+
+    /**
+     * Streaming export of all orders: format=ndjson (default) or format=csv
+     * Any other format gets 400; 503 while inventory.export.max-concurrent exports are streaming
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        ExportService.Slot slot = exportService.reserveSlot();
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                exportService.exportOrders(out, exportFormat);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat == ExportService.Format.CSV
+                        ? MediaType.parseMediaType("text/csv")
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,23 @@
+package com.inventory.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderRequest {
+
+    // Lines are validated one by one by the service, so per-line mode can report each failure
+    @NotEmpty(message = "Orders are required")
+    @Size(max = 1000, message = "At most 1000 orders per batch")
+    private List<OrderRequest> orders;
+
+    // true = all-or-nothing (any failing line rejects the batch), false = per-line results
+    private Boolean atomic = true;
+}
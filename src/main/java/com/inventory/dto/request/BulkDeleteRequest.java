@@ -0,0 +1,37 @@
+package com.inventory.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rows to soft delete: an explicit id list, or a filter (inventory transactions: itemId and optional type)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+
+    // Unknown and already deleted ids are skipped
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<Long> ids;
+
+    // Filter: every live transaction of this item
+    private Long itemId;
+
+    // Filter: only this type (T or W), with itemId
+    @Pattern(regexp = "T|W", message = "Type must be T or W")
+    private String type;
+
+    @JsonIgnore
+    @AssertTrue(message = "Either ids or itemId is required, not both")
+    public boolean isSelectionValid() {
+        return (ids != null && !ids.isEmpty()) != (itemId != null);
+    }
+}
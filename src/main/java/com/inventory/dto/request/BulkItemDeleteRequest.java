@@ -0,0 +1,20 @@
+package com.inventory.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemDeleteRequest {
+
+    // Unknown and already deleted ids are skipped
+    @NotEmpty(message = "Ids are required")
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<Long> ids;
+}
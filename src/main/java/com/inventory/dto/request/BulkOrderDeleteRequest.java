@@ -0,0 +1,32 @@
+package com.inventory.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Orders to soft delete: an explicit order number list, or a filter (every live order of an item)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderDeleteRequest {
+
+    // Unknown and already deleted order numbers are skipped
+    @Size(max = 10000, message = "At most 10000 order numbers per request")
+    private List<String> orderNos;
+
+    // Filter: every live order of this item
+    private Long itemId;
+
+    @JsonIgnore
+    @AssertTrue(message = "Either orderNos or itemId is required, not both")
+    public boolean isSelectionValid() {
+        return (orderNos != null && !orderNos.isEmpty()) != (itemId != null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.inventory.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBucketRequest {
+
+    // 1 keeps all stock on the item row; upper bound is inventory.stock.max-buckets
+    @NotNull(message = "Buckets is required")
+    @Min(value = 1, message = "Buckets must be at least 1")
+    private Integer buckets;
+}
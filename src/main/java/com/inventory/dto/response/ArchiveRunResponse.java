@@ -0,0 +1,14 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveRunResponse {
+    private Integer inventoriesArchived;
+    private Integer ordersArchived;
+    private Integer itemsArchived; // Only items no ledger row references any more
+}
@@ -0,0 +1,19 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedInventoryResponse {
+    private Long id;
+    private Long itemId;
+    private Integer qty;
+    private String type; // T or W
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,19 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedItemResponse {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,20 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderResponse {
+    private String orderNo;
+    private Long itemId;
+    private Integer qty;
+    private BigDecimal price;
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,15 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInventoryLineResult {
+    private Integer index; // Position of the line in the batch
+    private boolean success;
+    private String message;
+    private InventoryResponse inventory; // Null when the line failed
+}
@@ -0,0 +1,15 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderLineResult {
+    private Integer index; // Position of the line in the request
+    private boolean success;
+    private String message;
+    private OrderResponse order; // Null when the line failed
+}
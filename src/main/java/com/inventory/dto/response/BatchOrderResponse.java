@@ -0,0 +1,16 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResponse {
+    private Integer succeeded;
+    private Integer failed;
+    private List<BatchOrderLineResult> results;
+}
@@ -0,0 +1,14 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResponse {
+    private Integer requested; // Ids in the request; null for a filter
+    private Integer deleted; // Rows soft deleted (unknown and already deleted ids are not counted)
+    private Integer batches; // Transactions used, one soft-delete UPDATE each
+}
@@ -0,0 +1,20 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (seek) page: no total count, just the rows and a cursor for the next page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private Integer size; // Rows in this page
+    private boolean hasNext;
+    private String nextCursor; // Pass as ?after= to get the next page; null on the last page
+}
@@ -0,0 +1,18 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+    private Long rowsRead;
+    private Long imported;
+    private Long failed;
+    private List<ImportRowError> errors; // First inventory.import.max-reported-errors failures
+    private boolean errorsTruncated;
+}
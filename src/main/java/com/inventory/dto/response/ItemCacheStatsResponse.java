@@ -0,0 +1,17 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemCacheStatsResponse {
+    private boolean enabled;
+    private Long size; // Approximate number of cached items
+    private Long hits;
+    private Long misses;
+    private Long evictions; // Removed for size or expiry (not invalidations)
+    private Double hitRate;
+}
@@ -0,0 +1,18 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBucketResponse {
+    private Long itemId;
+    private Integer buckets;
+    private Integer currentStock; // Item row plus all buckets
+    private Integer itemRowStock; // Part kept on the item row (folded in by locked writes)
+    private List<Integer> bucketStock; // Per bucket, in bucket order; empty for an unsharded item
+}
@@ -0,0 +1,13 @@
+package com.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRebuildResponse {
+    private Integer itemsScanned;
+    private Integer itemsCorrected; // Items whose stored balance differed from the ledger
+}
@@ -0,0 +1,42 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Soft-deleted inventory transaction moved out of the inventory table by ArchiveService
+ * Written only by the archive mover (INSERT ... SELECT), read-only otherwise
+ */
+@Entity
+@Immutable
+@Table(name = "inventory_archive",
+        indexes = @Index(name = "idx_inventory_archive_item_id", columnList = "item_id, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedInventory {
+
+    @Id
+    private Long id; // Same id as in the inventory table
+
+    // Plain column: the item may be archived too
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private Integer qty;
+
+    @Column(nullable = false, length = 1)
+    private String type; // 'T' = Top Up, 'W' = Withdrawal
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
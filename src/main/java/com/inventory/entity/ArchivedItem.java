@@ -0,0 +1,38 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Soft-deleted item moved out of the item table by ArchiveService, once no ledger row references it
+ * Written only by the archive mover (INSERT ... SELECT), read-only otherwise
+ */
+@Entity
+@Immutable
+@Table(name = "item_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedItem {
+
+    @Id
+    private Long id; // Same id as in the item table
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
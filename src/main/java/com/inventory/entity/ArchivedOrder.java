@@ -0,0 +1,47 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Soft-deleted order moved out of the orders table by ArchiveService
+ * Written only by the archive mover (INSERT ... SELECT), read-only otherwise
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive",
+        indexes = @Index(name = "idx_orders_archive_item_seq", columnList = "item_id, order_seq"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+
+    @Id
+    @Column(name = "order_no", length = 50)
+    private String orderNo;
+
+    @Column(name = "order_seq", nullable = false, unique = true)
+    private Long orderSeq;
+
+    // Plain column: the item may be archived too
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private Integer qty;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
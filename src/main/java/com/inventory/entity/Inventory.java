@@ -13,7 +13,11 @@ import org.hibernate.annotations.Where;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory")
+// (item_id, id): per-item ledger sums after a checkpoint watermark read only the rows past it
+// deleted_at: the archive mover finds old soft-deleted rows without scanning live ones (NULL)
+@Table(name = "inventory", indexes = {
+        @Index(name = "idx_inventory_item_id", columnList = "item_id, id"),
+        @Index(name = "idx_inventory_deleted_at", columnList = "deleted_at")})
 @SQLDelete(sql = "UPDATE inventory SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
 @Where(clause = "is_deleted = false")
 @Data
@@ -21,8 +25,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Inventory {
 
+    // Pooled sequence: ids are reserved 50 at a time, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_seq")
+    @SequenceGenerator(name = "inventory_seq", sequenceName = "inventory_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -14,16 +14,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "item")
-@SQLDelete(sql = "UPDATE item SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
+// deleted_at: the archive mover finds old soft-deleted items without scanning live ones (NULL)
+@Table(name = "item", indexes = @Index(name = "idx_item_deleted_at", columnList = "deleted_at"))
+@SQLDelete(sql = "UPDATE item SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP, version = version + 1 " +
+        "WHERE id = ? AND version = ?")
 @Where(clause = "is_deleted = false")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Item {
 
+    // Pooled sequence: ids are reserved 50 at a time, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -35,6 +39,22 @@ public class Item {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
+    // Materialized balance: SUM(inventory T) - SUM(inventory W) - SUM(orders)
+    // Maintained in the same transaction as every inventory/order mutation
+    @Column(name = "current_stock", nullable = false)
+    private Integer currentStock = 0;
+
+    // Hot items only: stock is sharded over this many stock_bucket rows, on top of current_stock
+    // Null for an unsharded item (the default)
+    @Column(name = "stock_buckets")
+    private Integer stockBuckets;
+
+    // Bumped on every item write; optimistic stock updates are conditional on it
+    // Null until persisted: Spring Data treats a versioned entity with a null version as new
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "is_deleted")
     private Boolean isDeleted = false;
 
@@ -9,23 +9,32 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+// (item_id, order_seq): per-item ledger sums after a checkpoint watermark read only the rows past it
+// deleted_at: the archive mover finds old soft-deleted orders without scanning live ones (NULL)
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_item_seq", columnList = "item_id, order_seq"),
+        @Index(name = "idx_orders_deleted_at", columnList = "deleted_at")})
 @SQLDelete(sql = "UPDATE orders SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP WHERE order_no = ?")
 @Where(clause = "is_deleted = false")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Order {
+public class Order implements Persistable<String> {
 
     @Id
     @Column(name = "order_no", nullable = false, unique = true, length = 50)
     private String orderNo; // Auto-generated: O1, O2, O3, ...
 
+    // Numeric part of orderNo; string order is O1, O10, O2, so keyset pagination seeks on this
+    @Column(name = "order_seq", nullable = false, unique = true)
+    private Long orderSeq;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     @NotNull(message = "Item is required")
@@ -46,4 +55,20 @@ public class Order {
 
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
+
+    // Order numbers are assigned by the application, so Spring Data cannot tell a new order
+    // from its id. Without this, save() merges and runs a SELECT before every INSERT.
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return orderNo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -0,0 +1,64 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * One shard of a hot item's stock (see Item.stockBuckets)
+ * The item's stock is its own current_stock plus the qty of all its buckets.
+ * Orders and withdrawals take from a single bucket, so concurrent writers on the item
+ * lock different rows instead of queueing on the item row.
+ */
+@Entity
+@Table(name = "stock_bucket")
+@IdClass(StockBucket.Key.class)
+@Data
+@NoArgsConstructor
+public class StockBucket implements Persistable<StockBucket.Key> {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    // 0 .. stockBuckets - 1
+    @Id
+    @Column(name = "bucket_no")
+    private Integer bucketNo;
+
+    @Column(nullable = false)
+    private Integer qty = 0;
+
+    // Keyed by item id and bucket number, so Spring Data cannot tell a new bucket from its id (see Order)
+    @Transient
+    private boolean isNew = true;
+
+    public StockBucket(Long itemId, Integer bucketNo, Integer qty) {
+        this.itemId = itemId;
+        this.bucketNo = bucketNo;
+        this.qty = qty;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(itemId, bucketNo);
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long itemId;
+        private Integer bucketNo;
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger balance of one item up to a high-water mark
+ * Ledger stock = balance + inventory rows with id > inventoryWatermark - orders with order_seq > orderWatermark.
+ * Rolled forward by StockCheckpointService; updates and deletes of rows at or below a watermark
+ * adjust the balance in the same transaction.
+ */
+@Entity
+@Table(name = "stock_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockCheckpoint implements Persistable<Long> {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    // Highest inventory id included in the balance
+    @Column(name = "inventory_watermark", nullable = false)
+    private Long inventoryWatermark = 0L;
+
+    // Highest order_seq included in the balance
+    @Column(name = "order_watermark", nullable = false)
+    private Long orderWatermark = 0L;
+
+    // SUM(inventory T) - SUM(inventory W) - SUM(orders) of live rows up to the watermarks
+    @Column(nullable = false)
+    private Integer balance = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Keyed by item id, so Spring Data cannot tell a new checkpoint from its id (see Order)
+    @Transient
+    private boolean isNew = true;
+
+    public StockCheckpoint(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
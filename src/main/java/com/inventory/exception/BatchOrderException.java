@@ -0,0 +1,19 @@
+package com.inventory.exception;
+
+import com.inventory.dto.response.BatchOrderResponse;
+import lombok.Getter;
+
+/**
+ * Thrown when an all-or-nothing order batch has failing lines
+ * Carries the per-line results so the client can see which lines were rejected
+ */
+@Getter
+public class BatchOrderException extends RuntimeException {
+
+    private final BatchOrderResponse result;
+
+    public BatchOrderException(String message, BatchOrderResponse result) {
+        super(message);
+        this.result = result;
+    }
+}
@@ -0,0 +1,7 @@
+package com.inventory.exception;
+
+public class StockConflictException extends RuntimeException {
+    public StockConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.inventory.repository;
+
+import com.inventory.entity.ArchivedInventory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedInventoryRepository extends JpaRepository<ArchivedInventory, Long> {
+
+    /**
+     * Keyset pagination over the archive, seeking on the primary key
+     */
+    List<ArchivedInventory> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Keyset pagination over one item's archived transactions, seeking on the (item_id, id) index
+     */
+    List<ArchivedInventory> findByItemIdAndIdGreaterThanOrderByIdAsc(Long itemId, Long after, Limit limit);
+
+    /**
+     * Copy soft-deleted transactions from the inventory table, in one statement
+     */
+    @Modifying
+    @Query(value = "INSERT INTO inventory_archive (id, item_id, qty, type, deleted_at, archived_at) " +
+            "SELECT id, item_id, qty, type, deleted_at, CURRENT_TIMESTAMP FROM inventory " +
+            "WHERE id IN (:ids) AND is_deleted = TRUE",
+            nativeQuery = true)
+    int copyFromInventory(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,31 @@
+package com.inventory.repository;
+
+import com.inventory.entity.ArchivedItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedItemRepository extends JpaRepository<ArchivedItem, Long> {
+
+    /**
+     * Keyset pagination over the archive, seeking on the primary key
+     */
+    List<ArchivedItem> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Copy soft-deleted items from the item table, in one statement
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_archive (id, name, price, deleted_at, archived_at) " +
+            "SELECT id, name, price, deleted_at, CURRENT_TIMESTAMP FROM item " +
+            "WHERE id IN (:ids) AND is_deleted = TRUE",
+            nativeQuery = true)
+    int copyFromItems(@Param("ids") Collection<Long> ids);
+}
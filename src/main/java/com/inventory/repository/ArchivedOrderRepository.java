@@ -0,0 +1,36 @@
+package com.inventory.repository;
+
+import com.inventory.entity.ArchivedOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, String> {
+
+    /**
+     * Keyset pagination over the archive, seeking on order_seq (order_no sorts as text)
+     */
+    List<ArchivedOrder> findByOrderSeqGreaterThanOrderByOrderSeqAsc(Long after, Limit limit);
+
+    /**
+     * Keyset pagination over one item's archived orders, seeking on the (item_id, order_seq) index
+     */
+    List<ArchivedOrder> findByItemIdAndOrderSeqGreaterThanOrderByOrderSeqAsc(Long itemId, Long after, Limit limit);
+
+    /**
+     * Copy soft-deleted orders from the orders table, in one statement
+     */
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (order_no, order_seq, item_id, qty, price, deleted_at, archived_at) " +
+            "SELECT order_no, order_seq, item_id, qty, price, deleted_at, CURRENT_TIMESTAMP FROM orders " +
+            "WHERE order_no IN (:orderNos) AND is_deleted = TRUE",
+            nativeQuery = true)
+    int copyFromOrders(@Param("orderNos") Collection<String> orderNos);
+}
@@ -1,13 +1,23 @@
 package com.inventory.repository;
 
+import com.inventory.dto.response.InventoryResponse;
 import com.inventory.entity.Inventory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
@@ -18,11 +28,110 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Page<Inventory> findAll(Pageable pageable);
 
     /**
-     * Calculate stock from inventory transactions (Top Up - Withdrawal)
-     * ONLY counts non-deleted records
+     * Find a page of transactions as responses, joined with the item name in one statement
+     * No entity hydration: avoids one lazy item select per row and dirty checking
+     */
+    @Query(value = "SELECT new com.inventory.dto.response.InventoryResponse(v.id, i.id, i.name, v.qty, v.type) " +
+            "FROM Inventory v JOIN v.item i",
+            countQuery = "SELECT COUNT(v) FROM Inventory v")
+    Page<InventoryResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * Keyset pagination: next transactions after the given id as responses, seeking on the primary key
+     * No OFFSET and no COUNT, so deep pages cost the same as the first one
+     */
+    @Query("SELECT new com.inventory.dto.response.InventoryResponse(v.id, i.id, i.name, v.qty, v.type) " +
+            "FROM Inventory v JOIN v.item i WHERE v.id > :after ORDER BY v.id")
+    List<InventoryResponse> findResponsesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Find single transaction as a response, joined with the item name
+     */
+    @Query("SELECT new com.inventory.dto.response.InventoryResponse(v.id, i.id, i.name, v.qty, v.type) " +
+            "FROM Inventory v JOIN v.item i WHERE v.id = :id")
+    Optional<InventoryResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Find inventory transaction by ID with pessimistic write lock
+     * Used by update/delete so two concurrent edits of the same row cannot
+     * apply their stock delta twice
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id = :id")
+    Optional<Inventory> findByIdWithLock(@Param("id") Long id);
+
+    /**
+     * Find several transactions with pessimistic write lock, in ascending id order (bulk delete)
+     * Deleted transactions are not returned
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id IN :ids ORDER BY i.id")
+    List<Inventory> findAllByIdWithLock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of an item's live transactions, optionally of one type, in id order (bulk delete by filter)
+     */
+    @Query("SELECT i.id FROM Inventory i WHERE i.item.id = :itemId AND (:type IS NULL OR i.type = :type) " +
+            "ORDER BY i.id")
+    List<Long> findIdsByItem(@Param("itemId") Long itemId, @Param("type") String type, Limit limit);
+
+    /**
+     * Soft delete several transactions in one statement (same columns as @SQLDelete)
+     */
+    @Modifying
+    @Query(value = "UPDATE inventory SET is_deleted = TRUE, deleted_at = CURRENT_TIMESTAMP " +
+            "WHERE id IN (:ids) AND is_deleted = FALSE",
+            nativeQuery = true)
+    int softDeleteAll(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Calculate stock from inventory transactions after a watermark (Top Up - Withdrawal)
+     * ONLY counts non-deleted records; afterId = 0 sums the whole ledger
      * Type 'T' adds to stock, Type 'W' subtracts from stock
      */
     @Query("SELECT COALESCE(SUM(CASE WHEN i.type = 'T' THEN i.qty ELSE -i.qty END), 0) " +
-            "FROM Inventory i WHERE i.item.id = :itemId AND i.isDeleted = false")
-    Integer calculateStockFromInventory(@Param("itemId") Long itemId);
+            "FROM Inventory i WHERE i.item.id = :itemId AND i.id > :afterId AND i.isDeleted = false")
+    Integer calculateStockFromInventory(@Param("itemId") Long itemId, @Param("afterId") Long afterId);
+
+    /**
+     * Calculate inventory stock after each item's checkpoint, for several items in one grouped aggregate
+     * The checkpoint watermark bounds the index range, so only rows after it are read.
+     * Items without transactions after their checkpoint are absent from the result
+     */
+    @Query(value = "SELECT it.id AS \"itemId\", SUM(CASE WHEN v.type = 'T' THEN v.qty ELSE -v.qty END) AS \"qty\" " +
+            "FROM item it LEFT JOIN stock_checkpoint c ON c.item_id = it.id " +
+            "JOIN inventory v ON v.item_id = it.id AND v.id > COALESCE(c.inventory_watermark, 0) " +
+            "WHERE it.id IN (:itemIds) AND v.is_deleted = FALSE GROUP BY it.id",
+            nativeQuery = true)
+    List<ItemQuantity> calculateStockFromInventoryByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Inventory rows after each item's checkpoint: stock effect of the live ones and the highest id (live or deleted)
+     * Used to roll checkpoints forward; items without rows after their checkpoint are absent
+     */
+    @Query(value = "SELECT it.id AS \"itemId\", " +
+            "SUM(CASE WHEN v.is_deleted THEN 0 WHEN v.type = 'T' THEN v.qty ELSE -v.qty END) AS \"qty\", " +
+            "MAX(v.id) AS \"lastKey\" " +
+            "FROM item it LEFT JOIN stock_checkpoint c ON c.item_id = it.id " +
+            "JOIN inventory v ON v.item_id = it.id AND v.id > COALESCE(c.inventory_watermark, 0) " +
+            "WHERE it.id IN (:itemIds) GROUP BY it.id",
+            nativeQuery = true)
+    List<LedgerTail> findLedgerTailsByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Ids of soft-deleted transactions deleted before the cutoff, oldest first (archive mover)
+     * Seeks the deleted_at index; live rows have no deleted_at and are never read
+     */
+    @Query(value = "SELECT id FROM inventory WHERE deleted_at < :cutoff AND is_deleted = TRUE " +
+            "ORDER BY deleted_at LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Physically remove soft-deleted transactions once they are copied to the archive
+     * Native: @SQLDelete would only mark them deleted again
+     */
+    @Modifying
+    @Query(value = "DELETE FROM inventory WHERE id IN (:ids) AND is_deleted = TRUE", nativeQuery = true)
+    int purgeDeleted(@Param("ids") Collection<Long> ids);
 }
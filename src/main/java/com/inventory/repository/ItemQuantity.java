@@ -0,0 +1,11 @@
+package com.inventory.repository;
+
+/**
+ * Projection for grouped per-item quantity aggregates
+ */
+public interface ItemQuantity {
+
+    Long getItemId();
+
+    Long getQty();
+}
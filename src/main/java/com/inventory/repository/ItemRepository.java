@@ -1,25 +1,43 @@
 package com.inventory.repository;
 
+import com.inventory.dto.response.ItemResponse;
 import com.inventory.entity.Item;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     /**
-     * Find all items with pagination
+     * Find all items with pagination, projected straight into responses (stock from the item row only;
+     * ItemService adds the stock buckets of sharded items)
      * Automatically filters out soft-deleted items due to @Where clause in Entity
      */
-    Page<Item> findAll(Pageable pageable);
+    @Query(value = "SELECT new com.inventory.dto.response.ItemResponse(i.id, i.name, i.price, " +
+            "i.currentStock) FROM Item i",
+            countQuery = "SELECT COUNT(i) FROM Item i")
+    Page<ItemResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * Keyset pagination: next items after the given key as responses, seeking on the primary key
+     * No OFFSET and no COUNT, so deep pages cost the same as the first one
+     */
+    @Query("SELECT new com.inventory.dto.response.ItemResponse(i.id, i.name, i.price, " +
+            "i.currentStock) FROM Item i WHERE i.id > :after ORDER BY i.id")
+    List<ItemResponse> findResponsesAfter(@Param("after") Long after, Limit limit);
 
     /**
      * Find item by ID with pessimistic write lock
@@ -29,4 +47,72 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT i FROM Item i WHERE i.id = :id")
     Optional<Item> findByIdWithLock(@Param("id") Long id);
+
+    /**
+     * Find several items with pessimistic write lock
+     * Rows are locked in ascending id order so concurrent multi-item writers cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdWithLock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * List ids of all non-deleted items, used when rebuilding stock balances
+     */
+    @Query("SELECT i.id FROM Item i ORDER BY i.id")
+    List<Long> findAllIds();
+
+    /**
+     * Read balance, version and display fields without loading (or locking) the entity
+     * First half of an optimistic stock update
+     */
+    @Query("SELECT i.id AS id, i.name AS name, i.price AS price, " +
+            "i.currentStock AS currentStock, i.version AS version FROM Item i WHERE i.id = :id")
+    Optional<ItemSnapshot> findSnapshotById(@Param("id") Long id);
+
+    /**
+     * Apply a stock delta only if the item is still at the expected version
+     * Returns 0 when another write got there first; the caller re-reads and retries
+     */
+    @Modifying
+    @Query("UPDATE Item i SET i.currentStock = i.currentStock + :delta, i.version = i.version + 1 " +
+            "WHERE i.id = :id AND i.version = :version")
+    int applyStockDeltaIfVersion(@Param("id") Long id, @Param("delta") int delta, @Param("version") Long version);
+
+    /**
+     * Take qty from the balance only if it covers it, in one statement (guarded concurrency mode)
+     * Returns 0 when the balance is too low or the item does not exist; the row stays locked until commit
+     */
+    @Modifying
+    @Query("UPDATE Item i SET i.currentStock = i.currentStock - :qty, i.version = i.version + 1 " +
+            "WHERE i.id = :id AND i.currentStock >= :qty AND i.isDeleted = false")
+    int takeStockIfAvailable(@Param("id") Long id, @Param("qty") int qty);
+
+    /**
+     * Soft delete several items in one statement (same columns as @SQLDelete, version bumped)
+     * Waits for writers holding an item lock; optimistic updates then fail their version check
+     */
+    @Modifying
+    @Query(value = "UPDATE item SET is_deleted = TRUE, deleted_at = CURRENT_TIMESTAMP, version = version + 1 " +
+            "WHERE id IN (:ids) AND is_deleted = FALSE",
+            nativeQuery = true)
+    int softDeleteAll(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of soft-deleted items deleted before the cutoff that no ledger row references any more (archive mover)
+     * Items whose transactions or orders are still in the hot tables stay until those are archived
+     */
+    @Query(value = "SELECT it.id FROM item it WHERE it.deleted_at < :cutoff AND it.is_deleted = TRUE " +
+            "AND NOT EXISTS (SELECT 1 FROM inventory v WHERE v.item_id = it.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.item_id = it.id) " +
+            "ORDER BY it.deleted_at LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Physically remove soft-deleted items once they are copied to the archive
+     */
+    @Modifying
+    @Query(value = "DELETE FROM item WHERE id IN (:ids) AND is_deleted = TRUE", nativeQuery = true)
+    int purgeDeleted(@Param("ids") Collection<Long> ids);
 }
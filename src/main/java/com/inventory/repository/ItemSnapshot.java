@@ -0,0 +1,19 @@
+package com.inventory.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of an item's balance at a given version
+ */
+public interface ItemSnapshot {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Integer getCurrentStock();
+
+    Long getVersion();
+}
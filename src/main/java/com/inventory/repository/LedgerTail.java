@@ -0,0 +1,13 @@
+package com.inventory.repository;
+
+/**
+ * Projection for the ledger rows of an item after its stock checkpoint
+ */
+public interface LedgerTail {
+
+    Long getItemId();
+
+    Long getQty(); // Stock effect of the live rows
+
+    Long getLastKey(); // Highest inventory id / order_seq, deleted rows included
+}
@@ -1,13 +1,23 @@
 package com.inventory.repository;
 
+import com.inventory.dto.response.OrderResponse;
 import com.inventory.entity.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
 
@@ -18,18 +28,125 @@ public interface OrderRepository extends JpaRepository<Order, String> {
     Page<Order> findAll(Pageable pageable);
 
     /**
-     * Get total ordered quantity for a specific item
-     * ONLY counts non-deleted orders
+     * Find a page of orders as responses, joined with the item name in one statement
+     * No entity hydration: avoids one lazy item select per row and dirty checking
+     */
+    @Query(value = "SELECT new com.inventory.dto.response.OrderResponse(o.orderNo, i.id, i.name, o.qty, o.price) " +
+            "FROM Order o JOIN o.item i",
+            countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * Keyset pagination: next orders after the given key as responses,
+     * seeking on the numeric order sequence (order_seq)
+     * No OFFSET and no COUNT, so deep pages cost the same as the first one
+     */
+    @Query("SELECT new com.inventory.dto.response.OrderResponse(o.orderNo, i.id, i.name, o.qty, o.price) " +
+            "FROM Order o JOIN o.item i WHERE o.orderSeq > :after ORDER BY o.orderSeq")
+    List<OrderResponse> findResponsesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Find single order as a response, joined with the item name
+     */
+    @Query("SELECT new com.inventory.dto.response.OrderResponse(o.orderNo, i.id, i.name, o.qty, o.price) " +
+            "FROM Order o JOIN o.item i WHERE o.orderNo = :orderNo")
+    Optional<OrderResponse> findResponseById(@Param("orderNo") String orderNo);
+
+    /**
+     * Find order by order number with pessimistic write lock
+     * Used by update/delete so two concurrent edits of the same order cannot
+     * apply their stock delta twice
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderNo = :orderNo")
+    Optional<Order> findByIdWithLock(@Param("orderNo") String orderNo);
+
+    /**
+     * Find several orders with pessimistic write lock, in order number order (bulk delete)
+     * Deleted orders are not returned
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderNo IN :orderNos ORDER BY o.orderSeq")
+    List<Order> findAllByIdWithLock(@Param("orderNos") Collection<String> orderNos);
+
+    /**
+     * Order numbers of an item's live orders, in order number order (bulk delete by filter)
+     */
+    @Query("SELECT o.orderNo FROM Order o WHERE o.item.id = :itemId ORDER BY o.orderSeq")
+    List<String> findOrderNosByItem(@Param("itemId") Long itemId, Limit limit);
+
+    /**
+     * Soft delete several orders in one statement (same columns as @SQLDelete)
+     */
+    @Modifying
+    @Query(value = "UPDATE orders SET is_deleted = TRUE, deleted_at = CURRENT_TIMESTAMP " +
+            "WHERE order_no IN (:orderNos) AND is_deleted = FALSE",
+            nativeQuery = true)
+    int softDeleteAll(@Param("orderNos") Collection<String> orderNos);
+
+    /**
+     * Get total ordered quantity for a specific item after a watermark
+     * ONLY counts non-deleted orders; afterSeq = 0 sums every order
      */
     @Query("SELECT COALESCE(SUM(o.qty), 0) FROM Order o " +
-            "WHERE o.item.id = :itemId AND o.isDeleted = false")
-    Integer getTotalOrderedQty(@Param("itemId") Long itemId);
+            "WHERE o.item.id = :itemId AND o.orderSeq > :afterSeq AND o.isDeleted = false")
+    Integer getTotalOrderedQty(@Param("itemId") Long itemId, @Param("afterSeq") Long afterSeq);
+
+    /**
+     * Get total ordered quantity after each item's checkpoint, for several items in one grouped aggregate
+     * Items without orders after their checkpoint are absent from the result
+     */
+    @Query(value = "SELECT it.id AS \"itemId\", SUM(o.qty) AS \"qty\" " +
+            "FROM item it LEFT JOIN stock_checkpoint c ON c.item_id = it.id " +
+            "JOIN orders o ON o.item_id = it.id AND o.order_seq > COALESCE(c.order_watermark, 0) " +
+            "WHERE it.id IN (:itemIds) AND o.is_deleted = FALSE GROUP BY it.id",
+            nativeQuery = true)
+    List<ItemQuantity> getTotalOrderedQtyByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Orders after each item's checkpoint: quantity of the live ones and the highest order_seq (live or deleted)
+     * Used to roll checkpoints forward; items without orders after their checkpoint are absent
+     */
+    @Query(value = "SELECT it.id AS \"itemId\", SUM(CASE WHEN o.is_deleted THEN 0 ELSE o.qty END) AS \"qty\", " +
+            "MAX(o.order_seq) AS \"lastKey\" " +
+            "FROM item it LEFT JOIN stock_checkpoint c ON c.item_id = it.id " +
+            "JOIN orders o ON o.item_id = it.id AND o.order_seq > COALESCE(c.order_watermark, 0) " +
+            "WHERE it.id IN (:itemIds) GROUP BY it.id",
+            nativeQuery = true)
+    List<LedgerTail> findLedgerTailsByItemIds(@Param("itemIds") Collection<Long> itemIds);
 
     /**
-     * Get the maximum order sequence number for auto-generation
+     * Get the maximum order sequence number ever used
      * Extracts number from O1, O2, O3, ... format
-     * ONLY counts non-deleted orders
+     * Native query so soft-deleted and archived orders are counted too: their numbers must never be reused
+     * Full scan; only run once at startup to position the order number sequence
+     */
+    @Query(value = "SELECT GREATEST(" +
+            "(SELECT COALESCE(MAX(CAST(SUBSTRING(order_no, 2) AS BIGINT)), 0) FROM orders), " +
+            "(SELECT COALESCE(MAX(order_seq), 0) FROM orders_archive))",
+            nativeQuery = true)
+    Long getMaxOrderSequenceIncludingDeleted();
+
+    /**
+     * Reserve the next block of order numbers from the order number sequence
+     * Returns the first number of the block
+     */
+    @Query(value = "SELECT NEXT VALUE FOR order_no_seq", nativeQuery = true)
+    Long nextOrderNumberBlock();
+
+    /**
+     * Order numbers of soft-deleted orders deleted before the cutoff, oldest first (archive mover)
+     * Seeks the deleted_at index; live orders have no deleted_at and are never read
+     */
+    @Query(value = "SELECT order_no FROM orders WHERE deleted_at < :cutoff AND is_deleted = TRUE " +
+            "ORDER BY deleted_at LIMIT :limit",
+            nativeQuery = true)
+    List<String> findArchivableOrderNos(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Physically remove soft-deleted orders once they are copied to the archive
      */
-    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(o.orderNo, 2) AS int)), 0) FROM Order o WHERE o.isDeleted = false")
-    Integer getMaxOrderSequence();
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE order_no IN (:orderNos) AND is_deleted = TRUE", nativeQuery = true)
+    int purgeDeleted(@Param("orderNos") Collection<String> orderNos);
 }
@@ -0,0 +1,76 @@
+package com.inventory.repository;
+
+import com.inventory.entity.StockBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockBucketRepository extends JpaRepository<StockBucket, StockBucket.Key> {
+
+    /**
+     * Lock the first bucket in [from, to) that covers qty and no other transaction holds
+     * Skips locked buckets instead of waiting for them; empty when every covering bucket is busy (or none covers qty)
+     */
+    @Query(value = "SELECT bucket_no FROM stock_bucket WHERE item_id = :itemId " +
+            "AND bucket_no >= :from AND bucket_no < :to AND qty >= :qty " +
+            "FETCH FIRST 1 ROW ONLY FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Integer> lockAvailableBucket(@Param("itemId") Long itemId, @Param("from") int from, @Param("to") int to,
+                                      @Param("qty") int qty);
+
+    /**
+     * Take qty from a bucket locked by lockAvailableBucket (still guarded, returns 0 if it no longer covers qty)
+     */
+    @Modifying
+    @Query(value = "UPDATE stock_bucket SET qty = qty - :qty WHERE item_id = :itemId AND bucket_no = :bucketNo " +
+            "AND qty >= :qty",
+            nativeQuery = true)
+    int takeIfAvailable(@Param("itemId") Long itemId, @Param("bucketNo") int bucketNo, @Param("qty") int qty);
+
+    /**
+     * Spread qty over all buckets of an item in one statement: each gets qty / buckets,
+     * the first qty % buckets get one more. Returns the number of buckets updated (0: item has none)
+     */
+    @Modifying
+    @Query(value = "UPDATE stock_bucket SET qty = qty + :each + CASE WHEN bucket_no < :extra THEN 1 ELSE 0 END " +
+            "WHERE item_id = :itemId",
+            nativeQuery = true)
+    int spread(@Param("itemId") Long itemId, @Param("each") int each, @Param("extra") int extra);
+
+    /**
+     * Lock the buckets of several items, in ascending item and bucket order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StockBucket b WHERE b.itemId IN :itemIds ORDER BY b.itemId, b.bucketNo")
+    List<StockBucket> findAllByItemIdsWithLock(@Param("itemIds") Collection<Long> itemIds);
+
+    List<StockBucket> findByItemIdOrderByBucketNo(Long itemId);
+
+    /**
+     * Stock held in an item's buckets (0 when it has none)
+     */
+    @Query("SELECT COALESCE(SUM(b.qty), 0) FROM StockBucket b WHERE b.itemId = :itemId")
+    int sumQtyByItemId(@Param("itemId") Long itemId);
+
+    /**
+     * Stock held in the buckets of several items, one row per item that has buckets
+     */
+    @Query("SELECT b.itemId AS itemId, SUM(b.qty) AS qty FROM StockBucket b WHERE b.itemId IN :itemIds " +
+            "GROUP BY b.itemId")
+    List<ItemQuantity> sumQtyByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Drop the buckets of items that are unsharded or moved to the archive
+     */
+    @Modifying
+    @Query("DELETE FROM StockBucket b WHERE b.itemId IN :itemIds")
+    int deleteByItemIds(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -0,0 +1,52 @@
+package com.inventory.repository;
+
+import com.inventory.entity.StockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockCheckpointRepository extends JpaRepository<StockCheckpoint, Long> {
+
+    /**
+     * Apply a change of an inventory row to the checkpoint, if the row is at or below its watermark
+     * Rows above the watermark are summed live, so nothing to do for them (no row updated)
+     */
+    @Modifying
+    @Query("UPDATE StockCheckpoint c SET c.balance = c.balance + :delta " +
+            "WHERE c.itemId = :itemId AND c.inventoryWatermark >= :inventoryId")
+    int adjustForInventory(@Param("itemId") Long itemId, @Param("inventoryId") Long inventoryId,
+                           @Param("delta") int delta);
+
+    /**
+     * Apply a change of an order to the checkpoint, if the order is at or below its watermark
+     */
+    @Modifying
+    @Query("UPDATE StockCheckpoint c SET c.balance = c.balance + :delta " +
+            "WHERE c.itemId = :itemId AND c.orderWatermark >= :orderSeq")
+    int adjustForOrder(@Param("itemId") Long itemId, @Param("orderSeq") Long orderSeq, @Param("delta") int delta);
+
+    /**
+     * Non-deleted items with ledger rows (live or deleted) after their checkpoint, or without one
+     * Deleted rows count too: they still move the watermark, otherwise the item would qualify forever
+     */
+    @Query(value = "SELECT it.id FROM item it LEFT JOIN stock_checkpoint c ON c.item_id = it.id " +
+            "WHERE it.is_deleted = FALSE AND (" +
+            "EXISTS (SELECT 1 FROM inventory v WHERE v.item_id = it.id AND v.id > COALESCE(c.inventory_watermark, 0)) " +
+            "OR EXISTS (SELECT 1 FROM orders o WHERE o.item_id = it.id AND o.order_seq > COALESCE(c.order_watermark, 0))) " +
+            "ORDER BY it.id",
+            nativeQuery = true)
+    List<Long> findItemIdsWithNewLedgerRows();
+
+    /**
+     * Drop the checkpoints of items moved to the archive, or reset by a full stock rebuild
+     */
+    @Modifying
+    @Query("DELETE FROM StockCheckpoint c WHERE c.itemId IN :itemIds")
+    int deleteByItemIds(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -0,0 +1,61 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.response.ArchiveRunResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Archive mover (scheduled by ArchiveScheduling, or run on demand through the archive API)
+ * Moves rows soft-deleted more than inventory.archive.min-age ago in batches of inventory.archive.batch-size,
+ * one transaction per batch. Transactions and orders go first, so items they referenced can follow in the same run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveJob {
+
+    private final ArchiveService archiveService;
+    private final InventoryProperties properties;
+
+    // Not synchronized: a run is all database work, which would pin a virtual thread's carrier
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    /**
+     * Archive everything old enough; runs are serialized, so two runs never pick the same rows
+     */
+    public ArchiveRunResponse archiveAll() {
+        runLock.lock();
+        try {
+            long start = System.nanoTime();
+            LocalDateTime cutoff = LocalDateTime.now().minus(properties.getArchive().getMinAge());
+            int batchSize = properties.getArchive().getBatchSize();
+            int inventories = drain(() -> archiveService.archiveInventoryBatch(cutoff, batchSize), batchSize);
+            int orders = drain(() -> archiveService.archiveOrderBatch(cutoff, batchSize), batchSize);
+            int items = drain(() -> archiveService.archiveItemBatch(cutoff, batchSize), batchSize);
+            if (inventories + orders + items > 0) {
+                log.info("Archived {} inventory transactions, {} orders and {} items in {} ms",
+                        inventories, orders, items, (System.nanoTime() - start) / 1_000_000);
+            }
+            return new ArchiveRunResponse(inventories, orders, items);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    // Run batches until one comes back short
+    private int drain(IntSupplier batch, int batchSize) {
+        int total = 0;
+        int moved;
+        do {
+            moved = batch.getAsInt();
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+}
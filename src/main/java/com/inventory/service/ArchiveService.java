@@ -0,0 +1,132 @@
+package com.inventory.service;
+
+import com.inventory.dto.response.ArchivedInventoryResponse;
+import com.inventory.dto.response.ArchivedItemResponse;
+import com.inventory.dto.response.ArchivedOrderResponse;
+import com.inventory.dto.response.CursorPage;
+import com.inventory.entity.ArchivedInventory;
+import com.inventory.entity.ArchivedItem;
+import com.inventory.entity.ArchivedOrder;
+import com.inventory.repository.ArchivedInventoryRepository;
+import com.inventory.repository.ArchivedItemRepository;
+import com.inventory.repository.ArchivedOrderRepository;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ItemRepository;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.StockBucketRepository;
+import com.inventory.repository.StockCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves soft-deleted rows from the hot tables into archive tables, and reads the archive
+ * Each batch is one transaction: copy the rows (INSERT ... SELECT), then delete them from the hot table.
+ * No item lock is taken: a soft-deleted row is final (updates and deletes only find live rows) and is
+ * already left out of every balance, ledger sum and stock checkpoint, so removing it changes none of them.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ArchiveService {
+
+    private final InventoryRepository inventoryRepository;
+    private final OrderRepository orderRepository;
+    private final ItemRepository itemRepository;
+    private final StockCheckpointRepository stockCheckpointRepository;
+    private final StockBucketRepository stockBucketRepository;
+    private final ArchivedInventoryRepository archivedInventoryRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedItemRepository archivedItemRepository;
+
+    /**
+     * Archive up to batchSize inventory transactions soft-deleted before the cutoff
+     * Returns the number of rows moved
+     */
+    @Transactional
+    public int archiveInventoryBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = inventoryRepository.findArchivableIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedInventoryRepository.copyFromInventory(ids);
+        return inventoryRepository.purgeDeleted(ids);
+    }
+
+    /**
+     * Archive up to batchSize orders soft-deleted before the cutoff
+     * Returns the number of orders moved
+     */
+    @Transactional
+    public int archiveOrderBatch(LocalDateTime cutoff, int batchSize) {
+        List<String> orderNos = orderRepository.findArchivableOrderNos(cutoff, batchSize);
+        if (orderNos.isEmpty()) {
+            return 0;
+        }
+        archivedOrderRepository.copyFromOrders(orderNos);
+        return orderRepository.purgeDeleted(orderNos);
+    }
+
+    /**
+     * Archive up to batchSize items soft-deleted before the cutoff that no transaction or order references
+     * Their stock checkpoints and buckets are dropped with them. Returns the number of items moved
+     */
+    @Transactional
+    public int archiveItemBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = itemRepository.findArchivableIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedItemRepository.copyFromItems(ids);
+        stockCheckpointRepository.deleteByItemIds(ids);
+        stockBucketRepository.deleteByItemIds(ids);
+        return itemRepository.purgeDeleted(ids);
+    }
+
+    /**
+     * Archived inventory transactions after a cursor (keyset pagination on id), optionally for one item
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ArchivedInventoryResponse> getArchivedTransactions(Long itemId, String after, int size) {
+        int pageSize = CursorCodec.pageSize(size);
+        long afterId = CursorCodec.decode(after);
+        List<ArchivedInventory> rows = (itemId == null)
+                ? archivedInventoryRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1))
+                : archivedInventoryRepository.findByItemIdAndIdGreaterThanOrderByIdAsc(
+                        itemId, afterId, Limit.of(pageSize + 1));
+        return CursorCodec.toPage(rows, pageSize, ArchivedInventory::getId, row -> new ArchivedInventoryResponse(
+                row.getId(), row.getItemId(), row.getQty(), row.getType(), row.getDeletedAt(), row.getArchivedAt()));
+    }
+
+    /**
+     * Archived orders after a cursor (keyset pagination on order_seq), optionally for one item
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ArchivedOrderResponse> getArchivedOrders(Long itemId, String after, int size) {
+        int pageSize = CursorCodec.pageSize(size);
+        long afterSeq = CursorCodec.decode(after);
+        List<ArchivedOrder> rows = (itemId == null)
+                ? archivedOrderRepository.findByOrderSeqGreaterThanOrderByOrderSeqAsc(afterSeq, Limit.of(pageSize + 1))
+                : archivedOrderRepository.findByItemIdAndOrderSeqGreaterThanOrderByOrderSeqAsc(
+                        itemId, afterSeq, Limit.of(pageSize + 1));
+        return CursorCodec.toPage(rows, pageSize, ArchivedOrder::getOrderSeq, row -> new ArchivedOrderResponse(
+                row.getOrderNo(), row.getItemId(), row.getQty(), row.getPrice(),
+                row.getDeletedAt(), row.getArchivedAt()));
+    }
+
+    /**
+     * Archived items after a cursor (keyset pagination on id)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ArchivedItemResponse> getArchivedItems(String after, int size) {
+        int pageSize = CursorCodec.pageSize(size);
+        List<ArchivedItem> rows = archivedItemRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorCodec.decode(after), Limit.of(pageSize + 1));
+        return CursorCodec.toPage(rows, pageSize, ArchivedItem::getId, row -> new ArchivedItemResponse(
+                row.getId(), row.getName(), row.getPrice(), row.getDeletedAt(), row.getArchivedAt()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.BulkDeleteRequest;
+import com.inventory.dto.request.BulkItemDeleteRequest;
+import com.inventory.dto.request.BulkOrderDeleteRequest;
+import com.inventory.dto.response.BulkDeleteResponse;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Set-based soft delete of many items, inventory transactions or orders
+ * Rows are deleted in batches of inventory.bulk-delete.batch-size, one transaction and one soft-delete UPDATE
+ * per batch (see the services' *Batch methods for the locking and balance updates).
+ * Not transactional itself: a failing batch does not undo the batches before it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkDeleteService {
+
+    private final ItemService itemService;
+    private final InventoryService inventoryService;
+    private final OrderService orderService;
+    private final InventoryRepository inventoryRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryProperties properties;
+
+    public BulkDeleteResponse deleteItems(BulkItemDeleteRequest request) {
+        return deleteIds(request.getIds(), itemService::deleteItemBatch, "items");
+    }
+
+    public BulkDeleteResponse deleteTransactions(BulkDeleteRequest request) {
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            return deleteIds(request.getIds(), inventoryService::deleteTransactionBatch, "inventory transactions");
+        }
+        int batchSize = batchSize();
+        return deleteMatching(
+                () -> inventoryRepository.findIdsByItem(request.getItemId(), request.getType(), Limit.of(batchSize)),
+                inventoryService::deleteTransactionBatch, "inventory transactions");
+    }
+
+    public BulkDeleteResponse deleteOrders(BulkOrderDeleteRequest request) {
+        if (request.getOrderNos() != null && !request.getOrderNos().isEmpty()) {
+            return deleteIds(request.getOrderNos(), orderService::deleteOrderBatch, "orders");
+        }
+        int batchSize = batchSize();
+        return deleteMatching(
+                () -> orderRepository.findOrderNosByItem(request.getItemId(), Limit.of(batchSize)),
+                orderService::deleteOrderBatch, "orders");
+    }
+
+    // Explicit ids: consecutive slices of the list
+    private <K> BulkDeleteResponse deleteIds(List<K> ids, Function<List<K>, Integer> batchDeleter, String label) {
+        List<K> distinct = ids.stream().distinct().toList();
+        int batchSize = batchSize();
+        int deleted = 0;
+        int batches = 0;
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            deleted += batchDeleter.apply(distinct.subList(from, Math.min(from + batchSize, distinct.size())));
+            batches++;
+        }
+        log.info("Bulk deleted {} of {} {} in {} batches", deleted, ids.size(), label, batches);
+        return new BulkDeleteResponse(ids.size(), deleted, batches);
+    }
+
+    // Filter: deleted rows drop out of the next lookup, so each batch takes the first matches again
+    private <K> BulkDeleteResponse deleteMatching(Supplier<List<K>> nextBatch,
+                                                  Function<List<K>, Integer> batchDeleter, String label) {
+        int batchSize = batchSize();
+        int deleted = 0;
+        int batches = 0;
+        while (true) {
+            List<K> ids = nextBatch.get();
+            if (ids.isEmpty()) {
+                break;
+            }
+            int batchDeleted = batchDeleter.apply(ids);
+            deleted += batchDeleted;
+            batches++;
+            // A short batch was the last one; a batch that deleted nothing would only find the same rows again
+            if (ids.size() < batchSize || batchDeleted == 0) {
+                break;
+            }
+        }
+        log.info("Bulk deleted {} {} by filter in {} batches", deleted, label, batches);
+        return new BulkDeleteResponse(null, deleted, batches);
+    }
+
+    private int batchSize() {
+        return properties.getBulkDelete().getBatchSize();
+    }
+}
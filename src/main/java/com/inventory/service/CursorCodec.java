@@ -0,0 +1,65 @@
+package com.inventory.service;
+
+import com.inventory.dto.response.CursorPage;
+import com.inventory.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset positions as opaque cursors
+ * Clients must treat cursors as opaque; the encoding may change
+ */
+final class CursorCodec {
+
+    private static final String PREFIX = "k1:";
+
+    // Upper bound on rows per keyset page
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private CursorCodec() {
+    }
+
+    static String encode(long key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor; blank means "start from the beginning" (key 0)
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Clamp a requested page size to 1..MAX_PAGE_SIZE
+     */
+    static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Build a page from rows fetched with limit size + 1
+     * The extra row only signals that a next page exists; it is not returned
+     */
+    static <E, R> CursorPage<R> toPage(List<E> rows, int size, Function<E, Long> key, Function<E, R> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(key.apply(page.get(page.size() - 1))) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), page.size(), hasNext, nextCursor);
+    }
+}
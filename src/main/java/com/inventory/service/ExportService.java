@@ -0,0 +1,237 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.config.InventoryProperties;
+import com.inventory.exception.ExportLimitExceededException;
+import com.inventory.exception.InvalidExportFormatException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streaming export of inventory transactions and orders as CSV or NDJSON
+ * One query per export, with the item name joined in, read through a forward-only cursor
+ * (inventory.export.fetch-size rows per fetch) and written row by row to the output stream.
+ * Rows are never collected, so memory use does not depend on table size.
+ * Each export holds a pooled connection for as long as the client reads, so at most
+ * inventory.export.max-concurrent run at once; the rest are turned away instead of starving stock writers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    public enum Format {
+        CSV, // Header line, then one line per row; same column names as the import
+        NDJSON; // One JSON object per line
+
+        /**
+         * Parse the format request parameter, ignoring case
+         */
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidExportFormatException("Invalid export format: " + value + " (expected csv or ndjson)");
+        }
+    }
+
+    // Column labels are the JSON/CSV field names; both queries are ordered by an index, so nothing is sorted
+    private static final String INVENTORY_SQL =
+            "SELECT v.id AS \"id\", v.item_id AS \"itemId\", i.name AS \"itemName\", v.qty AS \"qty\", v.type AS \"type\" " +
+                    "FROM inventory v JOIN item i ON i.id = v.item_id " +
+                    "WHERE v.is_deleted = FALSE ORDER BY v.id";
+    private static final String ORDER_SQL =
+            "SELECT o.order_no AS \"orderNo\", o.item_id AS \"itemId\", i.name AS \"itemName\", o.qty AS \"qty\", o.price AS \"price\" " +
+                    "FROM orders o JOIN item i ON i.id = o.item_id " +
+                    "WHERE o.is_deleted = FALSE ORDER BY o.order_seq";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final InventoryProperties properties;
+
+    private Semaphore slots;
+
+    @PostConstruct
+    void initialize() {
+        int maxConcurrent = properties.getExport().getMaxConcurrent();
+        if (maxConcurrent < 1) {
+            throw new IllegalStateException("inventory.export.max-concurrent must be positive, got: " + maxConcurrent);
+        }
+        slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Reserve an export slot before the response starts, so a full house can still be answered with 503
+     * Close the slot once the export stream ends (closing twice is harmless)
+     */
+    public Slot reserveSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ExportLimitExceededException("Too many exports in progress, please retry later");
+        }
+        return new Slot();
+    }
+
+    /**
+     * Write all inventory transactions (deleted ones excluded) in ledger order
+     * Returns the number of rows written
+     */
+    public long exportInventories(OutputStream out, Format format) throws IOException {
+        return export(INVENTORY_SQL, out, format, "inventory transactions");
+    }
+
+    /**
+     * Write all orders (deleted ones excluded) in order number order
+     * Returns the number of rows written
+     */
+    public long exportOrders(OutputStream out, Format format) throws IOException {
+        return export(ORDER_SQL, out, format, "orders");
+    }
+
+    private long export(String sql, OutputStream out, Format format, String label) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        try {
+            long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                // H2 materializes a whole result before returning the first row unless queries run lazily
+                setLazyQueryExecution(connection, true);
+                try (PreparedStatement statement = connection.prepareStatement(
+                        sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(properties.getExport().getFetchSize());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return format == Format.CSV ? writeCsv(resultSet, writer) : writeNdjson(resultSet, writer);
+                    }
+                } finally {
+                    setLazyQueryExecution(connection, false);
+                }
+            });
+            writer.flush();
+            log.info("Exported {} {} as {} in {} ms", rows, label, format, (System.nanoTime() - start) / 1_000_000);
+            return rows;
+        } catch (UncheckedIOException ex) {
+            // Typically the client went away mid-stream
+            throw ex.getCause();
+        }
+    }
+
+    private long writeCsv(ResultSet resultSet, Writer writer) throws SQLException {
+        String[] labels = columnLabels(resultSet);
+        try {
+            writer.write(String.join(",", labels));
+            writer.write('\n');
+            long rows = 0;
+            while (resultSet.next()) {
+                for (int c = 1; c <= labels.length; c++) {
+                    writer.write(c > 1 ? "," : "");
+                    Object value = resultSet.getObject(c);
+                    writer.write(value == null ? "" : csvValue(value.toString()));
+                }
+                writer.write('\n');
+                rows++;
+            }
+            return rows;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long writeNdjson(ResultSet resultSet, Writer writer) throws SQLException {
+        String[] labels = columnLabels(resultSet);
+        try {
+            // The generator must not close the writer (the response stream belongs to the caller),
+            // and lines are separated by newlines only, not Jackson's default root separator
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long rows = 0;
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (int c = 1; c <= labels.length; c++) {
+                    generator.writeFieldName(labels[c - 1]);
+                    writeJsonValue(generator, resultSet.getObject(c));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+            generator.flush();
+            return rows;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Typed writes: going through the ObjectMapper looks up a serializer per value
+    private void writeJsonValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof BigDecimal decimal) {
+            generator.writeNumber(decimal);
+        } else if (value instanceof Long || value instanceof Integer) {
+            generator.writeNumber(((Number) value).longValue());
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private String[] columnLabels(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int c = 1; c <= labels.length; c++) {
+            labels[c - 1] = metaData.getColumnLabel(c);
+        }
+        return labels;
+    }
+
+    /**
+     * Quote a value containing a comma, quote or line break; quotes inside are doubled
+     */
+    static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public class Slot implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    private void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+}
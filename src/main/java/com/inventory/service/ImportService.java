@@ -0,0 +1,257 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.response.ImportResponse;
+import com.inventory.dto.response.ImportRowError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk import of items and inventory transactions from CSV or NDJSON
+ * The body is read line by line and written in chunks of inventory.bulk-import.chunk-size rows,
+ * one transaction per chunk, so memory use does not depend on file size.
+ * Not transactional itself: a failing chunk does not undo the chunks before it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImportService {
+
+    public enum Format {
+        CSV, // First line is the header; columns are matched by name
+        NDJSON // One JSON object per line
+    }
+
+    private final ItemService itemService;
+    private final InventoryService inventoryService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final InventoryProperties properties;
+
+    /**
+     * Import items (CSV columns: name, price)
+     */
+    public ImportResponse importItems(InputStream body, Format format) throws IOException {
+        return importRows(body, format, "items", ItemRequest.class,
+                columns -> new ItemRequest(
+                        columns.get("name"),
+                        parse(columns, "price", BigDecimal::new)),
+                chunk -> {
+                    itemService.createItemBatch(chunk);
+                    return Collections.<String>nCopies(chunk.size(), null);
+                });
+    }
+
+    /**
+     * Import inventory transactions (CSV columns: itemId, qty, type)
+     * Withdrawals are checked against the stock left after the rows before them
+     */
+    public ImportResponse importInventories(InputStream body, Format format) throws IOException {
+        return importRows(body, format, "inventory transactions", InventoryRequest.class,
+                columns -> new InventoryRequest(
+                        parse(columns, "itemId", Long::valueOf),
+                        parse(columns, "qty", Integer::valueOf),
+                        columns.get("type")),
+                chunk -> inventoryService.recordTransactionBatch(chunk).stream()
+                        .map(result -> result.isSuccess() ? null : result.getMessage())
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Read rows one line at a time, validate them and hand valid rows to the writer in chunks
+     * The writer returns one error message (or null) per row of the chunk
+     */
+    private <T> ImportResponse importRows(InputStream body, Format format, String label, Class<T> type,
+                                          Function<Map<String, String>, T> csvMapper,
+                                          Function<List<T>, List<String>> chunkWriter) throws IOException {
+        int chunkSize = properties.getBulkImport().getChunkSize();
+        ImportProgress progress = new ImportProgress(properties.getBulkImport().getMaxReportedErrors());
+        List<T> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String[] header = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = parseCsvLine(line).stream().map(String::trim).toArray(String[]::new);
+                continue;
+            }
+            progress.rowsRead++;
+
+            // 1. Parse and validate the row on its own
+            T request;
+            try {
+                request = (format == Format.CSV)
+                        ? csvMapper.apply(toColumns(header, parseCsvLine(line)))
+                        : objectMapper.readValue(line, type);
+            } catch (IOException | IllegalArgumentException ex) {
+                progress.fail(lineNumber, "Unreadable row: " + ex.getMessage());
+                continue;
+            }
+            String violation = validate(request);
+            if (violation != null) {
+                progress.fail(lineNumber, violation);
+                continue;
+            }
+
+            // 2. Write once a full chunk has accumulated
+            chunk.add(request);
+            chunkLines.add(lineNumber);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, chunkLines, chunkWriter, progress, label);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, chunkLines, chunkWriter, progress, label);
+        }
+
+        log.info("Import of {} finished: {} rows read, {} imported, {} failed",
+                label, progress.rowsRead, progress.imported, progress.failed);
+        return new ImportResponse(progress.rowsRead, progress.imported, progress.failed,
+                progress.errors, progress.errorsTruncated);
+    }
+
+    /**
+     * Write one chunk in its own transaction and record per-row outcomes
+     */
+    private <T> void writeChunk(List<T> chunk, List<Long> chunkLines,
+                                Function<List<T>, List<String>> chunkWriter,
+                                ImportProgress progress, String label) {
+        try {
+            List<String> rowErrors = chunkWriter.apply(List.copyOf(chunk));
+            for (int i = 0; i < chunk.size(); i++) {
+                if (rowErrors.get(i) == null) {
+                    progress.imported++;
+                } else {
+                    progress.fail(chunkLines.get(i), rowErrors.get(i));
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Chunk rolled back as a whole
+            log.warn("Import chunk of {} failed: {}", label, ex.getMessage());
+            for (Long chunkLine : chunkLines) {
+                progress.fail(chunkLine, "Chunk failed: " + ex.getMessage());
+            }
+        }
+        log.info("Importing {}: {} rows read, {} imported, {} failed",
+                label, progress.rowsRead, progress.imported, progress.failed);
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private String validate(Object request) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation failed: " + violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Map<String, String> toColumns(String[] header, List<String> values) {
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " columns, got " + values.size());
+        }
+        Map<String, String> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String value = values.get(i).trim();
+            columns.put(header[i], value.isEmpty() ? null : value);
+        }
+        return columns;
+    }
+
+    /**
+     * Split one CSV line, honouring double quotes ("a, b" and "" escapes)
+     * Quoted values cannot span lines
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private <R> R parse(Map<String, String> columns, String column, Function<String, R> parser) {
+        String value = columns.get(column);
+        try {
+            return value == null ? null : parser.apply(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("invalid " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Running counters of one import; keeps at most maxReportedErrors row errors
+     */
+    private static class ImportProgress {
+        private final int maxReportedErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+        private boolean errorsTruncated;
+
+        ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportRowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
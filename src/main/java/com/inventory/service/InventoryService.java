@@ -1,6 +1,8 @@
 package com.inventory.service;
 
 import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.response.BatchInventoryLineResult;
+import com.inventory.dto.response.CursorPage;
 import com.inventory.dto.response.InventoryResponse;
 import com.inventory.entity.Inventory;
 import com.inventory.entity.Item;
@@ -8,12 +10,24 @@ import com.inventory.exception.InsufficientStockException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.repository.InventoryRepository;
 import com.inventory.repository.ItemRepository;
+import com.inventory.repository.ItemSnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -21,12 +35,17 @@ public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final ItemRepository itemRepository;
-    private final ItemService itemService;
+    private final OptimisticStockUpdater optimisticStockUpdater;
+    private final StockCheckpointService stockCheckpointService;
+    private final StockAdmission stockAdmission;
+    private final StockBucketService stockBucketService;
+    private final ItemCatalogCache itemCatalogCache;
 
     /**
      * Record inventory transaction (Top Up or Withdrawal)
      * CRITICAL: Validate stock for Withdrawal transactions
-     * Uses pessimistic locking to prevent race conditions
+     * Uses pessimistic locking to prevent race conditions (or a versioned update, in optimistic mode);
+     * sharded items take Withdrawals from one of their stock buckets and spread Top Ups over all of them
      */
     @Transactional
     public InventoryResponse recordTransaction(InventoryRequest request) {
@@ -34,14 +53,29 @@ public class InventoryService {
         if (request.getQty() <= 0) {
             throw new IllegalArgumentException("Quantity must be positive, got: " + request.getQty());
         }
+        if (stockBucketService.isSharded(request.getItemId())) {
+            if ("W".equals(request.getType())) {
+                stockBucketService.take(request.getItemId(), request.getQty());
+                return saveTransactionWithoutItemLock(request);
+            }
+            if (stockBucketService.add(request.getItemId(), request.getQty())) {
+                topUpAdmitted(request);
+                return saveTransactionWithoutItemLock(request);
+            }
+            // No buckets any more: unsharded since the check, take the locked path
+        }
+        if (optimisticStockUpdater.isEnabled()) {
+            return recordTransactionOptimistic(request);
+        }
 
         // 1. Validate item exists WITH PESSIMISTIC LOCK
         Item item = itemRepository.findByIdWithLock(request.getItemId())
                 .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+        stockBucketService.fold(item);
 
         // 2. If Withdrawal, check stock sufficiency
         if ("W".equals(request.getType())) {
-            Integer currentStock = itemService.calculateCurrentStock(item.getId());
+            Integer currentStock = item.getCurrentStock();
             if (currentStock < request.getQty()) {
                 throw new InsufficientStockException(
                         "Insufficient stock for item: " + item.getName() +
@@ -57,24 +91,208 @@ public class InventoryService {
         inventory.setIsDeleted(false);
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+
+        // 4. Apply to materialized balance (flushed with the insert by dirty checking)
+        item.setCurrentStock(item.getCurrentStock() + stockEffect(request.getType(), request.getQty()));
+        topUpAdmitted(request);
+
         return convertToResponse(savedInventory);
     }
 
+    /**
+     * Record inventory transaction without locking the item (optimistic mode)
+     * The Withdrawal check runs against the item version the balance change is applied to
+     */
+    private InventoryResponse recordTransactionOptimistic(InventoryRequest request) {
+        // 1. Apply to materialized balance, retried on concurrent item changes
+        ItemSnapshot item = optimisticStockUpdater.apply(request.getItemId(), snapshot -> {
+            if ("W".equals(request.getType()) && snapshot.getCurrentStock() < request.getQty()) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for item: " + snapshot.getName() +
+                                ". Available: " + snapshot.getCurrentStock() + ", Requested: " + request.getQty());
+            }
+            return stockEffect(request.getType(), request.getQty());
+        });
+
+        // 2. Save inventory record against an item reference (no item select)
+        Inventory inventory = new Inventory();
+        inventory.setItem(itemRepository.getReferenceById(item.getId()));
+        inventory.setQty(request.getQty());
+        inventory.setType(request.getType());
+        inventory.setIsDeleted(false);
+
+        Inventory savedInventory = inventoryRepository.save(inventory);
+        topUpAdmitted(request);
+        return new InventoryResponse(savedInventory.getId(), item.getId(), item.getName(),
+                savedInventory.getQty(), savedInventory.getType());
+    }
+
+    /**
+     * Insert a transaction already applied to the item's stock buckets
+     * The name comes from the item catalog cache and the row points at an item reference (no item select)
+     */
+    private InventoryResponse saveTransactionWithoutItemLock(InventoryRequest request) {
+        // 1. Item name (null: the item was deleted since its stock changed)
+        Long itemId = request.getItemId();
+        ItemCatalogCache.Entry item = itemCatalogCache.get(itemId, key -> itemRepository.findSnapshotById(key)
+                .map(snapshot -> new ItemCatalogCache.Entry(snapshot.getId(), snapshot.getName(), snapshot.getPrice()))
+                .orElse(null));
+        if (item == null) {
+            throw new ResourceNotFoundException("Item not found with id: " + itemId);
+        }
+
+        // 2. Save inventory record against an item reference
+        Inventory inventory = new Inventory();
+        inventory.setItem(itemRepository.getReferenceById(itemId));
+        inventory.setQty(request.getQty());
+        inventory.setType(request.getType());
+        inventory.setIsDeleted(false);
+
+        Inventory savedInventory = inventoryRepository.save(inventory);
+        return new InventoryResponse(savedInventory.getId(), itemId, item.getName(),
+                savedInventory.getQty(), savedInventory.getType());
+    }
+
+    /**
+     * Record transactions for one item submitted concurrently by different callers (write combining)
+     * The item is locked once and requests are applied in arrival order against the running balance.
+     * Each request gets its own outcome: the response, or the exception recordTransaction would have thrown
+     */
+    @Transactional
+    public List<StockWriteOutcome<InventoryResponse>> recordTransactionsForItem(Long itemId,
+                                                                                List<InventoryRequest> requests) {
+        List<StockWriteOutcome<InventoryResponse>> outcomes = new ArrayList<>(requests.size());
+
+        // 1. Lock the item once for the whole group
+        Item item = itemRepository.findByIdWithLock(itemId).orElse(null);
+        if (item == null) {
+            requests.forEach(request -> outcomes.add(StockWriteOutcome.failure(
+                    new ResourceNotFoundException("Item not found with id: " + itemId))));
+            return outcomes;
+        }
+        stockBucketService.fold(item);
+
+        // 2. Apply in arrival order: a Top Up can fund a later Withdrawal of the same group
+        int balance = item.getCurrentStock();
+        List<Inventory> inventories = new ArrayList<>(requests.size());
+        for (InventoryRequest request : requests) {
+            if ("W".equals(request.getType()) && balance < request.getQty()) {
+                outcomes.add(StockWriteOutcome.failure(new InsufficientStockException(
+                        "Insufficient stock for item: " + item.getName() +
+                                ". Available: " + balance + ", Requested: " + request.getQty())));
+                continue;
+            }
+            balance += stockEffect(request.getType(), request.getQty());
+            topUpAdmitted(request);
+
+            Inventory inventory = new Inventory();
+            inventory.setItem(item);
+            inventory.setQty(request.getQty());
+            inventory.setType(request.getType());
+            inventory.setIsDeleted(false);
+            inventories.add(inventory);
+            outcomes.add(null); // Filled in once the row is saved
+        }
+
+        // 3. Insert and apply to the materialized balance once
+        inventoryRepository.saveAll(inventories);
+        item.setCurrentStock(balance);
+
+        int saved = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == null) {
+                outcomes.set(i, StockWriteOutcome.success(convertToResponse(inventories.get(saved++))));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Record a batch of inventory transactions in one transaction (bulk import)
+     * Distinct items are locked once, in ascending id order. Rows are applied in arrival order
+     * and a Withdrawal that exceeds the remaining stock is rejected on its own.
+     * Requests must already satisfy the InventoryRequest constraints
+     */
+    @Transactional
+    public List<BatchInventoryLineResult> recordTransactionBatch(List<InventoryRequest> requests) {
+        // 1. Lock the distinct items once, in ascending id order
+        Set<Long> itemIds = new TreeSet<>();
+        requests.forEach(request -> itemIds.add(request.getItemId()));
+        Map<Long, Item> items = new HashMap<>();
+        for (Item item : itemRepository.findAllByIdWithLock(itemIds)) {
+            items.put(item.getId(), item);
+        }
+        stockBucketService.fold(items.values());
+
+        // 2. Apply rows in arrival order against the running balance
+        List<BatchInventoryLineResult> results = new ArrayList<>(requests.size());
+        List<Inventory> inventories = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            InventoryRequest request = requests.get(i);
+            Item item = items.get(request.getItemId());
+            if (item == null) {
+                results.add(new BatchInventoryLineResult(i, false,
+                        "Item not found with id: " + request.getItemId(), null));
+                continue;
+            }
+            if ("W".equals(request.getType()) && item.getCurrentStock() < request.getQty()) {
+                results.add(new BatchInventoryLineResult(i, false,
+                        "Insufficient stock for item: " + item.getName() +
+                                ". Available: " + item.getCurrentStock() + ", Requested: " + request.getQty(),
+                        null));
+                continue;
+            }
+
+            Inventory inventory = new Inventory();
+            inventory.setItem(item);
+            inventory.setQty(request.getQty());
+            inventory.setType(request.getType());
+            inventory.setIsDeleted(false);
+            inventories.add(inventory);
+            item.setCurrentStock(item.getCurrentStock() + stockEffect(request.getType(), request.getQty()));
+            stockAdmission.stockChanged(item.getId(), stockEffect(request.getType(), request.getQty()));
+            results.add(new BatchInventoryLineResult(i, true, "Inventory transaction recorded successfully", null));
+        }
+
+        // 3. Insert and attach the saved rows to their results
+        inventoryRepository.saveAll(inventories);
+        int saved = 0;
+        for (BatchInventoryLineResult result : results) {
+            if (result.isSuccess()) {
+                result.setInventory(convertToResponse(inventories.get(saved++)));
+            }
+        }
+        return results;
+    }
+
     /**
      * Get all inventory transactions with pagination
+     * Projected straight into responses: one select (plus count) per page, no lazy item loads
+     * Read-only snapshot transaction, so listing the ledger never queues behind stock writers
      */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public Page<InventoryResponse> getAllTransactions(Pageable pageable) {
-        Page<Inventory> inventories = inventoryRepository.findAll(pageable);
-        return inventories.map(this::convertToResponse);
+        return inventoryRepository.findAllResponses(pageable);
+    }
+
+    /**
+     * Get inventory transactions after a cursor (keyset pagination on id)
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<InventoryResponse> getTransactionsAfter(String after, int size) {
+        int pageSize = CursorCodec.pageSize(size);
+        List<InventoryResponse> inventories = inventoryRepository.findResponsesAfter(
+                CursorCodec.decode(after), Limit.of(pageSize + 1));
+        return CursorCodec.toPage(inventories, pageSize, InventoryResponse::getId, Function.identity());
     }
 
     /**
      * Get single inventory transaction by ID
      */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public InventoryResponse getTransactionById(Long id) {
-        Inventory inventory = inventoryRepository.findById(id)
+        return inventoryRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory transaction not found with id: " + id));
-        return convertToResponse(inventory);
     }
 
     /**
@@ -89,22 +307,40 @@ public class InventoryService {
             throw new IllegalArgumentException("Quantity must be positive, got: " + request.getQty());
         }
 
-        // 1. Find existing transaction
-        Inventory inventory = inventoryRepository.findById(id)
+        // 1. Find existing transaction WITH PESSIMISTIC LOCK
+        Inventory inventory = inventoryRepository.findByIdWithLock(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory transaction not found with id: " + id));
 
         // 2. Validate item exists WITH PESSIMISTIC LOCK
-        Item item = itemRepository.findByIdWithLock(request.getItemId())
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+        // Cross-item updates also lock the previous item, since its balance changes too
+        Long previousItemId = inventory.getItem().getId();
+        boolean sameItem = previousItemId.equals(request.getItemId());
+        Item item;
+        Item previousItem = null;
+        if (sameItem) {
+            item = itemRepository.findByIdWithLock(request.getItemId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+        } else {
+            List<Item> lockedItems = itemRepository.findAllByIdWithLock(List.of(previousItemId, request.getItemId()));
+            item = lockedItems.stream()
+                    .filter(locked -> locked.getId().equals(request.getItemId()))
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+            previousItem = lockedItems.stream()
+                    .filter(locked -> locked.getId().equals(previousItemId))
+                    .findFirst()
+                    .orElse(null); // Previous item may have been deleted
+        }
+        stockBucketService.fold(item);
 
         // 3. Validate stock for Withdrawal type
         if ("W".equals(request.getType())) {
-            Integer currentStock = itemService.calculateCurrentStock(item.getId());
+            Integer currentStock = item.getCurrentStock();
 
             // CRITICAL: Only adjust for old transaction if item hasn't changed
             Integer availableStock = currentStock;
 
-            if (inventory.getItem().getId().equals(item.getId())) {
+            if (sameItem) {
                 // Same item: adjust for old transaction effect
                 if ("T".equals(inventory.getType())) {
                     // Changing from Top Up to Withdrawal on same item
@@ -121,7 +357,7 @@ public class InventoryService {
                         "Insufficient stock for item: " + item.getName() +
                                 ". Available: " + availableStock +
                                 " (Current: " + currentStock +
-                                (inventory.getItem().getId().equals(item.getId())
+                                (sameItem
                                         ? ", Old Transaction: " + inventory.getType() + inventory.getQty()
                                         : "")
                                 + ")" +
@@ -129,7 +365,26 @@ public class InventoryService {
             }
         }
 
-        // 4. Update transaction
+        // 4. Move the old effect out of the previous balance and the new effect into the target balance
+        int oldEffect = stockEffect(inventory.getType(), inventory.getQty());
+        int newEffect = stockEffect(request.getType(), request.getQty());
+        // Checkpoints absorb the change if the row is at or below their watermark
+        if (sameItem) {
+            item.setCurrentStock(item.getCurrentStock() - oldEffect + newEffect);
+            stockCheckpointService.inventoryChanged(item.getId(), id, newEffect - oldEffect);
+            stockAdmission.stockChanged(item.getId(), newEffect - oldEffect);
+        } else {
+            if (previousItem != null) {
+                previousItem.setCurrentStock(previousItem.getCurrentStock() - oldEffect);
+            }
+            item.setCurrentStock(item.getCurrentStock() + newEffect);
+            stockCheckpointService.inventoryChanged(previousItemId, id, -oldEffect);
+            stockCheckpointService.inventoryChanged(item.getId(), id, newEffect);
+            stockAdmission.stockChanged(previousItemId, -oldEffect);
+            stockAdmission.stockChanged(item.getId(), newEffect);
+        }
+
+        // 5. Update transaction
         inventory.setItem(item);
         inventory.setQty(request.getQty());
         inventory.setType(request.getType());
@@ -140,14 +395,67 @@ public class InventoryService {
 
     /**
      * Soft delete inventory transaction
+     * Reverses the transaction's effect on the item's materialized balance (and its checkpoint, if already included)
      */
     @Transactional
     public void deleteTransaction(Long id) {
-        Inventory inventory = inventoryRepository.findById(id)
+        Inventory inventory = inventoryRepository.findByIdWithLock(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory transaction not found with id: " + id));
+        Long itemId = inventory.getItem().getId();
+        int effect = stockEffect(inventory.getType(), inventory.getQty());
+        itemRepository.findByIdWithLock(itemId)
+                .ifPresent(item -> item.setCurrentStock(item.getCurrentStock() - effect));
+        stockCheckpointService.inventoryChanged(itemId, id, -effect);
+        stockAdmission.stockChanged(itemId, -effect);
         inventoryRepository.delete(inventory); // Soft delete via @SQLDelete
     }
 
+    /**
+     * Soft delete several inventory transactions in one transaction (bulk delete)
+     * Same guarantees as deleteTransaction: rows are locked before their items, and each item's balance
+     * (and checkpoint) loses the effect of its deleted rows. One soft-delete UPDATE for the whole batch.
+     * Unknown and already deleted ids are skipped; returns the number of rows deleted
+     */
+    @Transactional
+    public int deleteTransactionBatch(Collection<Long> ids) {
+        // 1. Lock the live rows, then their items in ascending id order
+        List<Inventory> rows = inventoryRepository.findAllByIdWithLock(ids);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> effectByItemId = new HashMap<>();
+        for (Inventory row : rows) {
+            effectByItemId.merge(row.getItem().getId(), stockEffect(row.getType(), row.getQty()), Integer::sum);
+        }
+        List<Item> items = itemRepository.findAllByIdWithLock(effectByItemId.keySet()); // Deleted items are skipped
+
+        // 2. Reverse the effects on balances and checkpoints
+        for (Item item : items) {
+            item.setCurrentStock(item.getCurrentStock() - effectByItemId.get(item.getId()));
+            stockAdmission.stockChanged(item.getId(), -effectByItemId.get(item.getId()));
+        }
+        stockCheckpointService.inventoriesDeleted(rows, row -> stockEffect(row.getType(), row.getQty()));
+
+        // 3. Soft delete the locked rows in one statement
+        return inventoryRepository.softDeleteAll(rows.stream().map(Inventory::getId).toList());
+    }
+
+    /**
+     * Hand a recorded Top Up to stock admission; Withdrawals were reserved there before the transaction
+     */
+    private void topUpAdmitted(InventoryRequest request) {
+        if ("T".equals(request.getType())) {
+            stockAdmission.stockChanged(request.getItemId(), request.getQty());
+        }
+    }
+
+    /**
+     * Signed effect of a transaction on stock: Top Up adds, Withdrawal subtracts
+     */
+    private int stockEffect(String type, Integer qty) {
+        return "T".equals(type) ? qty : -qty;
+    }
+
     /**
      * Convert Inventory entity to InventoryResponse DTO
      */
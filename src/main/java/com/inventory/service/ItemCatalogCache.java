@@ -0,0 +1,83 @@
+package com.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.response.ItemCacheStatsResponse;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of item metadata (name and price)
+ * Stock is never cached: it changes with every transaction and is always read from the item row.
+ * Entries are evicted beyond inventory.item-cache.max-size and expire after inventory.item-cache.ttl;
+ * item writes invalidate their entry.
+ */
+@Component
+public class ItemCatalogCache {
+
+    @Value
+    public static class Entry {
+        Long id;
+        String name;
+        BigDecimal price;
+    }
+
+    private final boolean enabled;
+    private final Cache<Long, Entry> cache;
+
+    public ItemCatalogCache(InventoryProperties properties) {
+        InventoryProperties.ItemCache settings = properties.getItemCache();
+        this.enabled = settings.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the entry for an item, loading it on a miss
+     * The loader returns null for a missing item; nothing is cached then.
+     * An invalidate that arrives while the load runs waits for it and then removes the result,
+     * so a value read just before a write commits does not stay cached.
+     */
+    public Entry get(Long id, Function<Long, Entry> loader) {
+        return enabled ? cache.get(id, loader) : loader.apply(id);
+    }
+
+    /**
+     * Drop the entry for an item now and again when the current transaction completes
+     * The second pass removes anything reloaded from the old row before the write committed
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public ItemCacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new ItemCacheStatsResponse(enabled, cache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+    /**
+     * Run pending maintenance (evictions) now; Caffeine otherwise does it lazily
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item-level timers: item row lock waits and stock queries
+ * Meters carry an "item" tag so hot items can be found, with bounded cardinality: an item gets its own
+ * tag value once one of its lock waits exceeds inventory.metrics.hot-item-lock-wait, up to
+ * inventory.metrics.max-item-tags items. Every other item is tagged "other"; admitted items stay tagged.
+ */
+@Component
+public class ItemMetrics {
+
+    public static final String LOCK_WAIT = "inventory.item.lock.wait";
+    public static final String STOCK_QUERY = "inventory.stock.query";
+    public static final String OTHER_ITEMS = "other";
+    public static final String MULTIPLE_ITEMS = "multiple";
+
+    private final MeterRegistry registry;
+    private final InventoryProperties.Metrics settings;
+    private final Set<Long> taggedItems = ConcurrentHashMap.newKeySet();
+
+    // Registered timers by item tag (and by operation for stock queries), so recording needs no builder
+    private final ConcurrentHashMap<String, Timer> lockWaitTimers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Timer>> stockQueryTimers =
+            new ConcurrentHashMap<>();
+
+    public ItemMetrics(MeterRegistry registry, InventoryProperties properties) {
+        this.registry = registry;
+        this.settings = properties.getMetrics();
+    }
+
+    /**
+     * Time spent acquiring the item row lock (itemId null when several items are locked at once)
+     */
+    public void recordLockWait(Long itemId, long nanos) {
+        if (itemId != null && nanos >= settings.getHotItemLockWait().toNanos()) {
+            admit(itemId);
+        }
+        lockWaitTimers.computeIfAbsent(itemTag(itemId), item ->
+                        timer(LOCK_WAIT, "Time to acquire item row locks (SELECT ... FOR UPDATE)", "lock", item))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time spent in a stock query: the materialized balance read or a ledger aggregate
+     */
+    public void recordStockQuery(String query, Long itemId, long nanos) {
+        stockQueryTimers.computeIfAbsent(query, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(itemTag(itemId), item ->
+                        timer(STOCK_QUERY, "Time spent reading item stock", query, item))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    String itemTag(Long itemId) {
+        if (itemId == null) {
+            return MULTIPLE_ITEMS;
+        }
+        return taggedItems.contains(itemId) ? itemId.toString() : OTHER_ITEMS;
+    }
+
+    private synchronized void admit(Long itemId) {
+        // Synchronized so concurrent admissions cannot overshoot the bound
+        if (taggedItems.size() < settings.getMaxItemTags()) {
+            taggedItems.add(itemId);
+        }
+    }
+
+    private Timer timer(String name, String description, String operation, String item) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .tag("item", item)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+}
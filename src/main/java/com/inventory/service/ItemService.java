@@ -1,18 +1,33 @@
 package com.inventory.service;
 
 import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.response.CursorPage;
 import com.inventory.dto.response.ItemResponse;
+import com.inventory.dto.response.StockRebuildResponse;
 import com.inventory.entity.Item;
+import com.inventory.entity.StockCheckpoint;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ItemQuantity;
 import com.inventory.repository.ItemRepository;
 import com.inventory.repository.OrderRepository;
+import com.inventory.repository.StockCheckpointRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -21,22 +36,63 @@ public class ItemService {
     private final ItemRepository itemRepository;
     private final InventoryRepository inventoryRepository;
     private final OrderRepository orderRepository;
+    private final StockCheckpointRepository stockCheckpointRepository;
+    private final ItemCatalogCache itemCatalogCache;
+    private final StockAdmission stockAdmission;
+    private final StockBucketService stockBucketService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemMetrics itemMetrics;
+
+    private static final String CURRENT_STOCK_SQL =
+            "SELECT current_stock FROM item WHERE id = ? AND is_deleted = false";
 
     /**
      * Get all items with pagination and calculated current stock
+     * Reads run in a read-only snapshot: no flush or dirty checking, and the page and its count see the same
+     * committed state without waiting for writers that hold item locks (MVCC: H2 and PostgreSQL)
+     * Projected straight into responses, so no entities enter the persistence context
      */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public Page<ItemResponse> getAllItems(Pageable pageable) {
-        Page<Item> items = itemRepository.findAll(pageable);
-        return items.map(this::convertToResponse);
+        Page<ItemResponse> items = itemRepository.findAllResponses(pageable);
+        stockBucketService.addBucketStock(items.getContent());
+        return items;
+    }
+
+    /**
+     * Get items after a cursor (keyset pagination on id)
+     * Fetches one extra row to know whether a next page exists, so no COUNT query is needed
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<ItemResponse> getItemsAfter(String after, int size) {
+        int pageSize = CursorCodec.pageSize(size);
+        List<ItemResponse> items = itemRepository.findResponsesAfter(
+                CursorCodec.decode(after), Limit.of(pageSize + 1));
+        stockBucketService.addBucketStock(items);
+        return CursorCodec.toPage(items, pageSize, ItemResponse::getId, Function.identity());
     }
 
     /**
      * Get single item by ID with calculated current stock
+     * A cache miss loads the row read-only (no snapshot kept for dirty checking)
      */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public ItemResponse getItemById(Long id) {
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + id));
-        return convertToResponse(item);
+        // 1. Name and price from the catalog cache; a miss loads the whole row
+        Item[] loaded = new Item[1];
+        ItemCatalogCache.Entry entry = itemCatalogCache.get(id, key -> itemRepository.findById(key)
+                .map(item -> {
+                    loaded[0] = item;
+                    return toCatalogEntry(item);
+                })
+                .orElse(null));
+        if (entry == null) {
+            throw new ResourceNotFoundException("Item not found with id: " + id);
+        }
+
+        // 2. Stock is never cached: reuse the loaded row, or read just the balance column
+        Integer currentStock = (loaded[0] != null) ? totalStock(loaded[0]) : calculateCurrentStock(id);
+        return new ItemResponse(entry.getId(), entry.getName(), entry.getPrice(), currentStock);
     }
 
     /**
@@ -47,12 +103,37 @@ public class ItemService {
         Item item = new Item();
         item.setName(request.getName());
         item.setPrice(request.getPrice());
+        item.setCurrentStock(0);
         item.setIsDeleted(false);
 
         Item savedItem = itemRepository.save(item);
+        itemCatalogCache.invalidate(savedItem.getId());
+        stockAdmission.itemsCreated(List.of(savedItem.getId()));
         return convertToResponse(savedItem);
     }
 
+    /**
+     * Create several items in one transaction (bulk import)
+     * Requests must already satisfy the ItemRequest constraints
+     */
+    @Transactional
+    public List<ItemResponse> createItemBatch(List<ItemRequest> requests) {
+        List<Item> items = new ArrayList<>(requests.size());
+        for (ItemRequest request : requests) {
+            Item item = new Item();
+            item.setName(request.getName());
+            item.setPrice(request.getPrice());
+            item.setCurrentStock(0);
+            item.setIsDeleted(false);
+            items.add(item);
+        }
+        List<Item> savedItems = itemRepository.saveAll(items);
+        stockAdmission.itemsCreated(savedItems.stream().map(Item::getId).toList());
+        return savedItems.stream()
+                .map(this::convertToResponse)
+                .toList();
+    }
+
     /**
      * Update existing item (name and price only)
      */
@@ -65,6 +146,7 @@ public class ItemService {
         item.setPrice(request.getPrice());
 
         Item updatedItem = itemRepository.save(item);
+        itemCatalogCache.invalidate(id);
         return convertToResponse(updatedItem);
     }
 
@@ -76,27 +158,130 @@ public class ItemService {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + id));
         itemRepository.delete(item); // Will trigger @SQLDelete (soft delete)
+        itemCatalogCache.invalidate(id);
+        stockAdmission.itemsDeleted(List.of(id));
+        stockBucketService.itemsDeleted(List.of(id));
     }
 
     /**
-     * Calculate current stock for an item
-     * Formula: SUM(inventory T) - SUM(inventory W) - SUM(orders)
+     * Soft delete several items in one statement (bulk delete)
+     * Balances are not touched, as in deleteItem; the UPDATE waits for writers holding an item lock.
+     * Unknown and already deleted ids are skipped; returns the number of items deleted
+     */
+    @Transactional
+    public int deleteItemBatch(Collection<Long> ids) {
+        int deleted = itemRepository.softDeleteAll(ids);
+        ids.forEach(itemCatalogCache::invalidate);
+        stockAdmission.itemsDeleted(ids);
+        stockBucketService.itemsDeleted(ids);
+        return deleted;
+    }
+
+    /**
+     * Get current stock for an item
+     * Reads the materialized balance maintained by InventoryService and OrderService
+     * (plus the stock buckets, for a sharded item only)
+     * Plain JDBC: this runs on every cached item read, where building a JPA query costs far more than the select
      */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public Integer calculateCurrentStock(Long itemId) {
-        Integer inventoryStock = inventoryRepository.calculateStockFromInventory(itemId);
-        Integer orderedQty = orderRepository.getTotalOrderedQty(itemId);
-        return inventoryStock - orderedQty;
+        long start = System.nanoTime();
+        List<Integer> stock = jdbcTemplate.queryForList(CURRENT_STOCK_SQL, Integer.class, itemId);
+        itemMetrics.recordStockQuery("currentStock", itemId, System.nanoTime() - start);
+        if (stock.isEmpty()) {
+            throw new ResourceNotFoundException("Item not found with id: " + itemId);
+        }
+        return stock.get(0) + stockBucketService.bucketStock(itemId);
+    }
+
+    /**
+     * Calculate stock for an item from the ledger
+     * Formula: SUM(inventory T) - SUM(inventory W) - SUM(orders)
+     * Starts from the item's stock checkpoint and sums only the rows after its watermarks
+     * (the full ledger when the item has no checkpoint yet); only used to rebuild the materialized balance
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Integer calculateStockFromLedger(Long itemId) {
+        StockCheckpoint checkpoint = stockCheckpointRepository.findById(itemId)
+                .orElseGet(() -> new StockCheckpoint(itemId));
+        Integer inventoryStock = inventoryRepository.calculateStockFromInventory(
+                itemId, checkpoint.getInventoryWatermark());
+        Integer orderedQty = orderRepository.getTotalOrderedQty(itemId, checkpoint.getOrderWatermark());
+        return checkpoint.getBalance() + inventoryStock - orderedQty;
+    }
+
+    /**
+     * Calculate ledger stock for several items at once
+     * Checkpoint balances plus one grouped aggregate over inventory and one over orders (rows after the
+     * watermarks only), regardless of item count
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Map<Long, Integer> calculateStockFromLedger(Collection<Long> itemIds) {
+        Map<Long, Integer> stockByItemId = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return stockByItemId;
+        }
+        for (Long itemId : itemIds) {
+            stockByItemId.put(itemId, 0);
+        }
+        for (StockCheckpoint checkpoint : stockCheckpointRepository.findAllById(itemIds)) {
+            stockByItemId.put(checkpoint.getItemId(), checkpoint.getBalance());
+        }
+        for (ItemQuantity row : inventoryRepository.calculateStockFromInventoryByItemIds(itemIds)) {
+            stockByItemId.merge(row.getItemId(), row.getQty().intValue(), Integer::sum);
+        }
+        for (ItemQuantity row : orderRepository.getTotalOrderedQtyByItemIds(itemIds)) {
+            stockByItemId.merge(row.getItemId(), -row.getQty().intValue(), Integer::sum);
+        }
+        return stockByItemId;
     }
 
     /**
-     * Convert Item entity to ItemResponse DTO with calculated stock
+     * Recompute the materialized balance of one chunk of items from the ledger (see StockRebuildJob)
+     * Items are locked before their ledger is summed, so writers cannot slip in between; the locks are
+     * released when this chunk commits. One lock query, one checkpoint load and two grouped aggregates.
+     * Incremental by default: checkpoint balances plus the rows after their watermarks. A full rebuild
+     * first resets the chunk's checkpoints, so the whole ledger is summed and a drifted checkpoint is
+     * repaired (the checkpoint job rolls them forward from scratch again)
+     */
+    @Transactional
+    public StockRebuildResponse rebuildStockBalances(List<Long> itemIds, boolean full) {
+        int corrected = 0;
+        List<Item> items = itemRepository.findAllByIdWithLock(itemIds); // Skips items deleted after the id scan
+        stockBucketService.fold(items);
+        if (full) {
+            stockCheckpointRepository.deleteByItemIds(itemIds);
+        }
+        Map<Long, Integer> ledgerStock = calculateStockFromLedger(itemIds);
+        for (Item item : items) {
+            Integer stock = ledgerStock.get(item.getId());
+            if (!stock.equals(item.getCurrentStock())) {
+                stockAdmission.stockChanged(item.getId(), stock - item.getCurrentStock());
+                item.setCurrentStock(stock);
+                corrected++;
+            }
+        }
+        return new StockRebuildResponse(items.size(), corrected);
+    }
+
+    // Name and price of an item, as kept by the item catalog cache
+    private ItemCatalogCache.Entry toCatalogEntry(Item item) {
+        return new ItemCatalogCache.Entry(item.getId(), item.getName(), item.getPrice());
+    }
+
+    /**
+     * Convert Item entity to ItemResponse DTO with materialized stock
      */
     private ItemResponse convertToResponse(Item item) {
-        Integer currentStock = calculateCurrentStock(item.getId());
         return new ItemResponse(
                 item.getId(),
                 item.getName(),
                 item.getPrice(),
-                currentStock);
+                totalStock(item));
+    }
+
+    // Materialized balance plus the stock buckets, read only for a sharded item
+    private Integer totalStock(Item item) {
+        return item.getCurrentStock() + stockBucketService.bucketStock(item.getId());
     }
 }
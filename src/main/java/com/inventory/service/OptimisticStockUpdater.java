@@ -0,0 +1,90 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.exception.StockConflictException;
+import com.inventory.repository.ItemRepository;
+import com.inventory.repository.ItemSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stock changes without item row locks (inventory.stock.concurrency-mode=optimistic)
+ * Reads the item's balance and version, then applies the change with an UPDATE conditional on that version.
+ * The row is only locked from the winning UPDATE to commit, instead of for the whole transaction.
+ * A lost race fails the caller's transaction with StockConflictException; retry() runs the write again in a
+ * fresh transaction after a jittered exponential backoff, so nothing (row, connection) is held while waiting.
+ */
+@Component
+@RequiredArgsConstructor
+public class OptimisticStockUpdater {
+
+    private final ItemRepository itemRepository;
+    private final InventoryProperties properties;
+
+    public boolean isEnabled() {
+        return properties.getStock().getConcurrencyMode() == InventoryProperties.ConcurrencyMode.OPTIMISTIC;
+    }
+
+    /**
+     * Apply the delta computed from the current item state, inside the caller's transaction
+     * deltaFunction validates the snapshot (throwing to abort) and returns the delta.
+     * Returns the snapshot the delta was applied to; throws StockConflictException if the item changed since the read
+     */
+    public ItemSnapshot apply(Long itemId, ToIntFunction<ItemSnapshot> deltaFunction) {
+        // 1. Read the current balance and version (no lock)
+        ItemSnapshot item = itemRepository.findSnapshotById(itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + itemId));
+
+        // 2. Validate and apply, only if nobody changed the item since the read
+        int delta = deltaFunction.applyAsInt(item);
+        if (itemRepository.applyStockDeltaIfVersion(itemId, delta, item.getVersion()) != 1) {
+            throw new StockConflictException("Item " + itemId + " changed concurrently");
+        }
+        return item;
+    }
+
+    /**
+     * Run a transactional stock write, retrying it on StockConflictException in a new transaction
+     * Must be called outside any transaction: a write joining the caller's transaction runs once, since its
+     * conflict rolls back the caller too. Gives up after optimistic-max-attempts, rethrowing the last conflict.
+     */
+    public <T> T retry(Supplier<T> write) {
+        if (!isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return write.get();
+        }
+        InventoryProperties.Stock settings = properties.getStock();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (StockConflictException ex) {
+                // Lost the race: the transaction rolled back, back off and retry against the new version
+                if (attempt >= settings.getOptimisticMaxAttempts()) {
+                    throw ex;
+                }
+                backOff(attempt, settings);
+            }
+        }
+    }
+
+    private void backOff(int attempt, InventoryProperties.Stock settings) {
+        long baseNanos = settings.getOptimisticBackoff().toNanos();
+        long capNanos = Math.min(settings.getOptimisticMaxBackoff().toNanos(), baseNanos << Math.min(attempt - 1, 20));
+        if (capNanos <= 0) {
+            return;
+        }
+        try {
+            // Full jitter: spreads retrying writers apart instead of having them collide again
+            long sleepNanos = ThreadLocalRandom.current().nextLong(capNanos);
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StockConflictException("Interrupted while retrying stock update");
+        }
+    }
+}
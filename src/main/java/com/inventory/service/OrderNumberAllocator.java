@@ -0,0 +1,117 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hi/lo allocator for order numbers (O1, O2, O3, ...)
+ * Reserves blocks of numbers from the order_no_seq sequence and hands them out from memory,
+ * so creating an order never scans the orders table.
+ * Sequence increments are not transactional: a rolled-back order leaves a gap
+ * but can never cause a number to be handed out twice.
+ * Guarded by a ReentrantLock rather than synchronized: refilling a block is a database round trip,
+ * and a virtual thread blocked inside synchronized would pin its carrier thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderNumberAllocator {
+
+    static final String SEQUENCE_NAME = "order_no_seq";
+
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next = 1; // Next number to hand out
+    private long limit = 0; // Last number of the current block
+
+    /**
+     * Create the sequence and move it past every order number already used,
+     * including soft-deleted orders
+     */
+    @PostConstruct
+    void initialize() {
+        int blockSize = properties.getOrderNumber().getBlockSize();
+        if (blockSize < 1) {
+            throw new IllegalStateException("inventory.order-number.block-size must be positive, got: " + blockSize);
+        }
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE_NAME +
+                " START WITH 1 INCREMENT BY " + blockSize);
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE_NAME + " INCREMENT BY " + blockSize);
+        skipUsedNumbers();
+    }
+
+    /**
+     * Drop the current block and move past every order number in the table
+     * Needed after orders are written without the allocator (bulk loads)
+     */
+    public void skipUsedNumbers() {
+        lock.lock();
+        try {
+            int blockSize = properties.getOrderNumber().getBlockSize();
+            long maxUsed = orderRepository.getMaxOrderSequenceIncludingDeleted();
+            long hi = orderRepository.nextOrderNumberBlock();
+            if (hi <= maxUsed) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE_NAME + " RESTART WITH " + (maxUsed + 1));
+                hi = orderRepository.nextOrderNumberBlock();
+            }
+            next = hi;
+            limit = hi + blockSize - 1;
+            log.info("Order number allocator ready (block size {}, highest used O{})", blockSize, maxUsed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the next order sequence number
+     */
+    public long next() {
+        lock.lock();
+        try {
+            if (next > limit) {
+                reserveBlock();
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get several order sequence numbers at once, for batch inserts
+     * Numbers are increasing but may span blocks
+     */
+    public List<Long> next(int count) {
+        lock.lock();
+        try {
+            List<Long> numbers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                numbers.add(next());
+            }
+            return numbers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserve the next block: the sequence returns its first number, the block spans block-size numbers
+     */
+    private void reserveBlock() {
+        long hi = orderRepository.nextOrderNumberBlock();
+        next = hi;
+        limit = hi + properties.getOrderNumber().getBlockSize() - 1;
+    }
+}
@@ -1,20 +1,41 @@
 package com.inventory.service;
 
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.BatchOrderRequest;
 import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.BatchOrderLineResult;
+import com.inventory.dto.response.BatchOrderResponse;
+import com.inventory.dto.response.CursorPage;
 import com.inventory.dto.response.OrderResponse;
 import com.inventory.entity.Item;
 import com.inventory.entity.Order;
+import com.inventory.exception.BatchOrderException;
 import com.inventory.exception.InsufficientStockException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.repository.ItemRepository;
+import com.inventory.repository.ItemSnapshot;
 import com.inventory.repository.OrderRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -23,12 +44,20 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final ItemRepository itemRepository;
-    private final ItemService itemService;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final Validator validator;
+    private final OptimisticStockUpdater optimisticStockUpdater;
+    private final StockCheckpointService stockCheckpointService;
+    private final StockAdmission stockAdmission;
+    private final ItemCatalogCache itemCatalogCache;
+    private final InventoryProperties properties;
+    private final StockBucketService stockBucketService;
 
     /**
      * Create new order with stock validation and auto-generated order number
      * CRITICAL: Validates stock before creating order
-     * Uses pessimistic locking to prevent race conditions
+     * Uses pessimistic locking to prevent race conditions (or a versioned update, in optimistic mode,
+     * or a guarded decrement, in guarded mode); sharded items take from one of their stock buckets
      */
     @Transactional
     public OrderResponse createOrder(OrderRequest request) {
@@ -36,13 +65,24 @@ public class OrderService {
         if (request.getQty() <= 0) {
             throw new IllegalArgumentException("Quantity must be positive, got: " + request.getQty());
         }
+        if (stockBucketService.isSharded(request.getItemId())) {
+            stockBucketService.take(request.getItemId(), request.getQty());
+            return saveOrderWithoutItemLock(request);
+        }
+        if (optimisticStockUpdater.isEnabled()) {
+            return createOrderOptimistic(request);
+        }
+        if (properties.getStock().getConcurrencyMode() == InventoryProperties.ConcurrencyMode.GUARDED) {
+            return createOrderGuarded(request);
+        }
 
         // 1. Validate item exists WITH PESSIMISTIC LOCK (prevents race condition)
         Item item = itemRepository.findByIdWithLock(request.getItemId())
                 .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+        stockBucketService.fold(item);
 
-        // 2. Calculate current stock
-        Integer currentStock = itemService.calculateCurrentStock(item.getId());
+        // 2. Read current stock (materialized balance, O(1))
+        Integer currentStock = item.getCurrentStock();
 
         // 3. Validate stock sufficiency
         if (currentStock < request.getQty()) {
@@ -51,40 +91,337 @@ public class OrderService {
                             ". Available: " + currentStock + ", Requested: " + request.getQty());
         }
 
-        // 4. Generate order number (O1, O2, O3, ...)
-        Integer nextSeq = orderRepository.getMaxOrderSequence() + 1;
-        String orderNo = "O" + nextSeq;
+        // 4. Generate order number (O1, O2, O3, ...) from the in-memory block
+        long orderSeq = orderNumberAllocator.next();
 
         // 5. Determine price: use provided price or default to item's current price
         BigDecimal orderPrice = (request.getPrice() != null) ? request.getPrice() : item.getPrice();
 
         // 6. Create and save order
         Order order = new Order();
-        order.setOrderNo(orderNo);
+        order.setOrderNo("O" + orderSeq);
+        order.setOrderSeq(orderSeq);
         order.setItem(item);
         order.setQty(request.getQty());
         order.setPrice(orderPrice);
         order.setIsDeleted(false);
 
         Order savedOrder = orderRepository.save(order);
+
+        // 7. Apply to materialized balance (flushed with the insert by dirty checking)
+        item.setCurrentStock(currentStock - request.getQty());
+
         return convertToResponse(savedOrder);
     }
 
+    /**
+     * Create order without locking the item (optimistic mode)
+     * The stock check runs against the item version the balance change is applied to
+     */
+    private OrderResponse createOrderOptimistic(OrderRequest request) {
+        // 1. Take the qty from the materialized balance, retried on concurrent item changes
+        ItemSnapshot item = optimisticStockUpdater.apply(request.getItemId(), snapshot -> {
+            if (snapshot.getCurrentStock() < request.getQty()) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for item: " + snapshot.getName() +
+                                ". Available: " + snapshot.getCurrentStock() + ", Requested: " + request.getQty());
+            }
+            return -request.getQty();
+        });
+
+        // 2. Generate order number and determine price
+        long orderSeq = orderNumberAllocator.next();
+        BigDecimal orderPrice = (request.getPrice() != null) ? request.getPrice() : item.getPrice();
+
+        // 3. Create and save order against an item reference (no item select)
+        Order order = new Order();
+        order.setOrderNo("O" + orderSeq);
+        order.setOrderSeq(orderSeq);
+        order.setItem(itemRepository.getReferenceById(item.getId()));
+        order.setQty(request.getQty());
+        order.setPrice(orderPrice);
+        order.setIsDeleted(false);
+
+        Order savedOrder = orderRepository.save(order);
+        return new OrderResponse(savedOrder.getOrderNo(), item.getId(), item.getName(),
+                savedOrder.getQty(), savedOrder.getPrice());
+    }
+
+    /**
+     * Create order with a single guarded decrement of the balance (guarded mode)
+     * The database checks and applies the stock change in one statement, without a prior read or lock;
+     * the item is only read again to tell a missing item from insufficient stock.
+     * Name and price come from the item catalog cache, so a warm cache leaves the update and the insert.
+     */
+    private OrderResponse createOrderGuarded(OrderRequest request) {
+        // 1. Take the qty if the balance covers it (no rows updated: missing item or insufficient stock)
+        Long itemId = request.getItemId();
+        if (itemRepository.takeStockIfAvailable(itemId, request.getQty()) == 0) {
+            ItemSnapshot item = itemRepository.findSnapshotById(itemId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + itemId));
+            throw new InsufficientStockException(
+                    "Insufficient stock for item: " + item.getName() +
+                            ". Available: " + item.getCurrentStock() + ", Requested: " + request.getQty());
+        }
+        return saveOrderWithoutItemLock(request);
+    }
+
+    /**
+     * Insert an order whose qty has already been taken from the item's stock (guarded mode, stock buckets)
+     * Name and price come from the item catalog cache, and the order points at an item reference,
+     * so a warm cache leaves a single insert.
+     */
+    private OrderResponse saveOrderWithoutItemLock(OrderRequest request) {
+        // 1. Name and default price (null: the item was deleted since its stock was taken)
+        Long itemId = request.getItemId();
+        ItemCatalogCache.Entry item = itemCatalogCache.get(itemId, key -> itemRepository.findSnapshotById(key)
+                .map(snapshot -> new ItemCatalogCache.Entry(snapshot.getId(), snapshot.getName(), snapshot.getPrice()))
+                .orElse(null));
+        if (item == null) {
+            throw new ResourceNotFoundException("Item not found with id: " + itemId);
+        }
+
+        // 2. Generate order number and determine price
+        long orderSeq = orderNumberAllocator.next();
+        BigDecimal orderPrice = (request.getPrice() != null) ? request.getPrice() : item.getPrice();
+
+        // 3. Create and save order against an item reference (no item select)
+        Order order = new Order();
+        order.setOrderNo("O" + orderSeq);
+        order.setOrderSeq(orderSeq);
+        order.setItem(itemRepository.getReferenceById(itemId));
+        order.setQty(request.getQty());
+        order.setPrice(orderPrice);
+        order.setIsDeleted(false);
+
+        Order savedOrder = orderRepository.save(order);
+        return new OrderResponse(savedOrder.getOrderNo(), itemId, item.getName(),
+                savedOrder.getQty(), savedOrder.getPrice());
+    }
+
+    /**
+     * Create orders for one item submitted concurrently by different callers (write combining)
+     * The item is locked once and requests are accepted in arrival order against the running balance.
+     * Each request gets its own outcome: the response, or the exception createOrder would have thrown
+     */
+    @Transactional
+    public List<StockWriteOutcome<OrderResponse>> createOrdersForItem(Long itemId, List<OrderRequest> requests) {
+        List<StockWriteOutcome<OrderResponse>> outcomes = new ArrayList<>(requests.size());
+
+        // 1. Lock the item once for the whole group
+        Item item = itemRepository.findByIdWithLock(itemId).orElse(null);
+        if (item == null) {
+            requests.forEach(request -> outcomes.add(StockWriteOutcome.failure(
+                    new ResourceNotFoundException("Item not found with id: " + itemId))));
+            return outcomes;
+        }
+        stockBucketService.fold(item);
+
+        // 2. Accept requests in arrival order while stock lasts
+        int remainingStock = item.getCurrentStock();
+        List<OrderRequest> accepted = new ArrayList<>(requests.size());
+        for (OrderRequest request : requests) {
+            if (remainingStock < request.getQty()) {
+                outcomes.add(StockWriteOutcome.failure(new InsufficientStockException(
+                        "Insufficient stock for item: " + item.getName() +
+                                ". Available: " + remainingStock + ", Requested: " + request.getQty())));
+            } else {
+                remainingStock -= request.getQty();
+                accepted.add(request);
+                outcomes.add(null); // Filled in once the order is saved
+            }
+        }
+
+        // 3. Allocate order numbers in bulk, insert and apply to the materialized balance once
+        List<Long> orderNumbers = orderNumberAllocator.next(accepted.size());
+        List<Order> orders = new ArrayList<>(accepted.size());
+        for (OrderRequest request : accepted) {
+            long orderSeq = orderNumbers.get(orders.size());
+            Order order = new Order();
+            order.setOrderNo("O" + orderSeq);
+            order.setOrderSeq(orderSeq);
+            order.setItem(item);
+            order.setQty(request.getQty());
+            order.setPrice((request.getPrice() != null) ? request.getPrice() : item.getPrice());
+            order.setIsDeleted(false);
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+        item.setCurrentStock(remainingStock);
+
+        int saved = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == null) {
+                outcomes.set(i, StockWriteOutcome.success(convertToResponse(orders.get(saved++))));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Create a batch of orders in one transaction
+     * Distinct items are locked once, in ascending id order, so concurrent batches cannot deadlock.
+     * Stock is checked against the combined demand per item, order numbers are allocated in bulk
+     * and the inserts are sent as JDBC batches.
+     * atomic = true: any failing line rejects the whole batch (BatchOrderException)
+     * atomic = false: lines are accepted in arrival order while stock lasts, failures are reported per line
+     */
+    @Transactional
+    public BatchOrderResponse createOrderBatch(BatchOrderRequest request) {
+        List<OrderRequest> lines = request.getOrders();
+        boolean atomic = !Boolean.FALSE.equals(request.getAtomic());
+        String[] errors = new String[lines.size()];
+
+        // 1. Validate every line against the OrderRequest constraints
+        for (int i = 0; i < lines.size(); i++) {
+            errors[i] = validateLine(lines.get(i));
+        }
+
+        // 2. Lock the distinct items once, in ascending id order
+        Set<Long> itemIds = new TreeSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null) {
+                itemIds.add(lines.get(i).getItemId());
+            }
+        }
+        Map<Long, Item> items = new HashMap<>();
+        if (!itemIds.isEmpty()) {
+            for (Item item : itemRepository.findAllByIdWithLock(itemIds)) {
+                items.put(item.getId(), item);
+            }
+            stockBucketService.fold(items.values());
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null && !items.containsKey(lines.get(i).getItemId())) {
+                errors[i] = "Item not found with id: " + lines.get(i).getItemId();
+            }
+        }
+
+        // 3. Validate stock sufficiency against the combined demand per item
+        Map<Long, Integer> remainingStock = new HashMap<>();
+        items.values().forEach(item -> remainingStock.put(item.getId(), item.getCurrentStock()));
+        if (atomic) {
+            Map<Long, Integer> demand = new HashMap<>();
+            for (int i = 0; i < lines.size(); i++) {
+                if (errors[i] == null) {
+                    demand.merge(lines.get(i).getItemId(), lines.get(i).getQty(), Integer::sum);
+                }
+            }
+            for (int i = 0; i < lines.size(); i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                Long itemId = lines.get(i).getItemId();
+                if (demand.get(itemId) > remainingStock.get(itemId)) {
+                    errors[i] = "Insufficient stock for item: " + items.get(itemId).getName() +
+                            ". Available: " + remainingStock.get(itemId) +
+                            ", Requested: " + demand.get(itemId) + " (combined demand of batch)";
+                }
+            }
+        } else {
+            for (int i = 0; i < lines.size(); i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                Long itemId = lines.get(i).getItemId();
+                if (remainingStock.get(itemId) < lines.get(i).getQty()) {
+                    errors[i] = "Insufficient stock for item: " + items.get(itemId).getName() +
+                            ". Available: " + remainingStock.get(itemId) +
+                            ", Requested: " + lines.get(i).getQty();
+                } else {
+                    remainingStock.merge(itemId, -lines.get(i).getQty(), Integer::sum);
+                }
+            }
+        }
+
+        int failed = 0;
+        for (String error : errors) {
+            if (error != null) {
+                failed++;
+            }
+        }
+        if (atomic && failed > 0) {
+            List<BatchOrderLineResult> results = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                results.add(new BatchOrderLineResult(i, false,
+                        errors[i] != null ? errors[i] : "Not created: batch rejected", null));
+            }
+            throw new BatchOrderException("Batch rejected: " + failed + " of " + lines.size() + " orders failed",
+                    new BatchOrderResponse(0, failed, results));
+        }
+
+        // 4. Allocate order numbers in bulk and build the orders
+        List<Long> orderNumbers = orderNumberAllocator.next(lines.size() - failed);
+        List<Order> orders = new ArrayList<>(orderNumbers.size());
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null) {
+                OrderRequest line = lines.get(i);
+                Item item = items.get(line.getItemId());
+                Order order = new Order();
+                long orderSeq = orderNumbers.get(orders.size());
+                order.setOrderNo("O" + orderSeq);
+                order.setOrderSeq(orderSeq);
+                order.setItem(item);
+                order.setQty(line.getQty());
+                order.setPrice((line.getPrice() != null) ? line.getPrice() : item.getPrice());
+                order.setIsDeleted(false);
+                orders.add(order);
+                if (atomic) {
+                    remainingStock.merge(item.getId(), -line.getQty(), Integer::sum);
+                }
+            }
+        }
+
+        // 5. Insert (JDBC batched at flush) and apply to materialized balances
+        orderRepository.saveAll(orders);
+        for (Item item : items.values()) {
+            stockAdmission.stockChanged(item.getId(), remainingStock.get(item.getId()) - item.getCurrentStock());
+            item.setCurrentStock(remainingStock.get(item.getId()));
+        }
+
+        List<BatchOrderLineResult> results = new ArrayList<>(lines.size());
+        int created = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null) {
+                results.add(new BatchOrderLineResult(i, true, "Order created successfully",
+                        convertToResponse(orders.get(created++))));
+            } else {
+                results.add(new BatchOrderLineResult(i, false, errors[i], null));
+            }
+        }
+        return new BatchOrderResponse(created, failed, results);
+    }
+
     /**
      * Get all orders with pagination
+     * Projected straight into responses: one select (plus count) per page, no lazy item loads
+     * Read-only snapshot transaction: never waits for order writers holding item locks, nothing to flush
      */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public Page<OrderResponse> getAllOrders(Pageable pageable) {
-        Page<Order> orders = orderRepository.findAll(pageable);
-        return orders.map(this::convertToResponse);
+        return orderRepository.findAllResponses(pageable);
+    }
+
+    /**
+     * Get orders after a cursor (keyset pagination on order_seq, i.e. O1, O2, ..., O10 in numeric order)
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<OrderResponse> getOrdersAfter(String after, int size) {
+        int pageSize = CursorCodec.pageSize(size);
+        List<OrderResponse> orders = orderRepository.findResponsesAfter(
+                CursorCodec.decode(after), Limit.of(pageSize + 1));
+        // order_seq is the numeric part of the order number
+        return CursorCodec.toPage(orders, pageSize,
+                order -> Long.valueOf(order.getOrderNo().substring(1)), Function.identity());
     }
 
     /**
      * Get single order by order number
      */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public OrderResponse getOrderById(String orderNo) {
-        Order order = orderRepository.findById(orderNo)
+        return orderRepository.findResponseById(orderNo)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with order number: " + orderNo));
-        return convertToResponse(order);
     }
 
     /**
@@ -99,21 +436,42 @@ public class OrderService {
             throw new IllegalArgumentException("Quantity must be positive, got: " + request.getQty());
         }
 
-        // 1. Find existing order
-        Order order = orderRepository.findById(orderNo)
+        // 1. Find existing order WITH PESSIMISTIC LOCK
+        Order order = orderRepository.findByIdWithLock(orderNo)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with order number: " + orderNo));
+        if (optimisticStockUpdater.isEnabled()) {
+            return updateOrderOptimistic(order, request);
+        }
 
         // 2. Validate item exists WITH PESSIMISTIC LOCK
-        Item item = itemRepository.findByIdWithLock(request.getItemId())
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+        // Cross-item updates also lock the previous item, since its balance changes too
+        Long previousItemId = order.getItem().getId();
+        boolean sameItem = previousItemId.equals(request.getItemId());
+        Item item;
+        Item previousItem = null;
+        if (sameItem) {
+            item = itemRepository.findByIdWithLock(request.getItemId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+        } else {
+            List<Item> lockedItems = itemRepository.findAllByIdWithLock(List.of(previousItemId, request.getItemId()));
+            item = lockedItems.stream()
+                    .filter(locked -> locked.getId().equals(request.getItemId()))
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + request.getItemId()));
+            previousItem = lockedItems.stream()
+                    .filter(locked -> locked.getId().equals(previousItemId))
+                    .findFirst()
+                    .orElse(null); // Previous item may have been deleted
+        }
+        stockBucketService.fold(item);
 
-        // 3. Calculate current stock
-        Integer currentStock = itemService.calculateCurrentStock(item.getId());
+        // 3. Read current stock (materialized balance)
+        Integer currentStock = item.getCurrentStock();
 
         // 4. Validate stock sufficiency
         // CRITICAL FIX: Only add back old qty if item hasn't changed!
         Integer availableStock = currentStock;
-        if (order.getItem().getId().equals(item.getId())) {
+        if (sameItem) {
             // Same item: add back existing order qty since it will be replaced
             availableStock = currentStock + order.getQty();
         }
@@ -125,7 +483,7 @@ public class OrderService {
                     "Insufficient stock for item: " + item.getName() +
                             ". Available: " + availableStock +
                             " (Current: " + currentStock +
-                            (order.getItem().getId().equals(item.getId()) ? ", Existing Order: " + order.getQty() : "")
+                            (sameItem ? ", Existing Order: " + order.getQty() : "")
                             + ")" +
                             ", Requested: " + request.getQty());
         }
@@ -133,7 +491,24 @@ public class OrderService {
         // 5. Determine price: use provided price or default to item's current price
         BigDecimal orderPrice = (request.getPrice() != null) ? request.getPrice() : item.getPrice();
 
-        // 6. Update order (order_no stays the same)
+        // 6. Return the old qty to the previous balance and take the new qty from the target balance
+        // Checkpoints absorb the change if the order is at or below their watermark
+        if (sameItem) {
+            item.setCurrentStock(availableStock - request.getQty());
+            stockCheckpointService.orderChanged(item.getId(), order.getOrderSeq(), order.getQty() - request.getQty());
+            stockAdmission.stockChanged(item.getId(), order.getQty() - request.getQty());
+        } else {
+            if (previousItem != null) {
+                previousItem.setCurrentStock(previousItem.getCurrentStock() + order.getQty());
+            }
+            item.setCurrentStock(currentStock - request.getQty());
+            stockCheckpointService.orderChanged(previousItemId, order.getOrderSeq(), order.getQty());
+            stockCheckpointService.orderChanged(item.getId(), order.getOrderSeq(), -request.getQty());
+            stockAdmission.stockChanged(previousItemId, order.getQty());
+            stockAdmission.stockChanged(item.getId(), -request.getQty());
+        }
+
+        // 7. Update order (order_no stays the same)
         order.setItem(item);
         order.setQty(request.getQty());
         order.setPrice(orderPrice);
@@ -142,16 +517,135 @@ public class OrderService {
         return convertToResponse(updatedOrder);
     }
 
+    /**
+     * Update a locked order without locking its items (optimistic mode)
+     * The order row stays locked, so two edits of one order cannot both return its old qty.
+     * Cross-item updates change the two balances in ascending item id order, as the pessimistic path locks them.
+     */
+    private OrderResponse updateOrderOptimistic(Order order, OrderRequest request) {
+        Long previousItemId = order.getItem().getId();
+        int previousQty = order.getQty();
+        boolean sameItem = previousItemId.equals(request.getItemId());
+
+        // 1. Take the new qty from the target balance (same item: net of the existing order qty)
+        ToIntFunction<ItemSnapshot> takeNewQty = snapshot -> {
+            int currentStock = snapshot.getCurrentStock();
+            int availableStock = sameItem ? currentStock + previousQty : currentStock;
+            if (availableStock < request.getQty()) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for item: " + snapshot.getName() +
+                                ". Available: " + availableStock +
+                                " (Current: " + currentStock +
+                                (sameItem ? ", Existing Order: " + previousQty : "")
+                                + ")" +
+                                ", Requested: " + request.getQty());
+            }
+            return (sameItem ? previousQty : 0) - request.getQty();
+        };
+
+        // 2. Cross-item: also return the old qty to the previous balance, lower item id first
+        ItemSnapshot item;
+        if (sameItem) {
+            item = optimisticStockUpdater.apply(request.getItemId(), takeNewQty);
+        } else if (previousItemId < request.getItemId()) {
+            returnToPreviousItem(previousItemId, previousQty);
+            item = optimisticStockUpdater.apply(request.getItemId(), takeNewQty);
+        } else {
+            item = optimisticStockUpdater.apply(request.getItemId(), takeNewQty);
+            returnToPreviousItem(previousItemId, previousQty);
+        }
+        // The conditional updates hold the item rows until commit, as the pessimistic locks do
+        if (sameItem) {
+            stockCheckpointService.orderChanged(item.getId(), order.getOrderSeq(), previousQty - request.getQty());
+            stockAdmission.stockChanged(item.getId(), previousQty - request.getQty());
+        } else {
+            stockCheckpointService.orderChanged(previousItemId, order.getOrderSeq(), previousQty);
+            stockCheckpointService.orderChanged(item.getId(), order.getOrderSeq(), -request.getQty());
+            stockAdmission.stockChanged(previousItemId, previousQty);
+            stockAdmission.stockChanged(item.getId(), -request.getQty());
+        }
+
+        // 3. Update order (order_no stays the same)
+        BigDecimal orderPrice = (request.getPrice() != null) ? request.getPrice() : item.getPrice();
+        order.setItem(itemRepository.getReferenceById(item.getId()));
+        order.setQty(request.getQty());
+        order.setPrice(orderPrice);
+
+        Order updatedOrder = orderRepository.save(order);
+        return new OrderResponse(updatedOrder.getOrderNo(), item.getId(), item.getName(),
+                updatedOrder.getQty(), updatedOrder.getPrice());
+    }
+
+    private void returnToPreviousItem(Long previousItemId, int qty) {
+        try {
+            optimisticStockUpdater.apply(previousItemId, snapshot -> qty);
+        } catch (ResourceNotFoundException ex) {
+            // Previous item may have been deleted
+        }
+    }
+
     /**
      * Soft delete order
+     * Returns the ordered qty to the item's materialized balance (and its checkpoint, if already included)
      */
     @Transactional
     public void deleteOrder(String orderNo) {
-        Order order = orderRepository.findById(orderNo)
+        Order order = orderRepository.findByIdWithLock(orderNo)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with order number: " + orderNo));
+        itemRepository.findByIdWithLock(order.getItem().getId())
+                .ifPresent(item -> item.setCurrentStock(item.getCurrentStock() + order.getQty()));
+        stockCheckpointService.orderChanged(order.getItem().getId(), order.getOrderSeq(), order.getQty());
+        stockAdmission.stockChanged(order.getItem().getId(), order.getQty());
         orderRepository.delete(order); // Soft delete via @SQLDelete
     }
 
+    /**
+     * Soft delete several orders in one transaction (bulk delete)
+     * Same guarantees as deleteOrder: orders are locked before their items, and each item's balance
+     * (and checkpoint) gets the qty of its deleted orders back. One soft-delete UPDATE for the whole batch.
+     * Unknown and already deleted order numbers are skipped; returns the number of orders deleted
+     */
+    @Transactional
+    public int deleteOrderBatch(Collection<String> orderNos) {
+        // 1. Lock the live orders, then their items in ascending id order
+        List<Order> orders = orderRepository.findAllByIdWithLock(orderNos);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> qtyByItemId = new HashMap<>();
+        for (Order order : orders) {
+            qtyByItemId.merge(order.getItem().getId(), order.getQty(), Integer::sum);
+        }
+        List<Item> items = itemRepository.findAllByIdWithLock(qtyByItemId.keySet()); // Deleted items are skipped
+
+        // 2. Return the quantities to balances and checkpoints
+        for (Item item : items) {
+            item.setCurrentStock(item.getCurrentStock() + qtyByItemId.get(item.getId()));
+            stockAdmission.stockChanged(item.getId(), qtyByItemId.get(item.getId()));
+        }
+        stockCheckpointService.ordersDeleted(orders);
+
+        // 3. Soft delete the locked orders in one statement
+        return orderRepository.softDeleteAll(orders.stream().map(Order::getOrderNo).toList());
+    }
+
+    /**
+     * Validate one batch line, returning the joined violation messages or null when valid
+     */
+    private String validateLine(OrderRequest line) {
+        if (line == null) {
+            return "Validation failed: Order line is required";
+        }
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(line);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation failed: " + violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
     /**
      * Convert Order entity to OrderResponse DTO
      */
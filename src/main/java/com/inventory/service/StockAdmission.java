@@ -0,0 +1,178 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.exception.InsufficientStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory stock admission for orders and withdrawals (inventory.stock.admission-enabled=true)
+ * Keeps the available stock of every item in an atomic counter, loaded from item.current_stock (plus stock
+ * buckets) once the application is ready. A stock-consuming write reserves its qty with a compare-and-set
+ * before its transaction starts; one that would oversell is rejected without touching the database.
+ * A failed write gives its reservation back; a committed one keeps it, as its decrement of the balance.
+ * Every other stock change (top-ups, updates, deletes, imports, batch orders, rebuild corrections)
+ * reaches the counters after its transaction commits.
+ * The item row stays the authority: the stock check under the item lock still runs, so a counter that is
+ * too high only lets a request through to be rejected there.
+ */
+@Component
+@Slf4j
+public class StockAdmission {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    // Item id -> stock not yet reserved; missing for deleted items and before the initial load
+    private final ConcurrentHashMap<Long, AtomicLong> available = new ConcurrentHashMap<>();
+
+    public StockAdmission(JdbcTemplate jdbcTemplate, InventoryProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = properties.getStock().isAdmissionEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Load the counters once startup writes (sample or synthetic data) are done
+     * Until then, and for items without a counter, writes go straight to the database check.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        jdbcTemplate.query("SELECT id, current_stock + (SELECT COALESCE(SUM(b.qty), 0) FROM stock_bucket b " +
+                        "WHERE b.item_id = item.id) FROM item WHERE is_deleted = FALSE",
+                (RowCallbackHandler) row -> available.put(row.getLong(1), new AtomicLong(row.getLong(2))));
+        log.info("Stock admission loaded {} items in {} ms", available.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Run a write that takes qty from an item's stock, with qty reserved beforehand
+     * Throws InsufficientStockException without running the write if the reservation fails;
+     * gives the reservation back if the write throws.
+     */
+    public <T> T admit(Long itemId, Integer qty, Supplier<T> write) {
+        AtomicLong counter = (enabled && itemId != null && qty != null && qty > 0) ? available.get(itemId) : null;
+        if (counter == null) {
+            return write.get();
+        }
+
+        // 1. Reserve: compare-and-set so concurrent reservations can never take the counter below zero
+        long stock;
+        do {
+            stock = counter.get();
+            if (stock < qty) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for item id: " + itemId + ". Available: " + stock + ", Requested: " + qty);
+            }
+        } while (!counter.compareAndSet(stock, stock - qty));
+
+        // 2. Write; the reservation stands if it commits
+        try {
+            return write.get();
+        } catch (RuntimeException | Error ex) {
+            counter.addAndGet(qty);
+            throw ex;
+        }
+    }
+
+    /**
+     * Apply a stock change made outside admit() once the current transaction commits
+     * Changes are summed per item and dropped on rollback.
+     */
+    public void stockChanged(Long itemId, int delta) {
+        if (enabled && delta != 0) {
+            afterCommit(pending -> pending.deltas.merge(itemId, (long) delta, Long::sum));
+        }
+    }
+
+    /**
+     * Start counting a new item at zero once the current transaction commits
+     */
+    public void itemsCreated(Collection<Long> itemIds) {
+        if (enabled) {
+            afterCommit(pending -> pending.created.addAll(itemIds));
+        }
+    }
+
+    /**
+     * Stop admitting writes for deleted items once the current transaction commits
+     * The database check then rejects them as not found.
+     */
+    public void itemsDeleted(Collection<Long> itemIds) {
+        if (enabled) {
+            afterCommit(pending -> pending.deleted.addAll(itemIds));
+        }
+    }
+
+    // Current counter value, for tests
+    Long available(Long itemId) {
+        AtomicLong counter = available.get(itemId);
+        return counter == null ? null : counter.get();
+    }
+
+    private void afterCommit(Consumer<PendingChanges> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges now = new PendingChanges();
+            change.accept(now);
+            now.apply();
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        change.accept(pending);
+    }
+
+    /**
+     * Changes made by one transaction, applied after it commits
+     */
+    private class PendingChanges implements TransactionSynchronization {
+        private final Map<Long, Long> deltas = new HashMap<>();
+        private final List<Long> created = new ArrayList<>();
+        private final List<Long> deleted = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockAdmission.this);
+            if (status == STATUS_COMMITTED) {
+                apply();
+            }
+        }
+
+        private void apply() {
+            created.forEach(itemId -> available.putIfAbsent(itemId, new AtomicLong()));
+            deltas.forEach((itemId, delta) -> {
+                AtomicLong counter = available.get(itemId);
+                if (counter != null) {
+                    counter.addAndGet(delta);
+                }
+            });
+            deleted.forEach(available::remove);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.response.ItemResponse;
+import com.inventory.dto.response.StockBucketResponse;
+import com.inventory.entity.Item;
+import com.inventory.entity.StockBucket;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.repository.ItemQuantity;
+import com.inventory.repository.ItemRepository;
+import com.inventory.repository.StockBucketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded stock for hot items (PUT /api/v1/items/{id}/stock-buckets)
+ * A sharded item's stock is its current_stock plus the qty of its N stock_bucket rows.
+ * Orders and withdrawals lock one free bucket that covers their qty (SKIP LOCKED, from a random start)
+ * and take from it, so up to N writers proceed in parallel without touching the item row. When no free bucket
+ * covers a request, the item and all its buckets are locked and the whole stock is rebalanced evenly.
+ * Top-ups are spread over the buckets.
+ * Every other stock write locks the item row first and then folds the buckets back into current_stock,
+ * so its stock check sees the whole stock; hot writers refill the buckets on their next shortfall.
+ * Lock order: item row, then buckets in ascending order. A bucket writer holds at most one bucket
+ * and never waits for a lock while holding it, so it cannot deadlock with either. (A conditional UPDATE
+ * would wait for a busy bucket and, on some databases, keep it locked even when it no longer matches.)
+ * This assumes the bucket UPDATE takes no lock on the parent item row. It only changes qty, never the
+ * item_id foreign key, and H2 (like PostgreSQL and InnoDB) only checks the foreign key when it changes.
+ * A database that share-locks the parent on every child update would lock bucket, then item, against
+ * the item-then-bucket order of fold and rebalance; the take path must then lock the item first.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class StockBucketService {
+
+    private final StockBucketRepository stockBucketRepository;
+    private final ItemRepository itemRepository;
+    private final ItemCatalogCache itemCatalogCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryProperties properties;
+
+    // Item id -> bucket count of sharded items, so unsharded writes need no lookup
+    private final ConcurrentHashMap<Long, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbcTemplate.query("SELECT id, stock_buckets FROM item WHERE stock_buckets > 1 AND is_deleted = FALSE",
+                (RowCallbackHandler) row -> bucketCounts.put(row.getLong(1), row.getInt(2)));
+        if (!bucketCounts.isEmpty()) {
+            log.info("Stock buckets configured for {} items", bucketCounts.size());
+        }
+    }
+
+    public boolean isSharded(Long itemId) {
+        return itemId != null && bucketCounts.containsKey(itemId);
+    }
+
+    /**
+     * Take qty from a sharded item's stock
+     * Locks a free bucket that covers qty, searching from a random bucket onwards and then wrapping around;
+     * if there is none, locks the item and its buckets and takes qty from the whole stock, rebalancing the rest.
+     */
+    public void take(Long itemId, int qty) {
+        // 1. A free bucket that covers qty: busy buckets are skipped, so nothing is locked unless it is taken
+        int buckets = bucketCounts.getOrDefault(itemId, 0);
+        if (buckets > 0) {
+            int start = ThreadLocalRandom.current().nextInt(buckets);
+            List<Integer> locked = stockBucketRepository.lockAvailableBucket(itemId, start, buckets, qty);
+            if (locked.isEmpty() && start > 0) {
+                locked = stockBucketRepository.lockAvailableBucket(itemId, 0, start, qty);
+            }
+            if (!locked.isEmpty() && stockBucketRepository.takeIfAvailable(itemId, locked.get(0), qty) == 1) {
+                return;
+            }
+        }
+
+        // 2. No free bucket is enough on its own: rebalance under the item lock
+        Item item = itemRepository.findByIdWithLock(itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + itemId));
+        List<StockBucket> locked = stockBucketRepository.findAllByItemIdsWithLock(List.of(itemId));
+        int stock = item.getCurrentStock() + locked.stream().mapToInt(StockBucket::getQty).sum();
+        if (stock < qty) {
+            throw new InsufficientStockException(
+                    "Insufficient stock for item: " + item.getName() +
+                            ". Available: " + stock + ", Requested: " + qty);
+        }
+        if (locked.isEmpty()) {
+            item.setCurrentStock(stock - qty); // Unsharded since step 1
+            return;
+        }
+        item.setCurrentStock(0);
+        distribute(locked, stock - qty);
+    }
+
+    /**
+     * Spread a top-up over a sharded item's buckets (one UPDATE, no item lock)
+     * Returns false if the item has no buckets (any more); the caller then adds to current_stock
+     */
+    public boolean add(Long itemId, int qty) {
+        int buckets = bucketCounts.getOrDefault(itemId, 0);
+        return buckets > 0 && stockBucketRepository.spread(itemId, qty / buckets, qty % buckets) > 0;
+    }
+
+    /**
+     * Move the bucket stock of locked items back into their current_stock
+     * Called right after locking items for a write that checks their stock; free for unsharded items
+     */
+    public void fold(Collection<Item> lockedItems) {
+        Map<Long, Item> sharded = new HashMap<>();
+        for (Item item : lockedItems) {
+            if (item.getStockBuckets() != null) {
+                sharded.put(item.getId(), item);
+            }
+        }
+        if (sharded.isEmpty()) {
+            return;
+        }
+        for (StockBucket bucket : stockBucketRepository.findAllByItemIdsWithLock(sharded.keySet())) {
+            Item item = sharded.get(bucket.getItemId());
+            item.setCurrentStock(item.getCurrentStock() + bucket.getQty());
+            bucket.setQty(0);
+        }
+    }
+
+    public void fold(Item lockedItem) {
+        fold(List.of(lockedItem));
+    }
+
+    /**
+     * Shard an item's stock over the given number of buckets (1 puts it all back on the item row)
+     * Existing stock is split evenly; the item stays locked while its buckets are replaced
+     */
+    public StockBucketResponse configure(Long itemId, int buckets) {
+        int maxBuckets = properties.getStock().getMaxBuckets();
+        if (buckets < 1 || buckets > maxBuckets) {
+            throw new IllegalArgumentException("Buckets must be between 1 and " + maxBuckets + ", got: " + buckets);
+        }
+
+        // 1. Lock the item and its buckets, and move their stock onto the item row
+        Item item = itemRepository.findByIdWithLock(itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + itemId));
+        List<StockBucket> existing = stockBucketRepository.findAllByItemIdsWithLock(List.of(itemId));
+        for (StockBucket bucket : existing) {
+            item.setCurrentStock(item.getCurrentStock() + bucket.getQty());
+            bucket.setQty(0);
+        }
+
+        // 2. Keep buckets 0 .. n-1, drop the rest, add the missing ones
+        int keep = buckets > 1 ? buckets : 0;
+        List<StockBucket> created = new ArrayList<>(keep);
+        for (StockBucket bucket : existing) {
+            if (bucket.getBucketNo() < keep) {
+                created.add(bucket);
+            } else {
+                stockBucketRepository.delete(bucket);
+            }
+        }
+        for (int b = created.size(); b < keep; b++) {
+            created.add(new StockBucket(itemId, b, 0));
+        }
+
+        // 3. Split the stock evenly; a negative balance (a deleted Top Up) stays on the item row
+        if (keep > 0) {
+            int shared = Math.max(0, item.getCurrentStock());
+            distribute(created, shared);
+            item.setCurrentStock(item.getCurrentStock() - shared);
+            stockBucketRepository.saveAll(created);
+        }
+        item.setStockBuckets(buckets > 1 ? buckets : null);
+        itemCatalogCache.invalidate(itemId);
+
+        // 4. Route the item's writes once the new layout is visible
+        afterCommit(() -> {
+            if (buckets > 1) {
+                bucketCounts.put(itemId, buckets);
+            } else {
+                bucketCounts.remove(itemId);
+            }
+        });
+        return toResponse(itemId, item.getCurrentStock(), created.stream().map(StockBucket::getQty).toList());
+    }
+
+    /**
+     * Current layout of an item's stock
+     */
+    @Transactional(readOnly = true)
+    public StockBucketResponse getBuckets(Long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + itemId));
+        List<Integer> quantities = stockBucketRepository.findByItemIdOrderByBucketNo(itemId).stream()
+                .map(StockBucket::getQty)
+                .toList();
+        return toResponse(itemId, item.getCurrentStock(), quantities);
+    }
+
+    /**
+     * Stock held in the buckets of a sharded item; 0 without a query for an unsharded one
+     */
+    @Transactional(readOnly = true)
+    public int bucketStock(Long itemId) {
+        return isSharded(itemId) ? stockBucketRepository.sumQtyByItemId(itemId) : 0;
+    }
+
+    /**
+     * Add the bucket stock of sharded items to responses read from the item rows alone
+     * One grouped query for the sharded items among them, none when there are none
+     */
+    @Transactional(readOnly = true)
+    public void addBucketStock(Collection<ItemResponse> responses) {
+        List<Long> sharded = responses.stream().map(ItemResponse::getId).filter(this::isSharded).toList();
+        if (sharded.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> stockByItemId = new HashMap<>();
+        for (ItemQuantity row : stockBucketRepository.sumQtyByItemIds(sharded)) {
+            stockByItemId.put(row.getItemId(), row.getQty().intValue());
+        }
+        for (ItemResponse response : responses) {
+            response.setCurrentStock(response.getCurrentStock() + stockByItemId.getOrDefault(response.getId(), 0));
+        }
+    }
+
+    /**
+     * Stop routing deleted items to their buckets; the rows go with the item when it is archived
+     */
+    public void itemsDeleted(Collection<Long> itemIds) {
+        if (itemIds.stream().anyMatch(bucketCounts::containsKey)) {
+            afterCommit(() -> itemIds.forEach(bucketCounts::remove));
+        }
+    }
+
+    private StockBucketResponse toResponse(Long itemId, int itemRowStock, List<Integer> bucketStock) {
+        int currentStock = itemRowStock + bucketStock.stream().mapToInt(Integer::intValue).sum();
+        int buckets = Math.max(1, bucketStock.size());
+        return new StockBucketResponse(itemId, buckets, currentStock, itemRowStock, bucketStock);
+    }
+
+    // Even split: every bucket gets stock / n, the first stock % n one more
+    private void distribute(List<StockBucket> buckets, int stock) {
+        int each = stock / buckets.size();
+        int extra = stock % buckets.size();
+        for (int b = 0; b < buckets.size(); b++) {
+            buckets.get(b).setQty(each + (b < extra ? 1 : 0));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Background roll-forward of stock checkpoints (scheduled by StockCheckpointScheduling)
+ * Each chunk of items is rolled forward in its own transaction, so item locks are held only briefly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCheckpointJob {
+
+    private final StockCheckpointService stockCheckpointService;
+    private final InventoryProperties properties;
+
+    /**
+     * Roll every item with new ledger rows forward; returns the number of checkpoints written
+     */
+    public int rollForwardAll() {
+        long start = System.nanoTime();
+        int chunkSize = properties.getCheckpoint().getChunkSize();
+        List<Long> itemIds = stockCheckpointService.findItemsToRollForward();
+        int written = 0;
+        for (int from = 0; from < itemIds.size(); from += chunkSize) {
+            written += stockCheckpointService.rollForward(
+                    itemIds.subList(from, Math.min(from + chunkSize, itemIds.size())));
+        }
+        if (written > 0) {
+            log.info("Rolled {} stock checkpoints forward in {} ms", written, (System.nanoTime() - start) / 1_000_000);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,176 @@
+package com.inventory.service;
+
+import com.inventory.entity.Inventory;
+import com.inventory.entity.Item;
+import com.inventory.entity.Order;
+import com.inventory.entity.StockCheckpoint;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ItemRepository;
+import com.inventory.repository.LedgerTail;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.StockBucketRepository;
+import com.inventory.repository.StockCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-item stock checkpoints: the ledger balance up to a high-water mark of inventory ids and order_seq
+ * Ledger stock is then the checkpoint balance plus the rows after the watermarks (see ItemService).
+ * Inventory rows and orders are only ever appended above the watermarks, but existing rows can be updated,
+ * moved to another item or soft deleted; writers report such changes here while holding the item lock,
+ * and the balance absorbs them when the row is at or below the watermark.
+ * Writers to a sharded item's stock buckets hold a bucket lock instead of the item lock while they append.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class StockCheckpointService {
+
+    private final StockCheckpointRepository stockCheckpointRepository;
+    private final ItemRepository itemRepository;
+    private final InventoryRepository inventoryRepository;
+    private final OrderRepository orderRepository;
+    private final StockBucketRepository stockBucketRepository;
+
+    /**
+     * Record a change of an existing inventory row's stock effect on an item
+     * Must be called while holding the item lock, so a concurrent roll-forward cannot miss it
+     */
+    public void inventoryChanged(Long itemId, Long inventoryId, int delta) {
+        if (delta != 0) {
+            stockCheckpointRepository.adjustForInventory(itemId, inventoryId, delta);
+        }
+    }
+
+    /**
+     * Record a change of an existing order's stock effect on an item (negative qty taken, positive qty returned)
+     * Must be called while holding the item lock
+     */
+    public void orderChanged(Long itemId, Long orderSeq, int delta) {
+        if (delta != 0) {
+            stockCheckpointRepository.adjustForOrder(itemId, orderSeq, delta);
+        }
+    }
+
+    /**
+     * Record the soft delete of several inventory rows (bulk delete): each row covered by its item's
+     * checkpoint takes its effect out of the balance. One checkpoint load; changes are written at flush.
+     * Must be called while holding the item locks
+     */
+    public void inventoriesDeleted(List<Inventory> rows, ToIntFunction<Inventory> effect) {
+        Map<Long, StockCheckpoint> checkpoints = findByItemIds(rows.stream().map(row -> row.getItem().getId()));
+        for (Inventory row : rows) {
+            StockCheckpoint checkpoint = checkpoints.get(row.getItem().getId());
+            if (checkpoint != null && row.getId() <= checkpoint.getInventoryWatermark()) {
+                checkpoint.setBalance(checkpoint.getBalance() - effect.applyAsInt(row));
+            }
+        }
+    }
+
+    /**
+     * Record the soft delete of several orders (bulk delete): each order covered by its item's
+     * checkpoint returns its qty to the balance. Must be called while holding the item locks
+     */
+    public void ordersDeleted(List<Order> orders) {
+        Map<Long, StockCheckpoint> checkpoints = findByItemIds(orders.stream().map(order -> order.getItem().getId()));
+        for (Order order : orders) {
+            StockCheckpoint checkpoint = checkpoints.get(order.getItem().getId());
+            if (checkpoint != null && order.getOrderSeq() <= checkpoint.getOrderWatermark()) {
+                checkpoint.setBalance(checkpoint.getBalance() + order.getQty());
+            }
+        }
+    }
+
+    /**
+     * Items whose checkpoint is missing or behind their ledger, in id order
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findItemsToRollForward() {
+        return stockCheckpointRepository.findItemIdsWithNewLedgerRows();
+    }
+
+    /**
+     * Fold the ledger rows after each item's checkpoint into its balance and move the watermarks to the last row
+     * Items (and the stock buckets of sharded items) are locked first, so no writer changes their ledger
+     * between the tail reads and the checkpoint update.
+     * One lock query, one checkpoint load and two grouped aggregates, regardless of item count.
+     * Returns the number of checkpoints written
+     */
+    @Transactional
+    public int rollForward(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        // 1. Lock the items (deleted items are skipped), and the stock buckets of sharded ones: bucket writers
+        //    append ledger rows without the item lock, so waiting for their bucket lets them commit first
+        List<Item> items = itemRepository.findAllByIdWithLock(itemIds);
+        List<Long> shardedIds = items.stream()
+                .filter(item -> item.getStockBuckets() != null)
+                .map(Item::getId)
+                .toList();
+        if (!shardedIds.isEmpty()) {
+            stockBucketRepository.findAllByItemIdsWithLock(shardedIds);
+        }
+
+        // 2. Load existing checkpoints and the ledger tails after them
+        Map<Long, StockCheckpoint> checkpoints = stockCheckpointRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(StockCheckpoint::getItemId, Function.identity()));
+        Map<Long, LedgerTail> inventoryTails = byItemId(inventoryRepository.findLedgerTailsByItemIds(itemIds));
+        Map<Long, LedgerTail> orderTails = byItemId(orderRepository.findLedgerTailsByItemIds(itemIds));
+
+        // 3. Add the tails to the balances and move the watermarks past them
+        LocalDateTime now = LocalDateTime.now();
+        int written = 0;
+        for (Item item : items) {
+            LedgerTail inventoryTail = inventoryTails.get(item.getId());
+            LedgerTail orderTail = orderTails.get(item.getId());
+            if (inventoryTail == null && orderTail == null) {
+                continue; // Already up to date
+            }
+            StockCheckpoint checkpoint = checkpoints.computeIfAbsent(item.getId(), StockCheckpoint::new);
+            if (inventoryTail != null) {
+                checkpoint.setBalance(checkpoint.getBalance() + inventoryTail.getQty().intValue());
+                checkpoint.setInventoryWatermark(inventoryTail.getLastKey());
+            }
+            if (orderTail != null) {
+                checkpoint.setBalance(checkpoint.getBalance() - orderTail.getQty().intValue());
+                checkpoint.setOrderWatermark(orderTail.getLastKey());
+            }
+            checkpoint.setUpdatedAt(now);
+            if (checkpoint.isNew()) {
+                stockCheckpointRepository.save(checkpoint);
+            }
+            written++;
+        }
+        return written;
+    }
+
+    private Map<Long, StockCheckpoint> findByItemIds(Stream<Long> itemIds) {
+        Set<Long> ids = itemIds.collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return stockCheckpointRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(StockCheckpoint::getItemId, Function.identity()));
+    }
+
+    private Map<Long, LedgerTail> byItemId(List<LedgerTail> tails) {
+        Map<Long, LedgerTail> byItemId = new HashMap<>();
+        for (LedgerTail tail : tails) {
+            byItemId.put(tail.getItemId(), tail);
+        }
+        return byItemId;
+    }
+}
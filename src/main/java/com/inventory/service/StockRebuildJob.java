@@ -0,0 +1,54 @@
+package com.inventory.service;
+
+import com.inventory.dto.response.StockRebuildResponse;
+import com.inventory.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rebuild of every item's materialized balance (POST /api/v1/items/stock/rebuild)
+ * Each chunk of items is locked, summed and corrected in its own transaction, so stock writers only wait
+ * for the chunk holding their item, not for the whole catalogue.
+ * An incremental rebuild first rolls the stock checkpoints forward, so later rebuilds start from there
+ * whether or not the background roll-forward runs.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockRebuildJob {
+
+    // Items locked and summed per transaction
+    static final int CHUNK_SIZE = 500;
+
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final StockCheckpointJob stockCheckpointJob;
+
+    /**
+     * Recompute every item's balance from its checkpoint and the ledger rows after it
+     */
+    public StockRebuildResponse rebuildStockBalances() {
+        return rebuildStockBalances(false);
+    }
+
+    /**
+     * Recompute every item's balance; full ignores (and resets) the stock checkpoints and sums the whole ledger
+     * Returns the items scanned and corrected
+     */
+    public StockRebuildResponse rebuildStockBalances(boolean full) {
+        if (!full) {
+            stockCheckpointJob.rollForwardAll();
+        }
+        int scanned = 0;
+        int corrected = 0;
+        List<Long> itemIds = itemRepository.findAllIds();
+        for (int from = 0; from < itemIds.size(); from += CHUNK_SIZE) {
+            StockRebuildResponse chunk = itemService.rebuildStockBalances(
+                    itemIds.subList(from, Math.min(from + CHUNK_SIZE, itemIds.size())), full);
+            scanned += chunk.getItemsScanned();
+            corrected += chunk.getItemsCorrected();
+        }
+        return new StockRebuildResponse(scanned, corrected);
+    }
+}
@@ -0,0 +1,213 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.InventoryResponse;
+import com.inventory.dto.response.OrderResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Write combining for stock mutations on hot items (inventory.write-combining.enabled=true)
+ * Concurrent requests for the same item are queued; whichever caller finds the queue idle drains it,
+ * applying up to max-batch-size requests per transaction under a single item lock and stock evaluation,
+ * until its own request is done, then hands the drainer role straight to the oldest caller still queued.
+ * An item's queue is dropped as soon as it drains empty, so only items with writes in flight keep one.
+ * Requests are accepted or rejected in arrival order and every caller gets its own response or exception,
+ * only after the transaction holding its write has committed.
+ * When disabled, requests go straight to the service, as do requests for items sharded over stock buckets
+ * (their writers already spread over the bucket rows).
+ * Either way, orders and withdrawals pass stock admission first (when enabled), before anything is queued.
+ * Uncombined writes run through OptimisticStockUpdater.retry, the transaction boundary where optimistic
+ * conflicts are retried.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockWriteCombiner {
+
+    private final OrderService orderService;
+    private final InventoryService inventoryService;
+    private final StockAdmission stockAdmission;
+    private final StockBucketService stockBucketService;
+    private final OptimisticStockUpdater optimisticStockUpdater;
+    private final InventoryProperties properties;
+
+    private final ConcurrentHashMap<Long, ItemQueue<OrderRequest, OrderResponse>> orderQueues =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ItemQueue<InventoryRequest, InventoryResponse>> inventoryQueues =
+            new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return properties.getWriteCombining().isEnabled();
+    }
+
+    public OrderResponse createOrder(OrderRequest request) {
+        return stockAdmission.admit(request.getItemId(), request.getQty(), () -> combineOrder(request));
+    }
+
+    public InventoryResponse recordTransaction(InventoryRequest request) {
+        if (!"W".equals(request.getType())) {
+            return combineTransaction(request);
+        }
+        return stockAdmission.admit(request.getItemId(), request.getQty(), () -> combineTransaction(request));
+    }
+
+    /**
+     * Order updates are never combined; in optimistic mode a lost race is retried in a new transaction
+     */
+    public OrderResponse updateOrder(String orderNo, OrderRequest request) {
+        return optimisticStockUpdater.retry(() -> orderService.updateOrder(orderNo, request));
+    }
+
+    private OrderResponse combineOrder(OrderRequest request) {
+        if (!isEnabled() || !isCombinable(request.getItemId(), request.getQty())) {
+            return optimisticStockUpdater.retry(() -> orderService.createOrder(request));
+        }
+        Long itemId = request.getItemId();
+        return submit(orderQueues, itemId, request, batch -> orderService.createOrdersForItem(itemId, batch));
+    }
+
+    private InventoryResponse combineTransaction(InventoryRequest request) {
+        if (!isEnabled() || !isCombinable(request.getItemId(), request.getQty())) {
+            return optimisticStockUpdater.retry(() -> inventoryService.recordTransaction(request));
+        }
+        Long itemId = request.getItemId();
+        return submit(inventoryQueues, itemId, request,
+                batch -> inventoryService.recordTransactionsForItem(itemId, batch));
+    }
+
+    // Requests waiting for a drainer, for tests
+    int pendingOrders(Long itemId) {
+        ItemQueue<OrderRequest, OrderResponse> queue = orderQueues.get(itemId);
+        return queue == null ? 0 : queue.pending.size();
+    }
+
+    // Whether an item still has an order queue, for tests
+    boolean hasOrderQueue(Long itemId) {
+        return orderQueues.containsKey(itemId);
+    }
+
+    // Malformed requests take the single-request path so they fail exactly as they would without combining
+    private boolean isCombinable(Long itemId, Integer qty) {
+        return itemId != null && qty != null && qty > 0 && !stockBucketService.isSharded(itemId);
+    }
+
+    private <R, T> T submit(ConcurrentHashMap<Long, ItemQueue<R, T>> queues, Long itemId, R request,
+                            Function<List<R>, List<StockWriteOutcome<T>>> writer) {
+        // 1. Enqueue; compute serializes this with the removal of a drained queue, so nothing lands in a dropped one
+        Pending<R, T> pending = new Pending<>(request);
+        ItemQueue<R, T> queue = queues.compute(itemId, (id, current) -> {
+            ItemQueue<R, T> target = current == null ? new ItemQueue<>() : current;
+            target.pending.add(pending);
+            return target;
+        });
+
+        // 2. Drain if the queue is idle, otherwise wait until our request is done or the drainer role is handed to us
+        if (!queue.draining.compareAndSet(false, true)) {
+            CompletableFuture.anyOf(pending.result, pending.turn).exceptionally(ex -> null).join();
+            if (pending.result.isDone()) {
+                return await(pending.result);
+            }
+        }
+        drain(queues, itemId, queue, writer, pending);
+        return await(pending.result);
+    }
+
+    // Called holding the drainer role; stops once its own request is done, so every caller returns
+    // after its own write
+    private <R, T> void drain(ConcurrentHashMap<Long, ItemQueue<R, T>> queues, Long itemId, ItemQueue<R, T> queue,
+                              Function<List<R>, List<StockWriteOutcome<T>>> writer, Pending<R, T> own) {
+        int maxBatchSize = Math.max(1, properties.getWriteCombining().getMaxBatchSize());
+        try {
+            // Our own request is queued until a batch takes it, so every batch is non-empty
+            while (!own.result.isDone()) {
+                List<Pending<R, T>> batch = new ArrayList<>();
+                Pending<R, T> next;
+                while (batch.size() < maxBatchSize && (next = queue.pending.poll()) != null) {
+                    batch.add(next);
+                }
+                apply(batch, writer);
+            }
+        } finally {
+            handOff(queues, itemId, queue);
+        }
+    }
+
+    // Passes the drainer role to the oldest queued caller, or releases it and drops the queue when none is left
+    private <R, T> void handOff(ConcurrentHashMap<Long, ItemQueue<R, T>> queues, Long itemId, ItemQueue<R, T> queue) {
+        while (true) {
+            Pending<R, T> next = queue.pending.peek();
+            if (next != null) {
+                next.turn.complete(null);
+                return;
+            }
+            queues.computeIfPresent(itemId, (id, current) ->
+                    current == queue && current.pending.isEmpty() ? null : current);
+            queue.draining.set(false);
+            // A caller that enqueued after the peek lost its compare-and-set to us: take the role back for it
+            if (queue.pending.isEmpty() || !queue.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private <R, T> void apply(List<Pending<R, T>> batch, Function<List<R>, List<StockWriteOutcome<T>>> writer) {
+        List<StockWriteOutcome<T>> outcomes;
+        try {
+            outcomes = writer.apply(batch.stream().map(pending -> pending.request).toList());
+        } catch (RuntimeException | Error ex) {
+            // The whole transaction rolled back: nobody in the batch was applied
+            batch.forEach(pending -> pending.result.completeExceptionally(ex));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            StockWriteOutcome<T> outcome = outcomes.get(i);
+            if (outcome.getFailure() != null) {
+                batch.get(i).result.completeExceptionally(outcome.getFailure());
+            } else {
+                batch.get(i).result.complete(outcome.getResponse());
+            }
+        }
+    }
+
+    private static class ItemQueue<R, T> {
+        private final Queue<Pending<R, T>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    private static class Pending<R, T> {
+        private final R request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // Completed by the previous drainer when this caller is to drain next
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+
+        private Pending(R request) {
+            this.request = request;
+        }
+    }
+}
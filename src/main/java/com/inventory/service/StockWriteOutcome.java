@@ -0,0 +1,24 @@
+package com.inventory.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of one request inside a combined write: its response, or the exception it would have thrown on its own
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StockWriteOutcome<T> {
+
+    private final T response;
+    private final RuntimeException failure;
+
+    public static <T> StockWriteOutcome<T> success(T response) {
+        return new StockWriteOutcome<>(response, null);
+    }
+
+    public static <T> StockWriteOutcome<T> failure(RuntimeException failure) {
+        return new StockWriteOutcome<>(null, failure);
+    }
+}
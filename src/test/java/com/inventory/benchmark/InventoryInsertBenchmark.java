@@ -0,0 +1,73 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.response.ImportResponse;
+import com.inventory.service.ImportService;
+import com.inventory.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk insert throughput: 100k inventory rows through the CSV import (chunks of 500 per transaction)
+ * Compare JDBC batch sizes; batchSize=1 is one round trip per row, as with IDENTITY keys.
+ * Reported time is per 100k-row import.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="InventoryInsertBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InventoryInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"1", "50", "500"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ImportService importService;
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        importService = context.getBean(ImportService.class);
+
+        // Top ups spread over 100 items
+        ItemService itemService = context.getBean(ItemService.class);
+        long[] itemIds = new long[100];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = itemService.createItem(new ItemRequest("Insert Item " + i, new BigDecimal("1.00"))).getId();
+        }
+        StringBuilder rows = new StringBuilder("itemId,qty,type\n");
+        for (int i = 0; i < ROWS; i++) {
+            rows.append(itemIds[i % itemIds.length]).append(",1,T\n");
+        }
+        csv = rows.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportResponse importInventories() throws IOException {
+        return importService.importInventories(new ByteArrayInputStream(csv), ImportService.Format.CSV);
+    }
+}
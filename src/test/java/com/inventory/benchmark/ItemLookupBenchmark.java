@@ -0,0 +1,70 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.controller.ItemController;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.response.ApiResponse;
+import com.inventory.dto.response.ItemResponse;
+import com.inventory.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/v1/items/{id} throughput with and without the item catalog cache
+ * Calls the controller handler directly, so HTTP overhead does not hide the difference
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ItemLookupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemLookupBenchmark {
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private ItemController itemController;
+    private Long[] itemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--inventory.item-cache.enabled=" + cacheEnabled);
+        itemController = context.getBean(ItemController.class);
+
+        // 1000 items, all of which fit in the cache
+        ItemService itemService = context.getBean(ItemService.class);
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(new ItemRequest("Benchmark Item " + i, new BigDecimal("1.00")));
+        }
+        itemIds = itemService.createItemBatch(requests).stream()
+                .map(ItemResponse::getId)
+                .toArray(Long[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<ItemResponse>> getItemById() {
+        return itemController.getItemById(itemIds[ThreadLocalRandom.current().nextInt(itemIds.length)]);
+    }
+}
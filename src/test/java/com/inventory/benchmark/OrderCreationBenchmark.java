@@ -0,0 +1,74 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.OrderResponse;
+import com.inventory.repository.ItemRepository;
+import com.inventory.repository.OrderRepository;
+import com.inventory.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation cost against the size of the orders table
+ * createOrder should stay flat across table sizes; legacyCreateOrder adds the
+ * MAX(SUBSTRING(order_no)) scan that used to run before every insert, for comparison
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderCreationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCreationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int existingOrders;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private OrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        Long itemId = context.getBean(ItemRepository.class).findAllIds().get(0);
+
+        // Bulk-load existing orders far above the allocator's range, and enough stock to never run out
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO orders (order_no, order_seq, item_id, qty, price, is_deleted) " +
+                "SELECT 'O' || (X + 1000000000), X + 1000000000, ?, 1, 1.00, FALSE FROM SYSTEM_RANGE(1, ?)", itemId, existingOrders);
+        jdbcTemplate.update("UPDATE item SET current_stock = ? WHERE id = ?", Integer.MAX_VALUE / 2, itemId);
+
+        request = new OrderRequest(itemId, 1, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(request);
+    }
+
+    @Benchmark
+    public OrderResponse legacyCreateOrder() {
+        // The previous insert changed the table, so H2 cannot serve the scan from its result cache
+        orderRepository.getMaxOrderSequenceIncludingDeleted();
+        return orderService.createOrder(request);
+    }
+}
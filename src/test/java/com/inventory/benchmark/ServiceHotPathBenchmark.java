@@ -0,0 +1,115 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.InventoryResponse;
+import com.inventory.dto.response.ItemResponse;
+import com.inventory.dto.response.OrderResponse;
+import com.inventory.service.InventoryService;
+import com.inventory.service.ItemService;
+import com.inventory.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths against the size of one item's ledger
+ * The item gets ledgerRows inventory rows and ledgerRows orders before the trial.
+ * calculateCurrentStock reads the materialized balance; calculateStockFromLedger is the full
+ * ledger scan used by rebuilds, for comparison. Listing benchmarks fetch the first page.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ServiceHotPathBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceHotPathBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int ledgerRows;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private InventoryService inventoryService;
+    private OrderService orderService;
+    private Long itemId;
+    private OrderRequest orderRequest;
+    private InventoryRequest inventoryRequest;
+    private PageRequest page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        itemService = context.getBean(ItemService.class);
+        inventoryService = context.getBean(InventoryService.class);
+        orderService = context.getBean(OrderService.class);
+        itemId = itemService.createItem(new ItemRequest("Benchmark Item", new BigDecimal("1.00"))).getId();
+
+        // Bulk-load the ledger, plus one large top up so order creation never runs out of stock
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO inventory (id, item_id, qty, type, is_deleted) " +
+                "SELECT NEXT VALUE FOR inventory_seq, ?, 2, 'T', FALSE FROM SYSTEM_RANGE(1, ?)", itemId, ledgerRows - 1);
+        jdbcTemplate.update("INSERT INTO inventory (id, item_id, qty, type, is_deleted) " +
+                "VALUES (NEXT VALUE FOR inventory_seq, ?, ?, 'T', FALSE)", itemId, Integer.MAX_VALUE / 2);
+        jdbcTemplate.update("INSERT INTO orders (order_no, order_seq, item_id, qty, price, is_deleted) " +
+                "SELECT 'O' || (X + 1000000000), X + 1000000000, ?, 1, 1.00, FALSE FROM SYSTEM_RANGE(1, ?)", itemId, ledgerRows);
+        jdbcTemplate.update("UPDATE item SET current_stock = ? WHERE id = ?",
+                itemService.calculateStockFromLedger(itemId), itemId);
+
+        orderRequest = new OrderRequest(itemId, 1, null);
+        inventoryRequest = new InventoryRequest(itemId, 1, "T");
+        page = PageRequest.of(0, pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer calculateCurrentStock() {
+        return itemService.calculateCurrentStock(itemId);
+    }
+
+    @Benchmark
+    public Integer calculateStockFromLedger() {
+        return itemService.calculateStockFromLedger(itemId);
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(orderRequest);
+    }
+
+    @Benchmark
+    public InventoryResponse recordTransaction() {
+        return inventoryService.recordTransaction(inventoryRequest);
+    }
+
+    @Benchmark
+    public Page<ItemResponse> getAllItems() {
+        return itemService.getAllItems(page);
+    }
+
+    @Benchmark
+    public Page<OrderResponse> getAllOrders() {
+        return orderService.getAllOrders(page);
+    }
+}
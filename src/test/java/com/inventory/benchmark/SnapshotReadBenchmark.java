@@ -0,0 +1,104 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.service.ItemService;
+import com.inventory.service.OrderService;
+import com.inventory.service.StockWriteCombiner;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput on a few hot items while order writers hammer the same items
+ * (every write holds an item row lock until commit)
+ * The "idle" group reads with no writers running, "contended" runs the same readers next to 4 writers;
+ * with snapshot reads both report the same read throughput and read latency, up to the CPU the writers take
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="SnapshotReadBenchmark"
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotReadBenchmark {
+
+    private static final int HOT_ITEMS = 4;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private OrderService orderService;
+    private StockWriteCombiner stockWriteCombiner;
+    private Long[] itemIds;
+    private final Pageable page = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--inventory.stock.concurrency-mode=pessimistic");
+        itemService = context.getBean(ItemService.class);
+        orderService = context.getBean(OrderService.class);
+        stockWriteCombiner = context.getBean(StockWriteCombiner.class);
+
+        // A few hot items with enough stock to never run out
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        itemIds = new Long[HOT_ITEMS];
+        for (int i = 0; i < HOT_ITEMS; i++) {
+            itemIds[i] = itemService.createItem(new ItemRequest("Hot Item " + i, new BigDecimal("1.00"))).getId();
+            jdbcTemplate.update("UPDATE item SET current_stock = ? WHERE id = ?", Integer.MAX_VALUE / 2, itemIds[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("idle")
+    @GroupThreads(4)
+    public Object readIdle() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(4)
+    public Object readContended() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(4)
+    public Object writeContended() {
+        // Same entry point as the controller
+        return stockWriteCombiner.createOrder(new OrderRequest(hotItem(), 1, null));
+    }
+
+    // The item detail, item list and order list endpoints in turn
+    private Object read() {
+        return switch (ThreadLocalRandom.current().nextInt(3)) {
+            case 0 -> itemService.getItemById(hotItem());
+            case 1 -> itemService.getAllItems(page);
+            default -> orderService.getOrdersAfter("", 20);
+        };
+    }
+
+    private Long hotItem() {
+        return itemIds[ThreadLocalRandom.current().nextInt(HOT_ITEMS)];
+    }
+}
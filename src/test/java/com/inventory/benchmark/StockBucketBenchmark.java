@@ -0,0 +1,69 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.service.ItemService;
+import com.inventory.service.StockBucketService;
+import com.inventory.service.StockWriteCombiner;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation on a single hot item sharded over N stock buckets (1: unsharded, every order locks the item row)
+ * Throughput should grow with N until N reaches the writer count.
+ * Writer count is the JMH thread count; run once per level:
+ *
+ * for t in 1 8 32; do
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="StockBucketBenchmark -t $t"
+ * done
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockBucketBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    private int buckets;
+
+    private ConfigurableApplicationContext context;
+    private StockWriteCombiner stockWriteCombiner;
+    private OrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--inventory.stock.concurrency-mode=pessimistic");
+        stockWriteCombiner = context.getBean(StockWriteCombiner.class);
+
+        // One hot item with enough stock in every bucket to never run out
+        Long itemId = context.getBean(ItemService.class)
+                .createItem(new ItemRequest("Hot Item", new BigDecimal("1.00"))).getId();
+        context.getBean(JdbcTemplate.class)
+                .update("UPDATE item SET current_stock = ? WHERE id = ?", Integer.MAX_VALUE / 2, itemId);
+        context.getBean(StockBucketService.class).configure(itemId, buckets);
+        request = new OrderRequest(itemId, 1, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object createOrder() {
+        // Same entry point as the controller
+        return stockWriteCombiner.createOrder(request);
+    }
+}
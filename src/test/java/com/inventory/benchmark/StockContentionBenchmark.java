@@ -0,0 +1,91 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.exception.StockConflictException;
+import com.inventory.service.ItemService;
+import com.inventory.service.StockWriteCombiner;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation on a single hot item: pessimistic row lock, optimistic versioned update,
+ * or write combining (concurrent orders share one locked transaction, up to maxBatchSize)
+ * Reports throughput and the latency distribution (p50, p99 under SampleTime), plus the orders
+ * that got 409 Conflict after their retries ran out (the "conflicts" secondary result).
+ * Writer count is the JMH thread count; run once per level:
+ *
+ * for t in 1 8 32 128; do
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="StockContentionBenchmark -t $t"
+ * done
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockContentionBenchmark {
+
+    @Param({"pessimistic", "optimistic", "combined"})
+    private String mode;
+
+    // Only used by the combined mode
+    @Param({"100"})
+    private int maxBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private StockWriteCombiner stockWriteCombiner;
+    private OrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--inventory.stock.concurrency-mode=" + ("optimistic".equals(mode) ? mode : "pessimistic"),
+                        "--inventory.write-combining.enabled=" + "combined".equals(mode),
+                        "--inventory.write-combining.max-batch-size=" + maxBatchSize);
+        stockWriteCombiner = context.getBean(StockWriteCombiner.class);
+
+        // One hot item with enough stock to never run out
+        Long itemId = context.getBean(ItemService.class)
+                .createItem(new ItemRequest("Hot Item", new BigDecimal("1.00"))).getId();
+        context.getBean(JdbcTemplate.class)
+                .update("UPDATE item SET current_stock = ? WHERE id = ?", Integer.MAX_VALUE / 2, itemId);
+        request = new OrderRequest(itemId, 1, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Per-thread event counters, summed by JMH into secondary results
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        // Orders that still conflicted after optimistic-max-attempts
+        public long conflicts;
+    }
+
+    @Benchmark
+    public Object createOrder(Counters counters) {
+        try {
+            // Same entry point as the controller: retries optimistic conflicts, combines when enabled
+            return stockWriteCombiner.createOrder(request);
+        } catch (StockConflictException ex) {
+            counters.conflicts++;
+            return ex;
+        }
+    }
+}
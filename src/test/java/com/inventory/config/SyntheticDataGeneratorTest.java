@@ -0,0 +1,102 @@
+package com.inventory.config;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.StockRebuildResponse;
+import com.inventory.service.InventoryService;
+import com.inventory.service.ItemService;
+import com.inventory.service.OrderService;
+import com.inventory.service.StockRebuildJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static com.inventory.service.TestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Small synthetic dataset: sizes, ledger consistency, skew, and normal writes on top of it
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:synthetic-test",
+                "spring.jpa.show-sql=false",
+                "inventory.synthetic.items=500",
+                "inventory.synthetic.inventory-rows=20000",
+                "inventory.synthetic.orders=5000"
+        })
+@ActiveProfiles("synthetic")
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private StockRebuildJob stockRebuildJob;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void generate_LoadsConfiguredSizesInsteadOfSampleData() {
+        assertEquals(500, count(jdbcTemplate, "SELECT COUNT(*) FROM item"));
+        assertEquals(5000, count(jdbcTemplate, "SELECT COUNT(*) FROM orders"));
+        // Plus one top-up row per item the generated ledger would have left negative
+        assertTrue(count(jdbcTemplate, "SELECT COUNT(*) FROM inventory") >= 20000);
+        assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM item WHERE name = 'Pen'"));
+    }
+
+    @Test
+    void generate_BalancesMatchLedgerAndNeverNegative() {
+        assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM item WHERE current_stock < 0"));
+
+        StockRebuildResponse rebuild = stockRebuildJob.rebuildStockBalances();
+
+        assertEquals(0, rebuild.getItemsCorrected());
+    }
+
+    @Test
+    void generate_PopularitySkewedTowardsLowIds() {
+        // u^3 < 0.1 for u < 0.46: the first 10% of items take about 46% of the orders
+        long hot = count(jdbcTemplate, "SELECT COUNT(*) FROM orders WHERE item_id <= 50");
+        assertTrue(hot > 5000 * 0.4 && hot < 5000 * 0.55, "hot orders: " + hot);
+    }
+
+    @Test
+    void unit_DependsOnlyOnSeedAndStream() {
+        // Given
+        InventoryProperties.Synthetic seed42 = new InventoryProperties.Synthetic();
+        InventoryProperties.Synthetic seed43 = new InventoryProperties.Synthetic();
+        seed43.setSeed(43);
+
+        // Then: same seed, same values; another seed or stream, other values
+        assertEquals(SyntheticDataGenerator.unit("X", 1, seed42), SyntheticDataGenerator.unit("X", 1, seed42));
+        assertNotEquals(SyntheticDataGenerator.unit("X", 1, seed42), SyntheticDataGenerator.unit("X", 1, seed43));
+        assertNotEquals(SyntheticDataGenerator.unit("X", 1, seed42), SyntheticDataGenerator.unit("X", 2, seed42));
+    }
+
+    @Test
+    void writesAfterGenerate_ContinuePastLoadedIds() {
+        // When
+        Long itemId = itemService.createItem(new ItemRequest("New Item", new BigDecimal("2.00"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 5, "T"));
+        String orderNo = orderService.createOrder(new OrderRequest(itemId, 1, null)).getOrderNo();
+
+        // Then
+        assertTrue(itemId > 500);
+        assertTrue(Long.parseLong(orderNo.substring(1)) > 5000);
+        assertEquals(4, itemService.calculateCurrentStock(itemId));
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventory.config;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.service.InventoryService;
+import com.inventory.service.ItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * spring.threads.virtual.enabled=true: Tomcat hands requests to virtual threads, and far more concurrent
+ * requests than pooled connections still all complete (the pool is the limit, not the thread count)
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:virtual-thread-test",
+                "spring.jpa.show-sql=false",
+                "spring.threads.virtual.enabled=true",
+                "spring.datasource.hikari.maximum-pool-size=4"
+        })
+class VirtualThreadModeTest {
+
+    private static final int CLIENTS = 64;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    void tomcat_HandsRequestsToVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+
+        Object executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+
+        assertEquals("VirtualThreadExecutor", executor.getClass().getSimpleName());
+    }
+
+    @Test
+    void concurrentOrders_MoreClientsThanConnections_AllHandled() throws Exception {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Busy Item", new BigDecimal("1.00"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemId, CLIENTS, "T"));
+
+        // When: 64 concurrent orders against 4 connections
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<CompletableFuture<ResponseEntity<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                responses.add(CompletableFuture.supplyAsync(() -> restTemplate.postForEntity(
+                        "/api/v1/orders", new OrderRequest(itemId, 1, null), String.class), clients));
+            }
+
+            // Then
+            for (CompletableFuture<ResponseEntity<String>> response : responses) {
+                assertEquals(HttpStatus.CREATED, response.get().getStatusCode());
+            }
+            assertEquals(0, itemService.calculateCurrentStock(itemId));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.inventory.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contention load generator for a locally started app (mvn spring-boot:run or java -jar)
+ * Creates a set of items, tops them up, then runs worker threads that create, update, delete and read
+ * orders against items picked with the chosen skew. Reports throughput, latency percentiles and outcome
+ * counts per operation, then checks that no item's stock went negative and that the stored balances still
+ * match the ledger (POST /api/v1/items/stock/rebuild corrects nothing). Exits 1 if a check fails.
+ *
+ * mvn -Pload test-compile exec:exec -Dload.args="--threads=200 --skew=single --duration=30"
+ *
+ * Options (--name=value): base-url, threads, duration (seconds), items, initial-stock,
+ * skew (uniform | zipf | single), zipf-exponent, mix (e.g. create=70,update=10,delete=5,read=15), max-qty
+ */
+public class ContentionLoadHarness {
+
+    enum Operation { CREATE, UPDATE, DELETE, READ }
+
+    enum Outcome { OK, INSUFFICIENT_STOCK, CONFLICT, UNAVAILABLE, ERROR }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Queue<String[]> liveOrders = new ConcurrentLinkedQueue<>(); // {orderNo, itemId}
+    private final List<String> errorSamples = new ArrayList<>();
+
+    private long[] itemIds;
+    private double[] itemCdf;
+    private Operation[] mixTable;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("base-url", "http://localhost:8080");
+        options.put("threads", "64");
+        options.put("duration", "30");
+        options.put("items", "10");
+        options.put("initial-stock", "1000");
+        options.put("skew", "zipf");
+        options.put("zipf-exponent", "1.0");
+        options.put("mix", "create=70,update=10,delete=5,read=15");
+        options.put("max-qty", "3");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!options.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option: " + name + ", expected one of " + options.keySet());
+            }
+            options.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        System.exit(new ContentionLoadHarness(options).run() ? 0 : 1);
+    }
+
+    ContentionLoadHarness(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = options.get("base-url");
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    boolean run() throws Exception {
+        System.out.println("Options: " + options);
+
+        // 1. Create and top up the items under test
+        setUpItems(Integer.parseInt(options.get("items")), Integer.parseInt(options.get("initial-stock")));
+        itemCdf = itemCdf(options.get("skew"), itemIds.length, Double.parseDouble(options.get("zipf-exponent")));
+        mixTable = mixTable(options.get("mix"));
+
+        // 2. Run the workers until the deadline
+        int threads = Integer.parseInt(options.get("threads"));
+        long deadline = System.nanoTime() + Duration.ofSeconds(Long.parseLong(options.get("duration"))).toNanos();
+        List<Recorder> recorders = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        step(recorder);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // 3. Report and check invariants
+        report(recorders, seconds);
+        return checkStock();
+    }
+
+    private void setUpItems(int count, int initialStock) throws IOException, InterruptedException {
+        itemIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            JsonNode item = send("POST", "/api/v1/items",
+                    Map.of("name", "Load Item " + System.currentTimeMillis() + "-" + i, "price", 1.00)).body;
+            itemIds[i] = item.path("data").path("id").asLong();
+            send("POST", "/api/v1/inventories", Map.of("itemId", itemIds[i], "qty", initialStock, "type", "T"));
+        }
+        System.out.println("Created " + count + " items with stock " + initialStock + " each");
+    }
+
+    private void step(Recorder recorder) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = mixTable[random.nextInt(mixTable.length)];
+        String[] order = (operation == Operation.UPDATE || operation == Operation.DELETE) ? liveOrders.poll() : null;
+        if (order == null && (operation == Operation.UPDATE || operation == Operation.DELETE)) {
+            operation = Operation.CREATE; // Nothing to update or delete yet
+        }
+        int qty = 1 + random.nextInt(Integer.parseInt(options.get("max-qty")));
+
+        long begin = System.nanoTime();
+        Outcome outcome;
+        try {
+            Reply reply = switch (operation) {
+                case CREATE -> send("POST", "/api/v1/orders", Map.of("itemId", pickItem(random), "qty", qty));
+                case UPDATE -> send("PUT", "/api/v1/orders/" + order[0], Map.of("itemId", Long.parseLong(order[1]), "qty", qty));
+                case DELETE -> send("DELETE", "/api/v1/orders/" + order[0], null);
+                case READ -> send("GET", "/api/v1/items/" + pickItem(random), null);
+            };
+            outcome = classify(reply);
+            if (operation == Operation.CREATE && outcome == Outcome.OK) {
+                JsonNode created = reply.body.path("data");
+                liveOrders.add(new String[]{created.path("orderNo").asText(), created.path("itemId").asText()});
+            } else if (operation == Operation.UPDATE) {
+                liveOrders.add(order); // Still exists whether or not the update was accepted
+            } else if (operation == Operation.DELETE && outcome != Outcome.OK) {
+                liveOrders.add(order);
+            }
+            if (outcome == Outcome.ERROR) {
+                sampleError(operation + " -> " + reply.status + " " + reply.body.path("message").asText());
+            }
+        } catch (IOException ex) {
+            outcome = Outcome.ERROR;
+            sampleError(operation + " -> " + ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(operation, outcome, System.nanoTime() - begin);
+    }
+
+    private Outcome classify(Reply reply) {
+        if (reply.status >= 200 && reply.status < 300) {
+            return Outcome.OK;
+        }
+        String message = reply.body.path("message").asText("");
+        if (reply.status == 400 && message.startsWith("Insufficient stock")) {
+            return Outcome.INSUFFICIENT_STOCK;
+        }
+        if (reply.status == 409) {
+            return Outcome.CONFLICT;
+        }
+        if (reply.status == 503) {
+            return Outcome.UNAVAILABLE;
+        }
+        return Outcome.ERROR;
+    }
+
+    private synchronized void sampleError(String error) {
+        if (errorSamples.size() < 10) {
+            errorSamples.add(error);
+        }
+    }
+
+    private long pickItem(ThreadLocalRandom random) {
+        int index = Arrays.binarySearch(itemCdf, random.nextDouble());
+        return itemIds[Math.min(index >= 0 ? index : -index - 1, itemIds.length - 1)];
+    }
+
+    private boolean checkStock() throws IOException, InterruptedException {
+        boolean passed = true;
+        for (long itemId : itemIds) {
+            int stock = send("GET", "/api/v1/items/" + itemId, null).body.path("data").path("currentStock").asInt();
+            if (stock < 0) {
+                System.out.println("FAILED: item " + itemId + " has negative stock " + stock);
+                passed = false;
+            }
+        }
+        int corrected = send("POST", "/api/v1/items/stock/rebuild", null).body.path("data").path("itemsCorrected").asInt();
+        if (corrected > 0) {
+            System.out.println("FAILED: " + corrected + " item balance(s) had drifted from the ledger");
+            passed = false;
+        }
+        System.out.println(passed ? "Stock checks passed: no negative balance, no drift from the ledger" : "Stock checks FAILED");
+        return passed;
+    }
+
+    private void report(List<Recorder> recorders, double seconds) {
+        Recorder total = new Recorder();
+        recorders.forEach(total::merge);
+        long operations = Arrays.stream(Operation.values()).mapToLong(op -> total.latencies.get(op).size).sum();
+        System.out.printf("%nRan %d operations in %.1f s: %.1f ops/s%n", operations, seconds, operations / seconds);
+        System.out.printf("%-7s %8s %8s %10s %9s %9s %7s %9s %9s %9s %9s%n", "op", "count", "ok",
+                "no-stock", "conflict", "busy", "error", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            LongList latencies = total.latencies.get(operation);
+            long[] counts = total.outcomes.get(operation);
+            long[] sorted = Arrays.copyOf(latencies.values, latencies.size);
+            Arrays.sort(sorted);
+            System.out.printf("%-7s %8d %8d %10d %9d %9d %7d %9.2f %9.2f %9.2f %9.2f%n", operation, latencies.size,
+                    counts[Outcome.OK.ordinal()], counts[Outcome.INSUFFICIENT_STOCK.ordinal()],
+                    counts[Outcome.CONFLICT.ordinal()], counts[Outcome.UNAVAILABLE.ordinal()],
+                    counts[Outcome.ERROR.ordinal()], percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+        errorSamples.forEach(error -> System.out.println("Error sample: " + error));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Cumulative pick probability per item: single puts everything on the first item
+     */
+    static double[] itemCdf(String skew, int items, double exponent) {
+        double[] weights = new double[items];
+        for (int i = 0; i < items; i++) {
+            weights[i] = switch (skew) {
+                case "uniform" -> 1.0;
+                case "zipf" -> 1.0 / Math.pow(i + 1, exponent);
+                case "single" -> i == 0 ? 1.0 : 0.0;
+                default -> throw new IllegalArgumentException("Unknown skew: " + skew);
+            };
+        }
+        double sum = Arrays.stream(weights).sum();
+        double[] cdf = new double[items];
+        double running = 0;
+        for (int i = 0; i < items; i++) {
+            running += weights[i] / sum;
+            cdf[i] = running;
+        }
+        cdf[items - 1] = 1.0;
+        return cdf;
+    }
+
+    /**
+     * One slot per percentage point, so a uniform index into the table follows the mix
+     */
+    static Operation[] mixTable(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        List<Operation> table = new ArrayList<>();
+        weights.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty: " + mix);
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    private Reply send(String method, String path, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        JsonNode json = response.body().length == 0 ? JSON.createObjectNode() : JSON.readTree(response.body());
+        return new Reply(response.statusCode(), json);
+    }
+
+    private record Reply(int status, JsonNode body) {
+    }
+
+    /**
+     * Per-thread latencies and outcome counts, merged after the run
+     */
+    private static class Recorder {
+        private final Map<Operation, LongList> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, long[]> outcomes = new EnumMap<>(Operation.class);
+
+        Recorder() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LongList());
+                outcomes.put(operation, new long[Outcome.values().length]);
+            }
+        }
+
+        void record(Operation operation, Outcome outcome, long nanos) {
+            latencies.get(operation).add(nanos);
+            outcomes.get(operation)[outcome.ordinal()]++;
+        }
+
+        void merge(Recorder other) {
+            for (Operation operation : Operation.values()) {
+                LongList source = other.latencies.get(operation);
+                for (int i = 0; i < source.size; i++) {
+                    latencies.get(operation).add(source.values[i]);
+                }
+                long[] counts = outcomes.get(operation);
+                long[] otherCounts = other.outcomes.get(operation);
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += otherCounts[i];
+                }
+            }
+        }
+    }
+
+    private static class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.ArchivedInventoryResponse;
+import com.inventory.dto.response.ArchivedOrderResponse;
+import com.inventory.dto.response.CursorPage;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.StockCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.inventory.service.TestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archive mover against the database: deleted rows leave the hot tables in batches, live rows and
+ * balances are untouched, items follow once nothing references them, and the archive stays queryable
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:archive-test",
+                "spring.jpa.show-sql=false",
+                "inventory.archive.enabled=false", // Run explicitly
+                "inventory.archive.min-age=0s",
+                "inventory.archive.batch-size=2"
+        })
+class ArchiveServiceTest {
+
+    @Autowired
+    private ArchiveJob archiveJob;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderNumberAllocator orderNumberAllocator;
+
+    @Autowired
+    private StockCheckpointJob stockCheckpointJob;
+
+    @Autowired
+    private StockCheckpointRepository stockCheckpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Long itemId;
+    private Long topUpId;
+
+    @BeforeEach
+    void setUp() {
+        itemId = itemService.createItem(new ItemRequest("Archive Item", new BigDecimal("1.00"))).getId();
+        topUpId = inventoryService.recordTransaction(new InventoryRequest(itemId, 50, "T")).getId();
+    }
+
+    @Test
+    void archiveAll_MovesDeletedRowsInBatchesAndKeepsLiveOnes() {
+        // Given: more deleted rows than one batch
+        Long live = inventoryService.recordTransaction(new InventoryRequest(itemId, 5, "W")).getId();
+        List<Long> deleted = List.of(
+                inventoryService.recordTransaction(new InventoryRequest(itemId, 1, "W")).getId(),
+                inventoryService.recordTransaction(new InventoryRequest(itemId, 2, "W")).getId(),
+                inventoryService.recordTransaction(new InventoryRequest(itemId, 3, "T")).getId());
+        deleted.forEach(inventoryService::deleteTransaction);
+        String liveOrder = orderService.createOrder(new OrderRequest(itemId, 4, null)).getOrderNo();
+        String deletedOrder = orderService.createOrder(new OrderRequest(itemId, 6, null)).getOrderNo();
+        orderService.deleteOrder(deletedOrder);
+
+        // When
+        archiveJob.archiveAll();
+
+        // Then: hot tables keep live rows only
+        assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM inventory WHERE is_deleted = TRUE"));
+        assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM orders WHERE is_deleted = TRUE"));
+        assertEquals(1, count(jdbcTemplate, "SELECT COUNT(*) FROM inventory WHERE id = " + live));
+        assertEquals(1, count(jdbcTemplate, "SELECT COUNT(*) FROM orders WHERE order_no = '" + liveOrder + "'"));
+
+        // And the archive has the deleted ones, by item
+        CursorPage<ArchivedInventoryResponse> archived = archiveService.getArchivedTransactions(itemId, null, 10);
+        assertEquals(deleted, archived.getContent().stream().map(ArchivedInventoryResponse::getId).toList());
+        assertNotNull(archived.getContent().get(0).getDeletedAt());
+        assertNotNull(archived.getContent().get(0).getArchivedAt());
+        CursorPage<ArchivedOrderResponse> orders = archiveService.getArchivedOrders(itemId, null, 10);
+        assertEquals(List.of(deletedOrder), orders.getContent().stream().map(ArchivedOrderResponse::getOrderNo).toList());
+
+        // And balances still match the ledger: 50 - 5 - 4
+        assertEquals(41, itemService.calculateCurrentStock(itemId));
+        assertEquals(41, itemService.calculateStockFromLedger(itemId));
+    }
+
+    @Test
+    void archiveAll_KeepsRowsYoungerThanCutoff() {
+        // Given
+        Long deleted = inventoryService.recordTransaction(new InventoryRequest(itemId, 1, "W")).getId();
+        inventoryService.deleteTransaction(deleted);
+
+        // When: cutoff before the delete
+        int moved = archiveService.archiveInventoryBatch(LocalDateTime.now().minusHours(1), 100);
+
+        // Then
+        assertEquals(0, moved);
+        assertEquals(1, count(jdbcTemplate, "SELECT COUNT(*) FROM inventory WHERE id = " + deleted));
+    }
+
+    @Test
+    void archiveAll_ItemFollowsOnceNothingReferencesIt() {
+        // Given: checkpointed item with one transaction
+        stockCheckpointJob.rollForwardAll();
+        itemService.deleteItem(itemId);
+
+        // When: the item still has a (live) transaction
+        archiveJob.archiveAll();
+
+        // Then: it stays
+        assertEquals(1, count(jdbcTemplate, "SELECT COUNT(*) FROM item WHERE id = " + itemId));
+
+        // When: the transaction is gone too
+        inventoryService.deleteTransaction(topUpId);
+        archiveJob.archiveAll();
+
+        // Then
+        assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM item WHERE id = " + itemId));
+        assertTrue(stockCheckpointRepository.findById(itemId).isEmpty());
+        assertTrue(archiveService.getArchivedItems(null, 1000).getContent().stream()
+                .anyMatch(item -> item.getId().equals(itemId) && item.getName().equals("Archive Item")));
+    }
+
+    @Test
+    void orderNumbers_NotReusedAfterArchiving() {
+        // Given: the highest order number is archived
+        String orderNo = orderService.createOrder(new OrderRequest(itemId, 1, null)).getOrderNo();
+        orderService.deleteOrder(orderNo);
+        archiveJob.archiveAll();
+
+        // When: the allocator repositions itself (as on restart)
+        orderNumberAllocator.skipUsedNumbers();
+        String next = orderService.createOrder(new OrderRequest(itemId, 1, null)).getOrderNo();
+
+        // Then
+        assertTrue(orderRepository.getMaxOrderSequenceIncludingDeleted() >= Long.parseLong(orderNo.substring(1)));
+        assertTrue(Long.parseLong(next.substring(1)) > Long.parseLong(orderNo.substring(1)));
+    }
+}
@@ -0,0 +1,157 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.BulkDeleteRequest;
+import com.inventory.dto.request.BulkItemDeleteRequest;
+import com.inventory.dto.request.BulkOrderDeleteRequest;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.BulkDeleteResponse;
+import com.inventory.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.inventory.service.TestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk soft delete against the database: counts, batching, filters, and balances and checkpoints
+ * kept equal to the ledger
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:bulk-delete-test",
+                "spring.jpa.show-sql=false",
+                "inventory.checkpoint.enabled=false", // Rolled forward explicitly
+                "inventory.bulk-delete.batch-size=2"
+        })
+class BulkDeleteServiceTest {
+
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private StockRebuildJob stockRebuildJob;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockCheckpointJob stockCheckpointJob;
+
+    private Long itemA;
+    private Long itemB;
+
+    @BeforeEach
+    void setUp() {
+        itemA = itemService.createItem(new ItemRequest("Bulk A", new BigDecimal("1.00"))).getId();
+        itemB = itemService.createItem(new ItemRequest("Bulk B", new BigDecimal("1.00"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemA, 100, "T"));
+        inventoryService.recordTransaction(new InventoryRequest(itemB, 100, "T"));
+    }
+
+    @Test
+    void deleteTransactions_ByIds_ReversesEffectsPerItem() {
+        // Given: rows on two items, some covered by a checkpoint
+        List<Long> ids = new ArrayList<>();
+        ids.add(inventoryService.recordTransaction(new InventoryRequest(itemA, 10, "W")).getId());
+        ids.add(inventoryService.recordTransaction(new InventoryRequest(itemB, 20, "W")).getId());
+        stockCheckpointJob.rollForwardAll();
+        ids.add(inventoryService.recordTransaction(new InventoryRequest(itemA, 5, "T")).getId());
+        ids.add(-1L); // Unknown: skipped
+
+        // When
+        BulkDeleteResponse result = bulkDeleteService.deleteTransactions(new BulkDeleteRequest(ids, null, null));
+
+        // Then
+        assertEquals(4, result.getRequested());
+        assertEquals(3, result.getDeleted());
+        assertEquals(2, result.getBatches());
+        assertEquals(100, itemService.calculateCurrentStock(itemA));
+        assertEquals(100, itemService.calculateCurrentStock(itemB));
+        assertLedgerMatchesBalance(itemService, itemA);
+        assertLedgerMatchesBalance(itemService, itemB);
+        assertEquals(0, stockRebuildJob.rebuildStockBalances().getItemsCorrected());
+    }
+
+    @Test
+    void deleteTransactions_ByFilter_OnlyMatchingRows() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            inventoryService.recordTransaction(new InventoryRequest(itemA, 1, "W"));
+        }
+        inventoryService.recordTransaction(new InventoryRequest(itemB, 1, "W"));
+
+        // When: every withdrawal of item A, in batches of 2
+        BulkDeleteResponse result = bulkDeleteService.deleteTransactions(new BulkDeleteRequest(null, itemA, "W"));
+
+        // Then
+        assertNull(result.getRequested());
+        assertEquals(5, result.getDeleted());
+        assertEquals(3, result.getBatches());
+        assertEquals(100, itemService.calculateCurrentStock(itemA)); // Top-up kept
+        assertEquals(99, itemService.calculateCurrentStock(itemB)); // Other item untouched
+        assertLedgerMatchesBalance(itemService, itemA);
+        assertEquals(0, stockRebuildJob.rebuildStockBalances().getItemsCorrected());
+    }
+
+    @Test
+    void deleteOrders_ByIdsAndFilter_ReturnQuantities() {
+        // Given
+        String first = orderService.createOrder(new OrderRequest(itemA, 3, null)).getOrderNo();
+        String second = orderService.createOrder(new OrderRequest(itemA, 4, null)).getOrderNo();
+        stockCheckpointJob.rollForwardAll();
+        for (int i = 0; i < 3; i++) {
+            orderService.createOrder(new OrderRequest(itemB, 2, null));
+        }
+
+        // When
+        BulkDeleteResponse byIds = bulkDeleteService.deleteOrders(
+                new BulkOrderDeleteRequest(List.of(first, second, first), null));
+        BulkDeleteResponse byFilter = bulkDeleteService.deleteOrders(new BulkOrderDeleteRequest(null, itemB));
+
+        // Then
+        assertEquals(2, byIds.getDeleted());
+        assertEquals(3, byFilter.getDeleted());
+        assertEquals(100, itemService.calculateCurrentStock(itemA));
+        assertEquals(100, itemService.calculateCurrentStock(itemB));
+        assertLedgerMatchesBalance(itemService, itemA);
+        assertLedgerMatchesBalance(itemService, itemB);
+        assertEquals(0, stockRebuildJob.rebuildStockBalances().getItemsCorrected());
+    }
+
+    @Test
+    void deleteItems_SoftDeletesAndEvictsFromCache() {
+        // Given: cached
+        itemService.getItemById(itemA);
+
+        // When
+        BulkDeleteResponse result = bulkDeleteService.deleteItems(new BulkItemDeleteRequest(List.of(itemA, itemB)));
+
+        // Then
+        assertEquals(2, result.getDeleted());
+        assertThrows(ResourceNotFoundException.class, () -> itemService.getItemById(itemA));
+        assertThrows(ResourceNotFoundException.class, () -> itemService.calculateCurrentStock(itemB));
+    }
+
+    @Test
+    void request_IdsOrFilterButNotBoth() {
+        assertFalse(new BulkDeleteRequest(null, null, null).isSelectionValid());
+        assertFalse(new BulkDeleteRequest(List.of(1L), 1L, null).isSelectionValid());
+        assertTrue(new BulkDeleteRequest(List.of(1L), null, null).isSelectionValid());
+        assertTrue(new BulkOrderDeleteRequest(null, 1L).isSelectionValid());
+    }
+}
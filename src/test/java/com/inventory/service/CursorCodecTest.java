@@ -0,0 +1,39 @@
+package com.inventory.service;
+
+import com.inventory.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CursorCodec
+ */
+class CursorCodecTest {
+
+    @Test
+    void encodeDecode_RoundTrips() {
+        String cursor = CursorCodec.encode(1234567890123L);
+
+        assertFalse(cursor.contains("1234567890123")); // Opaque to clients
+        assertEquals(1234567890123L, CursorCodec.decode(cursor));
+    }
+
+    @Test
+    void decode_BlankMeansFirstPage() {
+        assertEquals(0L, CursorCodec.decode(null));
+        assertEquals(0L, CursorCodec.decode(""));
+    }
+
+    @Test
+    void decode_Garbage_ThrowsException() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("not a cursor!"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("MTIz")); // "123" without prefix
+    }
+
+    @Test
+    void pageSize_IsClamped() {
+        assertEquals(1, CursorCodec.pageSize(0));
+        assertEquals(10, CursorCodec.pageSize(10));
+        assertEquals(CursorCodec.MAX_PAGE_SIZE, CursorCodec.pageSize(1_000_000));
+    }
+}
@@ -0,0 +1,149 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.exception.ExportLimitExceededException;
+import com.inventory.exception.InvalidExportFormatException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.inventory.service.TestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming export against the database: joined item names, CSV quoting, NDJSON fields,
+ * and deleted rows left out; format parsing and the concurrent export limit
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:export-test",
+                "spring.jpa.show-sql=false",
+                "inventory.export.fetch-size=2",
+                "inventory.export.max-concurrent=2"
+        })
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportInventories_Csv_AllLiveRowsWithQuotedItemNames() throws Exception {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Ruler, 30cm \"steel\"", new BigDecimal("4.00"))).getId();
+        Long topUp = inventoryService.recordTransaction(new InventoryRequest(itemId, 10, "T")).getId();
+        Long withdrawal = inventoryService.recordTransaction(new InventoryRequest(itemId, 3, "W")).getId();
+        Long deleted = inventoryService.recordTransaction(new InventoryRequest(itemId, 1, "W")).getId();
+        inventoryService.deleteTransaction(deleted);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportInventories(out, ExportService.Format.CSV);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("id,itemId,itemName,qty,type", lines.get(0));
+        assertEquals(rows, lines.size() - 1);
+        assertEquals(count(jdbcTemplate, "SELECT COUNT(*) FROM inventory WHERE is_deleted = FALSE"), rows);
+        assertTrue(lines.contains(topUp + "," + itemId + ",\"Ruler, 30cm \"\"steel\"\"\",10,T"));
+        assertTrue(lines.contains(withdrawal + "," + itemId + ",\"Ruler, 30cm \"\"steel\"\"\",3,W"));
+        assertTrue(lines.stream().noneMatch(line -> line.startsWith(deleted + ",")));
+    }
+
+    @Test
+    void exportOrders_Ndjson_OneObjectPerLineInOrderNumberOrder() throws Exception {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Export Item", new BigDecimal("2.50"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 10, "T"));
+        String first = orderService.createOrder(new OrderRequest(itemId, 2, null)).getOrderNo();
+        String second = orderService.createOrder(new OrderRequest(itemId, 1, null)).getOrderNo();
+        String deleted = orderService.createOrder(new OrderRequest(itemId, 1, null)).getOrderNo();
+        orderService.deleteOrder(deleted);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportOrders(out, ExportService.Format.NDJSON);
+
+        // Then
+        List<JsonNode> orders = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+            assertTrue(line.startsWith("{"), line);
+            orders.add(objectMapper.readTree(line));
+        }
+        assertEquals(rows, orders.size());
+        assertEquals(count(jdbcTemplate, "SELECT COUNT(*) FROM orders WHERE is_deleted = FALSE"), rows);
+        List<String> orderNos = orders.stream().map(order -> order.get("orderNo").asText()).toList();
+        assertTrue(orderNos.indexOf(first) < orderNos.indexOf(second));
+        assertFalse(orderNos.contains(deleted));
+
+        JsonNode order = orders.get(orderNos.indexOf(first));
+        assertEquals(itemId, order.get("itemId").asLong());
+        assertEquals("Export Item", order.get("itemName").asText());
+        assertEquals(2, order.get("qty").asInt());
+        assertEquals(0, new BigDecimal("2.50").compareTo(order.get("price").decimalValue())); // Item price by default
+    }
+
+    @Test
+    void csvValue_QuotesOnlyWhenNeeded() {
+        assertEquals("Pen", ExportService.csvValue("Pen"));
+        assertEquals("\"a,b\"", ExportService.csvValue("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", ExportService.csvValue("say \"hi\""));
+        assertEquals("\"two\nlines\"", ExportService.csvValue("two\nlines"));
+    }
+
+    @Test
+    void formatParse_IgnoresCaseAndRejectsUnknownFormats() {
+        assertEquals(ExportService.Format.CSV, ExportService.Format.parse("csv"));
+        assertEquals(ExportService.Format.NDJSON, ExportService.Format.parse("NDJSON"));
+        assertThrows(InvalidExportFormatException.class, () -> ExportService.Format.parse("xml"));
+    }
+
+    @Test
+    void reserveSlot_BeyondMaxConcurrent_ThrowsUntilASlotIsClosed() {
+        // Given: both slots taken
+        ExportService.Slot first = exportService.reserveSlot();
+        ExportService.Slot second = exportService.reserveSlot();
+        ExportService.Slot third = null;
+        try {
+            // When & Then
+            assertThrows(ExportLimitExceededException.class, exportService::reserveSlot);
+
+            // A slot closed twice frees exactly one
+            first.close();
+            first.close();
+            third = exportService.reserveSlot();
+            assertThrows(ExportLimitExceededException.class, exportService::reserveSlot);
+        } finally {
+            second.close();
+            if (third != null) {
+                third.close();
+            }
+        }
+    }
+}
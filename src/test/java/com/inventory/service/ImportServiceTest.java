@@ -0,0 +1,148 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.response.BatchInventoryLineResult;
+import com.inventory.dto.response.ImportResponse;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ImportService
+ * Tests CSV/NDJSON parsing, per-row errors and chunked writes
+ */
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private InventoryProperties properties;
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InventoryProperties();
+        properties.getBulkImport().setChunkSize(2);
+        importService = new ImportService(itemService, inventoryService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), properties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importItems_Csv_WritesInChunksAndReportsInvalidRows() throws Exception {
+        // Given
+        String csv = "price,name\n" +
+                "5.00,Pen\n" +
+                "1.50,\"Ruler, 30cm\"\n" +
+                "abc,Broken\n" +
+                "0,Free\n" +
+                "2.00,Eraser\n";
+
+        // When
+        ImportResponse response = importService.importItems(stream(csv), ImportService.Format.CSV);
+
+        // Then
+        assertEquals(5, response.getRowsRead());
+        assertEquals(3, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(4L, response.getErrors().get(0).getLine());
+        assertTrue(response.getErrors().get(0).getMessage().contains("invalid price"));
+        assertEquals(5L, response.getErrors().get(1).getLine());
+        assertTrue(response.getErrors().get(1).getMessage().contains("Price must be greater than 0"));
+
+        ArgumentCaptor<List<ItemRequest>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(itemService, times(2)).createItemBatch(chunks.capture());
+        assertEquals("Ruler, 30cm", chunks.getAllValues().get(0).get(1).getName());
+        assertEquals(new BigDecimal("2.00"), chunks.getAllValues().get(1).get(0).getPrice());
+    }
+
+    @Test
+    void importInventories_Ndjson_ReportsRowsRejectedByService() throws Exception {
+        // Given
+        String ndjson = "{\"itemId\":1,\"qty\":10,\"type\":\"T\"}\n" +
+                "{\"itemId\":1,\"qty\":50,\"type\":\"W\"}\n" +
+                "not json\n" +
+                "{\"itemId\":1,\"qty\":3,\"type\":\"X\"}\n";
+
+        when(inventoryService.recordTransactionBatch(anyList())).thenReturn(Arrays.asList(
+                new BatchInventoryLineResult(0, true, "ok", null),
+                new BatchInventoryLineResult(1, false, "Insufficient stock for item: Pen", null)));
+
+        // When
+        ImportResponse response = importService.importInventories(stream(ndjson), ImportService.Format.NDJSON);
+
+        // Then
+        assertEquals(4, response.getRowsRead());
+        assertEquals(1, response.getImported());
+        assertEquals(3, response.getFailed());
+        assertEquals(2L, response.getErrors().get(0).getLine());
+        assertEquals(3L, response.getErrors().get(1).getLine());
+        assertTrue(response.getErrors().get(2).getMessage().contains("Type must be T or W"));
+        verify(inventoryService, times(1)).recordTransactionBatch(anyList());
+    }
+
+    @Test
+    void importInventories_FailingChunk_MarksOnlyItsRowsFailed() throws Exception {
+        // Given
+        String csv = "itemId,qty,type\n1,1,T\n1,1,T\n2,1,T\n";
+        when(inventoryService.recordTransactionBatch(anyList()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(List.of(new BatchInventoryLineResult(0, true, "ok", null)));
+
+        // When
+        ImportResponse response = importService.importInventories(stream(csv), ImportService.Format.CSV);
+
+        // Then
+        assertEquals(1, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertTrue(response.getErrors().get(0).getMessage().startsWith("Chunk failed"));
+    }
+
+    @Test
+    void importItems_ErrorListIsCapped() throws Exception {
+        // Given
+        properties.getBulkImport().setMaxReportedErrors(2);
+        String csv = "name,price\n,1\n,1\n,1\n";
+
+        // When
+        ImportResponse response = importService.importItems(stream(csv), ImportService.Format.CSV);
+
+        // Then
+        assertEquals(3, response.getFailed());
+        assertEquals(2, response.getErrors().size());
+        assertTrue(response.isErrorsTruncated());
+        verify(itemService, never()).createItemBatch(anyList());
+    }
+
+    @Test
+    void parseCsvLine_HandlesQuotesAndEscapes() {
+        assertEquals(Arrays.asList("a", "b, c", "say \"hi\"", ""),
+                ImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.inventory.service.TestSupport.*;
+
+/**
+ * Statement budgets for InventoryService writes (listing and lookups are in LedgerListingQueryCountTest)
+ * Inserts are JDBC-batched, so only id sequence round trips and insert batches grow, one each per 50 rows
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.show-sql=false",
+                "inventory.checkpoint.enabled=false" // No background roll-forward between counted statements
+        })
+@Transactional
+class InventoryServiceQueryCountTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter counter;
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> transactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 40 items, each topped up once
+        for (int i = 0; i < 40; i++) {
+            Long itemId = itemService.createItem(new ItemRequest("Ledger Item " + i, new BigDecimal("1.00"))).getId();
+            itemIds.add(itemId);
+            transactionIds.add(inventoryService.recordTransaction(new InventoryRequest(itemId, 100, "T")).getId());
+        }
+        counter = new StatementCounter(entityManager, entityManagerFactory);
+    }
+
+    @Test
+    void recordTransaction_LockInsertAndBalanceUpdate() {
+        counter.assertAtMost(3, "recordTransaction",
+                () -> inventoryService.recordTransaction(new InventoryRequest(itemIds.get(0), 5, "W")));
+    }
+
+    @Test
+    void recordTransactionsForItem_OneLockAndOneBalanceUpdatePerGroup() {
+        // Lock and balance update, plus the batched inserts
+        List<InventoryRequest> small = withdrawals(List.of(itemIds.get(0)), 1);
+        List<InventoryRequest> large = withdrawals(List.of(itemIds.get(1)), 60);
+
+        counter.assertAtMost(2 + 2 * batches(small.size()), "recordTransactionsForItem (1)",
+                () -> inventoryService.recordTransactionsForItem(itemIds.get(0), small));
+        counter.assertAtMost(2 + 2 * batches(large.size()), "recordTransactionsForItem (60)",
+                () -> inventoryService.recordTransactionsForItem(itemIds.get(1), large));
+    }
+
+    @Test
+    void recordTransactionBatch_OneLockAndOneBatchedUpdateForAllItems() {
+        // The item locks and balance updates do not grow with item count
+        List<InventoryRequest> small = withdrawals(itemIds.subList(0, 2), 1);
+        List<InventoryRequest> large = withdrawals(itemIds.subList(2, 40), 2);
+
+        counter.assertAtMost(2 + 2 * batches(small.size()), "recordTransactionBatch (2 items)",
+                () -> inventoryService.recordTransactionBatch(small));
+        counter.assertAtMost(2 + 2 * batches(large.size()), "recordTransactionBatch (38 items)",
+                () -> inventoryService.recordTransactionBatch(large));
+    }
+
+    @Test
+    void updateTransaction_SameItemAndOtherItem() {
+        // Lock the ledger row, lock the item(s), update the row, the balance(s) and the checkpoint(s)
+        counter.assertAtMost(5, "updateTransaction (same item)", () -> inventoryService.updateTransaction(
+                transactionIds.get(0), new InventoryRequest(itemIds.get(0), 50, "T")));
+        counter.assertAtMost(6, "updateTransaction (other item)", () -> inventoryService.updateTransaction(
+                transactionIds.get(1), new InventoryRequest(itemIds.get(2), 50, "T")));
+    }
+
+    @Test
+    void deleteTransactionBatch_SameStatementsForAnyRowCount() {
+        // Lock rows, lock items, load checkpoints, one soft-delete UPDATE, one batched balance update
+        counter.assertConstant(5, "deleteTransactionBatch",
+                () -> inventoryService.deleteTransactionBatch(transactionIds.subList(0, 2)),
+                () -> inventoryService.deleteTransactionBatch(transactionIds.subList(2, 40)));
+    }
+
+    @Test
+    void deleteTransaction_LockSoftDeleteAndBalanceUpdate() {
+        counter.assertAtMost(5, "deleteTransaction", () -> inventoryService.deleteTransaction(transactionIds.get(0)));
+    }
+
+    private List<InventoryRequest> withdrawals(List<Long> items, int perItem) {
+        List<InventoryRequest> requests = new ArrayList<>();
+        for (Long itemId : items) {
+            IntStream.range(0, perItem).forEach(i -> requests.add(new InventoryRequest(itemId, 1, "W")));
+        }
+        return requests;
+    }
+}
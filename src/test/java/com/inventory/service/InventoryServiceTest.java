@@ -1,6 +1,7 @@
 package com.inventory.service;
 
 import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.response.BatchInventoryLineResult;
 import com.inventory.dto.response.InventoryResponse;
 import com.inventory.entity.Inventory;
 import com.inventory.entity.Item;
@@ -21,10 +22,12 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -42,7 +45,19 @@ class InventoryServiceTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private ItemService itemService;
+    private OptimisticStockUpdater optimisticStockUpdater;
+
+    @Mock
+    private StockCheckpointService stockCheckpointService;
+
+    @Mock
+    private StockAdmission stockAdmission;
+
+    @Mock
+    private StockBucketService stockBucketService;
+
+    @Mock
+    private ItemCatalogCache itemCatalogCache;
 
     @InjectMocks
     private InventoryService inventoryService;
@@ -57,6 +72,7 @@ class InventoryServiceTest {
         testItem.setId(1L);
         testItem.setName("Test Item");
         testItem.setPrice(new BigDecimal("10.00"));
+        testItem.setCurrentStock(10);
 
         testInventory = new Inventory();
         testInventory.setId(1L);
@@ -85,6 +101,7 @@ class InventoryServiceTest {
         assertEquals(1L, response.getItemId());
         assertEquals(10, response.getQty());
         assertEquals("T", response.getType());
+        assertEquals(20, testItem.getCurrentStock());
         verify(inventoryRepository, times(1)).save(any(Inventory.class));
     }
 
@@ -97,7 +114,6 @@ class InventoryServiceTest {
         withdrawalRequest.setType("W");
 
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
-        when(itemService.calculateCurrentStock(1L)).thenReturn(10);
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(testInventory);
 
         // When
@@ -105,7 +121,7 @@ class InventoryServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(itemService, times(1)).calculateCurrentStock(1L);
+        assertEquals(5, testItem.getCurrentStock());
         verify(inventoryRepository, times(1)).save(any(Inventory.class));
     }
 
@@ -118,7 +134,6 @@ class InventoryServiceTest {
         withdrawalRequest.setType("W");
 
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
-        when(itemService.calculateCurrentStock(1L)).thenReturn(10);
 
         // When & Then
         InsufficientStockException exception = assertThrows(
@@ -126,9 +141,30 @@ class InventoryServiceTest {
                 () -> inventoryService.recordTransaction(withdrawalRequest));
 
         assertTrue(exception.getMessage().contains("Insufficient stock"));
+        assertEquals(10, testItem.getCurrentStock());
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
+    @Test
+    void recordTransactionsForItem_TopUpFundsLaterWithdrawal() {
+        // Given: 10 in stock; withdraw 15, top up 10, withdraw 15
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
+        List<InventoryRequest> requests = List.of(
+                new InventoryRequest(1L, 15, "W"), new InventoryRequest(1L, 10, "T"), new InventoryRequest(1L, 15, "W"));
+
+        // When
+        List<StockWriteOutcome<InventoryResponse>> outcomes =
+                inventoryService.recordTransactionsForItem(1L, requests);
+
+        // Then: the first withdrawal is rejected, the second is funded by the top up
+        assertInstanceOf(InsufficientStockException.class, outcomes.get(0).getFailure());
+        assertEquals("T", outcomes.get(1).getResponse().getType());
+        assertEquals("W", outcomes.get(2).getResponse().getType());
+        assertEquals(5, testItem.getCurrentStock());
+        verify(itemRepository, times(1)).findByIdWithLock(1L);
+        verify(inventoryRepository, times(1)).saveAll(anyList());
+    }
+
     @Test
     void recordTransaction_ItemNotFound_ThrowsException() {
         // Given
@@ -143,10 +179,11 @@ class InventoryServiceTest {
     @Test
     void getAllTransactions_Success() {
         // Given
-        Page<Inventory> inventoryPage = new PageImpl<>(Arrays.asList(testInventory));
+        Page<InventoryResponse> inventoryPage = new PageImpl<>(Arrays.asList(
+                new InventoryResponse(1L, 1L, "Test Item", 10, "T")));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(inventoryRepository.findAll(pageable)).thenReturn(inventoryPage);
+        when(inventoryRepository.findAllResponses(pageable)).thenReturn(inventoryPage);
 
         // When
         Page<InventoryResponse> result = inventoryService.getAllTransactions(pageable);
@@ -154,13 +191,15 @@ class InventoryServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(inventoryRepository, times(1)).findAll(pageable);
+        verify(inventoryRepository, times(1)).findAllResponses(pageable);
+        verify(inventoryRepository, never()).findAll(any(Pageable.class));
     }
 
     @Test
     void getTransactionById_Success() {
         // Given
-        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
+        when(inventoryRepository.findResponseById(1L)).thenReturn(
+                Optional.of(new InventoryResponse(1L, 1L, "Test Item", 10, "T")));
 
         // When
         InventoryResponse response = inventoryService.getTransactionById(1L);
@@ -174,7 +213,7 @@ class InventoryServiceTest {
     @Test
     void getTransactionById_NotFound_ThrowsException() {
         // Given
-        when(inventoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(inventoryRepository.findResponseById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class,
@@ -189,7 +228,7 @@ class InventoryServiceTest {
         updateRequest.setQty(15);
         updateRequest.setType("T");
 
-        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
+        when(inventoryRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testInventory));
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(testInventory);
 
@@ -198,18 +237,71 @@ class InventoryServiceTest {
 
         // Then
         assertNotNull(response);
+        assertEquals(15, testItem.getCurrentStock()); // 10 - T10 + T15
         verify(inventoryRepository, times(1)).save(any(Inventory.class));
     }
 
+    @Test
+    void updateTransaction_CrossItem_MovesBalance() {
+        // Given
+        Item otherItem = new Item();
+        otherItem.setId(2L);
+        otherItem.setName("Other Item");
+        otherItem.setPrice(new BigDecimal("5.00"));
+        otherItem.setCurrentStock(0);
+
+        InventoryRequest updateRequest = new InventoryRequest();
+        updateRequest.setItemId(2L);
+        updateRequest.setQty(4);
+        updateRequest.setType("T");
+
+        when(inventoryRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testInventory));
+        when(itemRepository.findAllByIdWithLock(anyList())).thenReturn(Arrays.asList(testItem, otherItem));
+        when(inventoryRepository.save(any(Inventory.class))).thenReturn(testInventory);
+
+        // When
+        inventoryService.updateTransaction(1L, updateRequest);
+
+        // Then
+        assertEquals(0, testItem.getCurrentStock()); // Old T10 removed
+        assertEquals(4, otherItem.getCurrentStock()); // New T4 applied
+        verify(itemRepository, never()).findByIdWithLock(anyLong());
+    }
+
     @Test
     void deleteTransaction_Success() {
         // Given
-        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(testInventory));
+        when(inventoryRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testInventory));
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
 
         // When
         inventoryService.deleteTransaction(1L);
 
         // Then
+        assertEquals(0, testItem.getCurrentStock()); // T10 reversed
         verify(inventoryRepository, times(1)).delete(testInventory);
     }
+
+    @Test
+    void recordTransactionBatch_AppliesRowsInArrivalOrder() {
+        // Given
+        List<InventoryRequest> rows = Arrays.asList(
+                new InventoryRequest(1L, 5, "W"),
+                new InventoryRequest(1L, 8, "W"), // Only 5 left
+                new InventoryRequest(1L, 3, "T"),
+                new InventoryRequest(999L, 1, "T"));
+        when(itemRepository.findAllByIdWithLock(any())).thenReturn(List.of(testItem));
+
+        // When
+        List<BatchInventoryLineResult> results = inventoryService.recordTransactionBatch(rows);
+
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).getMessage().contains("Insufficient stock"));
+        assertTrue(results.get(2).isSuccess());
+        assertEquals("Item not found with id: 999", results.get(3).getMessage());
+        assertEquals(8, testItem.getCurrentStock()); // 10 - 5 + 3
+        verify(itemRepository, times(1)).findAllByIdWithLock(any());
+        verify(inventoryRepository, times(1)).saveAll(anyList());
+    }
 }
@@ -0,0 +1,89 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.response.ItemCacheStatsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItemCatalogCache
+ */
+class ItemCatalogCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<Long, ItemCatalogCache.Entry> loader = id -> {
+        loads.incrementAndGet();
+        return id > 0 ? new ItemCatalogCache.Entry(id, "Item " + id, new BigDecimal("1.00")) : null;
+    };
+
+    @Test
+    void get_LoadsOnceThenHits() {
+        ItemCatalogCache cache = new ItemCatalogCache(new InventoryProperties());
+
+        cache.get(1L, loader);
+        ItemCatalogCache.Entry entry = cache.get(1L, loader);
+
+        assertEquals("Item 1", entry.getName());
+        assertEquals(1, loads.get());
+        ItemCacheStatsResponse stats = cache.stats();
+        assertEquals(1L, stats.getHits());
+        assertEquals(1L, stats.getMisses());
+    }
+
+    @Test
+    void get_MissingItemIsNotCached() {
+        ItemCatalogCache cache = new ItemCatalogCache(new InventoryProperties());
+
+        assertNull(cache.get(-1L, loader));
+        assertNull(cache.get(-1L, loader));
+
+        assertEquals(2, loads.get());
+        assertEquals(0L, cache.stats().getSize());
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        ItemCatalogCache cache = new ItemCatalogCache(new InventoryProperties());
+        cache.get(1L, loader);
+
+        cache.invalidate(1L);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void maxSize_EvictsAndCountsEvictions() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getItemCache().setMaxSize(10);
+        ItemCatalogCache cache = new ItemCatalogCache(properties);
+
+        for (long id = 1; id <= 100; id++) {
+            cache.get(id, loader);
+        }
+        cache.cleanUp();
+
+        ItemCacheStatsResponse stats = cache.stats();
+        assertTrue(stats.getSize() <= 10, "Cache holds " + stats.getSize() + " entries");
+        assertTrue(stats.getEvictions() >= 90, "Only " + stats.getEvictions() + " evictions");
+    }
+
+    @Test
+    void disabled_AlwaysLoads() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getItemCache().setEnabled(false);
+        ItemCatalogCache cache = new ItemCatalogCache(properties);
+
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+        assertFalse(cache.stats().isEnabled());
+    }
+}
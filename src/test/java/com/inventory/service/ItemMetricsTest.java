@@ -0,0 +1,84 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItemMetrics
+ */
+class ItemMetricsTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofMillis(50).toNanos();
+
+    private SimpleMeterRegistry registry;
+    private ItemMetrics itemMetrics;
+
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getMetrics().setMaxItemTags(2);
+        properties.getMetrics().setHotItemLockWait(Duration.ofMillis(10));
+        registry = new SimpleMeterRegistry();
+        itemMetrics = new ItemMetrics(registry, properties);
+    }
+
+    @Test
+    void recordLockWait_FastWaits_SharedOtherTag() {
+        // When
+        itemMetrics.recordLockWait(1L, FAST);
+        itemMetrics.recordLockWait(2L, FAST);
+
+        // Then
+        assertEquals(2, lockTimer(ItemMetrics.OTHER_ITEMS).count());
+        assertNull(registry.find(ItemMetrics.LOCK_WAIT).tag("item", "1").timer());
+    }
+
+    @Test
+    void recordLockWait_SlowWait_ItemGetsItsOwnTag() {
+        // When
+        itemMetrics.recordLockWait(1L, SLOW);
+        itemMetrics.recordLockWait(1L, FAST);
+        itemMetrics.recordStockQuery("currentStock", 1L, FAST);
+
+        // Then: admitted items stay tagged, including on stock queries
+        assertEquals(2, lockTimer("1").count());
+        assertNotNull(registry.find(ItemMetrics.STOCK_QUERY).tags("operation", "currentStock", "item", "1").timer());
+    }
+
+    @Test
+    void recordLockWait_TagCountIsBounded() {
+        // When: three hot items, room for two
+        for (long itemId = 1; itemId <= 3; itemId++) {
+            itemMetrics.recordLockWait(itemId, SLOW);
+        }
+
+        // Then
+        assertEquals(1, lockTimer("1").count());
+        assertEquals(1, lockTimer("2").count());
+        assertEquals(1, lockTimer(ItemMetrics.OTHER_ITEMS).count());
+        assertEquals(3, registry.find(ItemMetrics.LOCK_WAIT).timers().size());
+    }
+
+    @Test
+    void recordLockWait_SeveralItems_MultipleTag() {
+        // When
+        itemMetrics.recordLockWait(null, SLOW);
+
+        // Then
+        assertEquals(1, lockTimer(ItemMetrics.MULTIPLE_ITEMS).count());
+    }
+
+    private Timer lockTimer(String item) {
+        Timer timer = registry.find(ItemMetrics.LOCK_WAIT).tag("item", item).timer();
+        assertNotNull(timer, "No lock timer for item tag " + item);
+        return timer;
+    }
+}
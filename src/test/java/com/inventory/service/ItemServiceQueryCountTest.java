@@ -0,0 +1,197 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.response.ItemResponse;
+import com.inventory.entity.Inventory;
+import com.inventory.entity.Item;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.inventory.service.TestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement budgets for every public ItemService method
+ * Proves listing, lookups and ledger aggregates cost a constant number of SQL statements,
+ * independent of page size and data size
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.show-sql=false",
+                "inventory.checkpoint.enabled=false" // No background roll-forward between counted statements
+        })
+@Transactional
+class ItemServiceQueryCountTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private StockRebuildJob stockRebuildJob;
+
+    @Autowired
+    private StockCheckpointJob stockCheckpointJob;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter counter;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 600 items, each with a few ledger rows
+        for (int i = 0; i < 600; i++) {
+            Item item = new Item();
+            item.setName("Bulk Item " + i);
+            item.setPrice(new BigDecimal("1.00"));
+            item.setCurrentStock(0);
+            item.setIsDeleted(false);
+            itemRepository.save(item);
+            itemIds.add(item.getId());
+
+            for (int j = 0; j < 3; j++) {
+                Inventory inventory = new Inventory();
+                inventory.setItem(item);
+                inventory.setQty(5);
+                inventory.setType("T");
+                inventory.setIsDeleted(false);
+                inventoryRepository.save(inventory);
+                item.setCurrentStock(item.getCurrentStock() + 5);
+            }
+        }
+        counter = new StatementCounter(entityManager, entityManagerFactory);
+    }
+
+    @Test
+    void getAllItems_StatementCountIndependentOfPageSize() {
+        // One select for the page, one count
+        counter.assertConstant(2, "getAllItems",
+                () -> itemService.getAllItems(PageRequest.of(0, 10)),
+                () -> itemService.getAllItems(PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void getAllItems_ReturnsStockForEveryItemOnPage() {
+        Page<ItemResponse> page = itemService.getAllItems(PageRequest.of(0, 500));
+
+        assertEquals(500, page.getContent().size());
+        page.getContent().stream()
+                .filter(item -> item.getName().startsWith("Bulk Item"))
+                .forEach(item -> assertEquals(15, item.getCurrentStock()));
+    }
+
+    @Test
+    void getItemsAfter_OneSelectPerPage() {
+        counter.assertConstant(1, "getItemsAfter",
+                () -> itemService.getItemsAfter("", 10),
+                () -> itemService.getItemsAfter("", 500));
+    }
+
+    @Test
+    void getItemById_OneSelectOnCacheMissNoneOnHit() {
+        Long itemId = itemIds.get(0);
+
+        counter.assertAtMost(1, "getItemById (cache miss)", () -> itemService.getItemById(itemId));
+        // A hit reads the balance through JdbcTemplate only
+        assertEquals(0, counter.count(() -> itemService.getItemById(itemId)));
+    }
+
+    @Test
+    void createItem_OneInsert() {
+        counter.assertAtMost(1, "createItem",
+                () -> itemService.createItem(new ItemRequest("New Item", new BigDecimal("1.00"))));
+    }
+
+    @Test
+    void createItemBatch_StatementsPerBatchNotPerItem() {
+        // At most one id sequence round trip and one JDBC insert batch per 50 items
+        List<ItemRequest> small = requests(2);
+        List<ItemRequest> large = requests(120);
+
+        counter.assertAtMost(2 * batches(small.size()), "createItemBatch (2)", () -> itemService.createItemBatch(small));
+        counter.assertAtMost(2 * batches(large.size()), "createItemBatch (120)", () -> itemService.createItemBatch(large));
+    }
+
+    @Test
+    void updateItem_SelectAndUpdate() {
+        counter.assertAtMost(2, "updateItem",
+                () -> itemService.updateItem(itemIds.get(0), new ItemRequest("Renamed", new BigDecimal("2.00"))));
+    }
+
+    @Test
+    void deleteItem_SelectAndSoftDelete() {
+        counter.assertAtMost(2, "deleteItem", () -> itemService.deleteItem(itemIds.get(0)));
+    }
+
+    @Test
+    void deleteItemBatch_OneUpdateForAnyItemCount() {
+        counter.assertConstant(1, "deleteItemBatch",
+                () -> itemService.deleteItemBatch(itemIds.subList(0, 2)),
+                () -> itemService.deleteItemBatch(itemIds.subList(2, 300)));
+    }
+
+    @Test
+    void calculateCurrentStock_NoHibernateStatement() {
+        // One JdbcTemplate select on the materialized column, invisible to Hibernate statistics
+        assertEquals(0, counter.count(() -> itemService.calculateCurrentStock(itemIds.get(0))));
+    }
+
+    @Test
+    void calculateStockFromLedger_CheckpointAndTwoAggregatesRegardlessOfItemCount() {
+        counter.assertAtMost(3, "calculateStockFromLedger(id)",
+                () -> itemService.calculateStockFromLedger(itemIds.get(0)));
+        counter.assertConstant(3, "calculateStockFromLedger(ids)",
+                () -> itemService.calculateStockFromLedger(itemIds.subList(0, 5)),
+                () -> itemService.calculateStockFromLedger(itemIds));
+    }
+
+    @Test
+    void rebuildStockBalances_StatementCountPerChunkNotPerItem() {
+        // Lock + checkpoint load + 2 grouped aggregates, whatever the chunk size
+        counter.assertConstant(4, "rebuildStockBalances(ids)",
+                () -> itemService.rebuildStockBalances(itemIds.subList(0, 5), false),
+                () -> itemService.rebuildStockBalances(itemIds, false));
+
+        // Full: one more to reset the checkpoints
+        counter.assertConstant(5, "rebuildStockBalances(ids, full)",
+                () -> itemService.rebuildStockBalances(itemIds.subList(0, 5), true),
+                () -> itemService.rebuildStockBalances(itemIds, true));
+
+        // 600+ items = 2 chunks: one scan for checkpoints to roll forward (none left), one id scan,
+        // then one chunk rebuild each
+        stockCheckpointJob.rollForwardAll();
+        counter.assertAtMost(10, "StockRebuildJob.rebuildStockBalances", stockRebuildJob::rebuildStockBalances);
+    }
+
+    private List<ItemRequest> requests(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ItemRequest("Batch Item " + i, new BigDecimal("1.00")))
+                .toList();
+    }
+}
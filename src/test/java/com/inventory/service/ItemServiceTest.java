@@ -1,29 +1,42 @@
 package com.inventory.service;
 
+import com.inventory.config.InventoryProperties;
 import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.response.CursorPage;
 import com.inventory.dto.response.ItemResponse;
+import com.inventory.dto.response.StockRebuildResponse;
 import com.inventory.entity.Item;
+import com.inventory.entity.StockCheckpoint;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.repository.ItemRepository;
 import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ItemQuantity;
 import com.inventory.repository.OrderRepository;
+import com.inventory.repository.StockCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -42,6 +55,24 @@ class ItemServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private StockCheckpointRepository stockCheckpointRepository;
+
+    @Mock
+    private StockAdmission stockAdmission;
+
+    @Mock
+    private StockBucketService stockBucketService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ItemCatalogCache itemCatalogCache = new ItemCatalogCache(new InventoryProperties());
+
+    @Spy
+    private ItemMetrics itemMetrics = new ItemMetrics(new SimpleMeterRegistry(), new InventoryProperties());
+
     @InjectMocks
     private ItemService itemService;
 
@@ -55,6 +86,7 @@ class ItemServiceTest {
         testItem.setId(1L);
         testItem.setName("Test Item");
         testItem.setPrice(new BigDecimal("10.00"));
+        testItem.setCurrentStock(0);
         testItem.setIsDeleted(false);
 
         testRequest = new ItemRequest();
@@ -66,8 +98,6 @@ class ItemServiceTest {
     void createItem_Success() {
         // Given
         when(itemRepository.save(any(Item.class))).thenReturn(testItem);
-        when(inventoryRepository.calculateStockFromInventory(1L)).thenReturn(0);
-        when(orderRepository.getTotalOrderedQty(1L)).thenReturn(0);
 
         // When
         ItemResponse response = itemService.createItem(testRequest);
@@ -76,6 +106,7 @@ class ItemServiceTest {
         assertNotNull(response);
         assertEquals("Test Item", response.getName());
         assertEquals(new BigDecimal("10.00"), response.getPrice());
+        assertEquals(0, response.getCurrentStock());
         verify(itemRepository, times(1)).save(any(Item.class));
     }
 
@@ -94,6 +125,42 @@ class ItemServiceTest {
         verify(itemRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void getItemById_SecondReadServesMetadataFromCache() {
+        // Given
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(1L))).thenReturn(List.of(4));
+        itemService.getItemById(1L);
+
+        // When
+        ItemResponse response = itemService.getItemById(1L);
+
+        // Then: row loaded once, stock still read fresh
+        assertEquals("Test Item", response.getName());
+        assertEquals(4, response.getCurrentStock());
+        verify(itemRepository, times(1)).findById(1L);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Integer.class), eq(1L));
+        assertEquals(1L, itemCatalogCache.stats().getHits());
+        assertEquals(1L, itemCatalogCache.stats().getMisses());
+    }
+
+    @Test
+    void updateItem_InvalidatesCachedMetadata() {
+        // Given
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+        itemService.getItemById(1L);
+
+        // When
+        itemService.updateItem(1L, new ItemRequest("Renamed Item", new BigDecimal("12.00")));
+        ItemResponse response = itemService.getItemById(1L);
+
+        // Then
+        assertEquals("Renamed Item", response.getName());
+        verify(itemCatalogCache).invalidate(1L);
+        assertEquals(0L, itemCatalogCache.stats().getHits());
+    }
+
     @Test
     void getItemById_NotFound_ThrowsException() {
         // Given
@@ -157,6 +224,7 @@ class ItemServiceTest {
         // Then
         verify(itemRepository, times(1)).findById(1L);
         verify(itemRepository, times(1)).delete(testItem);
+        verify(itemCatalogCache).invalidate(1L);
     }
 
     @Test
@@ -174,15 +242,12 @@ class ItemServiceTest {
     @Test
     void getAllItems_Success() {
         // Given
-        Item item2 = new Item();
-        item2.setId(2L);
-        item2.setName("Item 2");
-        item2.setPrice(new BigDecimal("20.00"));
-
-        Page<Item> itemPage = new PageImpl<>(Arrays.asList(testItem, item2));
+        Page<ItemResponse> itemPage = new PageImpl<>(Arrays.asList(
+                new ItemResponse(1L, "Test Item", new BigDecimal("10.00"), 0),
+                new ItemResponse(2L, "Item 2", new BigDecimal("20.00"), 0)));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(itemRepository.findAll(pageable)).thenReturn(itemPage);
+        when(itemRepository.findAllResponses(pageable)).thenReturn(itemPage);
 
         // When
         Page<ItemResponse> result = itemService.getAllItems(pageable);
@@ -192,6 +257,90 @@ class ItemServiceTest {
         assertEquals(2, result.getContent().size());
         assertEquals("Test Item", result.getContent().get(0).getName());
         assertEquals("Item 2", result.getContent().get(1).getName());
-        verify(itemRepository, times(1)).findAll(pageable);
+        verify(itemRepository, times(1)).findAllResponses(pageable);
+        verify(itemRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getItemsAfter_SeeksOnIdWithoutCounting() {
+        // Given
+        when(itemRepository.findResponsesAfter(0L, Limit.of(2))).thenReturn(Arrays.asList(
+                new ItemResponse(1L, "Test Item", new BigDecimal("10.00"), 0),
+                new ItemResponse(2L, "Item 2", new BigDecimal("20.00"), 0)));
+
+        // When
+        CursorPage<ItemResponse> result = itemService.getItemsAfter("", 1);
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        assertEquals("Test Item", result.getContent().get(0).getName());
+        assertTrue(result.isHasNext());
+        assertEquals(1L, CursorCodec.decode(result.getNextCursor()));
+        verify(itemRepository, never()).findAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    void calculateCurrentStock_ReadsMaterializedBalance() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(1L))).thenReturn(List.of(7));
+
+        // When
+        Integer stock = itemService.calculateCurrentStock(1L);
+
+        // Then
+        assertEquals(7, stock);
+        verifyNoInteractions(inventoryRepository, orderRepository);
+    }
+
+    @Test
+    void calculateStockFromLedger_StartsFromCheckpoint() {
+        // Given
+        StockCheckpoint checkpoint = new StockCheckpoint(1L);
+        checkpoint.setBalance(40);
+        checkpoint.setInventoryWatermark(900L);
+        checkpoint.setOrderWatermark(300L);
+        when(stockCheckpointRepository.findById(1L)).thenReturn(Optional.of(checkpoint));
+        when(inventoryRepository.calculateStockFromInventory(1L, 900L)).thenReturn(5);
+        when(orderRepository.getTotalOrderedQty(1L, 300L)).thenReturn(2);
+
+        // When
+        Integer stock = itemService.calculateStockFromLedger(1L);
+
+        // Then
+        assertEquals(43, stock);
+    }
+
+    @Test
+    void rebuildStockBalances_CorrectsDriftedBalance() {
+        // Given
+        testItem.setCurrentStock(3);
+        List<Long> itemIds = Arrays.asList(1L);
+        when(itemRepository.findAllByIdWithLock(itemIds)).thenReturn(Arrays.asList(testItem));
+        when(inventoryRepository.calculateStockFromInventoryByItemIds(itemIds))
+                .thenReturn(Arrays.asList(itemQuantity(1L, 12L)));
+        when(orderRepository.getTotalOrderedQtyByItemIds(itemIds))
+                .thenReturn(Arrays.asList(itemQuantity(1L, 4L)));
+
+        // When
+        StockRebuildResponse result = itemService.rebuildStockBalances(itemIds, false);
+
+        // Then
+        assertEquals(1, result.getItemsScanned());
+        assertEquals(1, result.getItemsCorrected());
+        assertEquals(8, testItem.getCurrentStock());
+    }
+
+    private ItemQuantity itemQuantity(Long itemId, Long qty) {
+        return new ItemQuantity() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getQty() {
+                return qty;
+            }
+        };
     }
 }
@@ -0,0 +1,126 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.CursorPage;
+import com.inventory.dto.response.InventoryResponse;
+import com.inventory.dto.response.OrderResponse;
+import com.inventory.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for inventory and order listing
+ * Proves the item name comes from a join, not one lazy item select per row
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.show-sql=false",
+                "inventory.checkpoint.enabled=false" // No background roll-forward between counted statements
+        })
+@Transactional
+class LedgerListingQueryCountTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        // 100 distinct items, each topped up and ordered once
+        List<InventoryRequest> topUps = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Long itemId = itemService.createItem(new ItemRequest("Listing Item " + i, new BigDecimal("2.00"))).getId();
+            topUps.add(new InventoryRequest(itemId, 10, "T"));
+        }
+        inventoryService.recordTransactionBatch(topUps);
+        for (InventoryRequest topUp : topUps) {
+            orderService.createOrder(new OrderRequest(topUp.getItemId(), 1, null));
+        }
+        counter = new StatementCounter(entityManager, entityManagerFactory);
+    }
+
+    @Test
+    void getAllTransactions_OneSelectPlusCountPerPage() {
+        long statements = counter.count(() -> inventoryService.getAllTransactions(PageRequest.of(0, 100)));
+
+        assertEquals(2, statements);
+        assertEquals(0, counter.entitiesLoaded());
+    }
+
+    @Test
+    void getAllOrders_OneSelectPlusCountPerPage() {
+        Page<OrderResponse> page = orderService.getAllOrders(PageRequest.of(0, 100));
+        long statements = counter.count(() -> orderService.getAllOrders(PageRequest.of(0, 100)));
+
+        assertEquals(2, statements);
+        assertEquals(100, page.getContent().size());
+        page.getContent().forEach(order -> assertNotNull(order.getItemName()));
+        assertEquals(0, counter.entitiesLoaded());
+    }
+
+    @Test
+    void keysetPages_OneSelectPerPage() {
+        long inventoryStatements = counter.count(() -> inventoryService.getTransactionsAfter("", 100));
+        long orderStatements = counter.count(() -> orderService.getOrdersAfter("", 100));
+
+        assertEquals(1, inventoryStatements);
+        assertEquals(1, orderStatements);
+        assertEquals(0, counter.entitiesLoaded());
+    }
+
+    @Test
+    void getById_OneSelectWithItemName() {
+        CursorPage<InventoryResponse> first = inventoryService.getTransactionsAfter("", 1);
+        Long id = first.getContent().get(0).getId();
+
+        InventoryResponse[] response = new InventoryResponse[1];
+        long statements = counter.count(() -> response[0] = inventoryService.getTransactionById(id));
+
+        assertEquals(1, statements);
+        assertNotNull(response[0].getItemName());
+    }
+
+    @Test
+    void projections_SkipSoftDeletedRows() {
+        long before = orderService.getAllOrders(PageRequest.of(0, 1)).getTotalElements();
+        String orderNo = orderService.getOrdersAfter("", 1).getContent().get(0).getOrderNo();
+        orderService.deleteOrder(orderNo);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(before - 1, orderService.getAllOrders(PageRequest.of(0, 1)).getTotalElements());
+        assertEquals(before - 1, (long) orderService.getOrdersAfter("", 1000).getSize());
+        assertThrows(ResourceNotFoundException.class,
+                () -> orderService.getOrderById(orderNo));
+    }
+}
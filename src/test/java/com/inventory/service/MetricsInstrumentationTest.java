@@ -0,0 +1,65 @@
+package com.inventory.service;
+
+import com.inventory.config.MetricsConfig;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The stock write path is timed end to end: lock wait, stock queries, commit and pool acquire
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:metrics-test",
+                "spring.jpa.show-sql=false",
+                "inventory.metrics.hot-item-lock-wait=0ms",
+                "inventory.checkpoint.enabled=false"
+        })
+class MetricsInstrumentationTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void stockWritePath_RecordsTimers() {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Metered Item", new BigDecimal("1.00"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 5, "T"));
+        long commitsBefore = registry.get(MetricsConfig.COMMIT).timer().count();
+
+        // When
+        orderService.createOrder(new OrderRequest(itemId, 1, null));
+        itemService.calculateCurrentStock(itemId);
+        itemService.calculateStockFromLedger(itemId);
+
+        // Then: a zero threshold makes every locked item hot, so it has its own tag
+        String item = itemId.toString();
+        assertTrue(registry.get(ItemMetrics.LOCK_WAIT).tags("operation", "lock", "item", item).timer().count() >= 2);
+        assertEquals(1, registry.get(ItemMetrics.STOCK_QUERY)
+                .tags("operation", "currentStock", "item", item).timer().count());
+        assertEquals(1, registry.get(ItemMetrics.STOCK_QUERY)
+                .tags("operation", "calculateStockFromInventory", "item", item).timer().count());
+        assertEquals(1, registry.get(ItemMetrics.STOCK_QUERY)
+                .tags("operation", "getTotalOrderedQty", "item", item).timer().count());
+        assertTrue(registry.get(MetricsConfig.COMMIT).timer().count() > commitsBefore);
+        assertTrue(registry.get("hikaricp.connections.acquire").timer().count() > 0);
+    }
+}
@@ -0,0 +1,167 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.exception.StockConflictException;
+import com.inventory.repository.ItemRepository;
+import com.inventory.repository.ItemSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OptimisticStockUpdater
+ */
+@ExtendWith(MockitoExtension.class)
+class OptimisticStockUpdaterTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private OptimisticStockUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.OPTIMISTIC);
+        properties.getStock().setOptimisticMaxAttempts(3);
+        properties.getStock().setOptimisticBackoff(Duration.ofMillis(1));
+        updater = new OptimisticStockUpdater(itemRepository, properties);
+    }
+
+    @Test
+    void apply_NoConflict_UpdatesOnce() {
+        // Given
+        when(itemRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot(10, 4L)));
+        when(itemRepository.applyStockDeltaIfVersion(1L, -3, 4L)).thenReturn(1);
+
+        // When
+        ItemSnapshot applied = updater.apply(1L, item -> -3);
+
+        // Then
+        assertEquals(4L, applied.getVersion());
+        verify(itemRepository, times(1)).applyStockDeltaIfVersion(1L, -3, 4L);
+    }
+
+    @Test
+    void apply_LostRace_ThrowsConflictWithoutRetrying() {
+        // Given: version 4 is overtaken by a concurrent write
+        when(itemRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot(10, 4L)));
+        when(itemRepository.applyStockDeltaIfVersion(1L, -3, 4L)).thenReturn(0);
+
+        // When & Then: the caller's transaction is failed rather than kept open for a retry
+        assertThrows(StockConflictException.class, () -> updater.apply(1L, item -> -3));
+        verify(itemRepository, times(1)).findSnapshotById(1L);
+    }
+
+    @Test
+    void retry_LostRace_RunsWriteAgainAgainstNewVersion() {
+        // Given: version 4 is overtaken by a concurrent write, version 5 wins
+        when(itemRepository.findSnapshotById(1L))
+                .thenReturn(Optional.of(snapshot(10, 4L)))
+                .thenReturn(Optional.of(snapshot(8, 5L)));
+        when(itemRepository.applyStockDeltaIfVersion(1L, -3, 4L)).thenReturn(0);
+        when(itemRepository.applyStockDeltaIfVersion(1L, -3, 5L)).thenReturn(1);
+
+        // When
+        ItemSnapshot applied = updater.retry(() -> updater.apply(1L, item -> -3));
+
+        // Then
+        assertEquals(8, applied.getCurrentStock());
+        verify(itemRepository, times(2)).findSnapshotById(1L);
+    }
+
+    @Test
+    void retry_ValidationRunsAgainstFreshState() {
+        // Given: enough stock at version 4, not after the concurrent write
+        when(itemRepository.findSnapshotById(1L))
+                .thenReturn(Optional.of(snapshot(5, 4L)))
+                .thenReturn(Optional.of(snapshot(1, 5L)));
+        when(itemRepository.applyStockDeltaIfVersion(1L, -3, 4L)).thenReturn(0);
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> updater.retry(() -> updater.apply(1L, item -> {
+            if (item.getCurrentStock() < 3) {
+                throw new InsufficientStockException("Insufficient stock");
+            }
+            return -3;
+        })));
+        verify(itemRepository, never()).applyStockDeltaIfVersion(1L, -3, 5L);
+    }
+
+    @Test
+    void retry_ConflictOnEveryAttempt_ThrowsException() {
+        // Given
+        when(itemRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot(10, 4L)));
+        when(itemRepository.applyStockDeltaIfVersion(anyLong(), anyInt(), anyLong())).thenReturn(0);
+
+        // When & Then
+        assertThrows(StockConflictException.class, () -> updater.retry(() -> updater.apply(1L, item -> -1)));
+        verify(itemRepository, times(3)).applyStockDeltaIfVersion(1L, -1, 4L);
+    }
+
+    @Test
+    void retry_InsideCallerTransaction_RunsOnce() {
+        // Given: a conflict would roll back the caller's transaction too, so it cannot be retried here
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // When & Then
+            assertThrows(StockConflictException.class, () -> updater.retry(() -> {
+                runs.incrementAndGet();
+                throw new StockConflictException("Item 1 changed concurrently");
+            }));
+            assertEquals(1, runs.get());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void apply_ItemNotFound_ThrowsException() {
+        // Given
+        when(itemRepository.findSnapshotById(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> updater.apply(999L, item -> -1));
+        verify(itemRepository, never()).applyStockDeltaIfVersion(anyLong(), anyInt(), anyLong());
+    }
+
+    private ItemSnapshot snapshot(int currentStock, long version) {
+        return new ItemSnapshot() {
+            public Long getId() {
+                return 1L;
+            }
+
+            public String getName() {
+                return "Test Item";
+            }
+
+            public BigDecimal getPrice() {
+                return new BigDecimal("10.00");
+            }
+
+            public Integer getCurrentStock() {
+                return currentStock;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderNumberAllocator
+ * Tests block reservation and positioning past already used order numbers
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderNumberAllocatorTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getOrderNumber().setBlockSize(3);
+        allocator = new OrderNumberAllocator(orderRepository, jdbcTemplate, properties);
+    }
+
+    @Test
+    void next_HandsOutBlockFromMemory() {
+        // Given
+        when(orderRepository.getMaxOrderSequenceIncludingDeleted()).thenReturn(0L);
+        when(orderRepository.nextOrderNumberBlock()).thenReturn(1L, 4L);
+        allocator.initialize();
+
+        // When
+        Set<Long> numbers = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            numbers.add(allocator.next());
+        }
+
+        // Then
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L), numbers);
+        verify(orderRepository, times(2)).nextOrderNumberBlock(); // One round trip per block of 3
+    }
+
+    @Test
+    void initialize_SequenceBehindUsedNumbers_RestartsPastThem() {
+        // Given: O10 exists (possibly soft-deleted) but the sequence would hand out 1
+        when(orderRepository.getMaxOrderSequenceIncludingDeleted()).thenReturn(10L);
+        when(orderRepository.nextOrderNumberBlock()).thenReturn(1L, 11L);
+
+        // When
+        allocator.initialize();
+
+        // Then
+        verify(jdbcTemplate).execute(contains("RESTART WITH 11"));
+        assertEquals(11L, allocator.next());
+    }
+
+    @Test
+    void initialize_InvalidBlockSize_ThrowsException() {
+        // Given
+        InventoryProperties properties = new InventoryProperties();
+        properties.getOrderNumber().setBlockSize(0);
+        OrderNumberAllocator invalid = new OrderNumberAllocator(orderRepository, jdbcTemplate, properties);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, invalid::initialize);
+    }
+}
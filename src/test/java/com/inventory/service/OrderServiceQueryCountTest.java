@@ -0,0 +1,137 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.BatchOrderRequest;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Statement budgets for OrderService (listing is in LedgerListingQueryCountTest)
+ * Order keys are assigned by the allocator, so inserts are JDBC-batched and every write path is constant
+ * in the number of orders and items. A huge allocator block keeps sequence calls out of the counts.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:order-query-count-test",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.show-sql=false",
+                "inventory.order-number.block-size=1000000",
+                "inventory.checkpoint.enabled=false"
+        })
+@Transactional
+class OrderServiceQueryCountTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryProperties properties;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter counter;
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<String> orderNos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 40 items with stock, each ordered once
+        for (int i = 0; i < 40; i++) {
+            Long itemId = itemService.createItem(new ItemRequest("Order Item " + i, new BigDecimal("1.00"))).getId();
+            inventoryService.recordTransaction(new InventoryRequest(itemId, 100, "T"));
+            itemIds.add(itemId);
+            orderNos.add(orderService.createOrder(new OrderRequest(itemId, 1, null)).getOrderNo());
+        }
+        counter = new StatementCounter(entityManager, entityManagerFactory);
+    }
+
+    @Test
+    void createOrder_LockInsertAndBalanceUpdate() {
+        counter.assertAtMost(3, "createOrder", () -> orderService.createOrder(new OrderRequest(itemIds.get(0), 1, null)));
+    }
+
+    @Test
+    void createOrder_GuardedMode_UpdateAndInsert() {
+        properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.GUARDED);
+        try {
+            orderService.createOrder(new OrderRequest(itemIds.get(0), 1, null)); // Warms the item catalog cache
+            counter.assertAtMost(2, "createOrder (guarded)",
+                    () -> orderService.createOrder(new OrderRequest(itemIds.get(0), 1, null)));
+        } finally {
+            properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.PESSIMISTIC);
+        }
+    }
+
+    @Test
+    void createOrdersForItem_ConstantInGroupSize() {
+        counter.assertConstant(3, "createOrdersForItem",
+                () -> orderService.createOrdersForItem(itemIds.get(0), orders(List.of(itemIds.get(0)), 1)),
+                () -> orderService.createOrdersForItem(itemIds.get(1), orders(List.of(itemIds.get(1)), 20)));
+    }
+
+    @Test
+    void createOrderBatch_ConstantInItemCount() {
+        counter.assertConstant(3, "createOrderBatch",
+                () -> orderService.createOrderBatch(new BatchOrderRequest(orders(itemIds.subList(0, 2), 1), true)),
+                () -> orderService.createOrderBatch(new BatchOrderRequest(orders(itemIds.subList(2, 40), 2), true)));
+    }
+
+    @Test
+    void getOrderById_OneSelectWithItemName() {
+        counter.assertAtMost(1, "getOrderById", () -> orderService.getOrderById(orderNos.get(0)));
+    }
+
+    @Test
+    void updateOrder_SameItemAndOtherItem() {
+        // Lock the order, lock the item(s), update the order, the balance(s) and the checkpoint(s)
+        counter.assertAtMost(5, "updateOrder (same item)",
+                () -> orderService.updateOrder(orderNos.get(0), new OrderRequest(itemIds.get(0), 2, null)));
+        counter.assertAtMost(6, "updateOrder (other item)",
+                () -> orderService.updateOrder(orderNos.get(1), new OrderRequest(itemIds.get(2), 2, null)));
+    }
+
+    @Test
+    void deleteOrderBatch_SameStatementsForAnyOrderCount() {
+        // Lock orders, lock items, load checkpoints, one soft-delete UPDATE, one batched balance update
+        counter.assertConstant(5, "deleteOrderBatch",
+                () -> orderService.deleteOrderBatch(orderNos.subList(0, 2)),
+                () -> orderService.deleteOrderBatch(orderNos.subList(2, 40)));
+    }
+
+    @Test
+    void deleteOrder_LockSoftDeleteAndBalanceUpdate() {
+        counter.assertAtMost(5, "deleteOrder", () -> orderService.deleteOrder(orderNos.get(0)));
+    }
+
+    private List<OrderRequest> orders(List<Long> items, int perItem) {
+        List<OrderRequest> requests = new ArrayList<>();
+        for (Long itemId : items) {
+            IntStream.range(0, perItem).forEach(i -> requests.add(new OrderRequest(itemId, 1, null)));
+        }
+        return requests;
+    }
+}
@@ -1,19 +1,30 @@
 package com.inventory.service;
 
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.BatchOrderRequest;
 import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.BatchOrderResponse;
+import com.inventory.dto.response.CursorPage;
 import com.inventory.dto.response.OrderResponse;
 import com.inventory.entity.Item;
 import com.inventory.entity.Order;
+import com.inventory.exception.BatchOrderException;
 import com.inventory.exception.InsufficientStockException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.repository.ItemRepository;
+import com.inventory.repository.ItemSnapshot;
 import com.inventory.repository.OrderRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,10 +32,15 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.ToIntFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,7 +57,28 @@ class OrderServiceTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private ItemService itemService;
+    private OrderNumberAllocator orderNumberAllocator;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private OptimisticStockUpdater optimisticStockUpdater;
+
+    @Mock
+    private StockCheckpointService stockCheckpointService;
+
+    @Mock
+    private StockAdmission stockAdmission;
+
+    @Mock
+    private StockBucketService stockBucketService;
+
+    @Spy
+    private ItemCatalogCache itemCatalogCache = new ItemCatalogCache(new InventoryProperties());
+
+    @Spy
+    private InventoryProperties properties = new InventoryProperties();
 
     @InjectMocks
     private OrderService orderService;
@@ -56,6 +93,7 @@ class OrderServiceTest {
         testItem.setId(1L);
         testItem.setName("Test Item");
         testItem.setPrice(new BigDecimal("10.00"));
+        testItem.setCurrentStock(10);
 
         testOrder = new Order();
         testOrder.setOrderNo("O1");
@@ -74,8 +112,7 @@ class OrderServiceTest {
     void createOrder_Success() {
         // Given
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
-        when(itemService.calculateCurrentStock(1L)).thenReturn(10);
-        when(orderRepository.getMaxOrderSequence()).thenReturn(0);
+        when(orderNumberAllocator.next()).thenReturn(1L);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
         // When
@@ -86,8 +123,8 @@ class OrderServiceTest {
         assertEquals("O1", response.getOrderNo());
         assertEquals(5, response.getQty());
         assertEquals(new BigDecimal("50.00"), response.getPrice());
+        assertEquals(5, testItem.getCurrentStock());
         verify(orderRepository, times(1)).save(any(Order.class));
-        verify(itemService, times(1)).calculateCurrentStock(1L);
     }
 
     @Test
@@ -95,7 +132,6 @@ class OrderServiceTest {
         // Given
         testRequest.setQty(20);
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
-        when(itemService.calculateCurrentStock(1L)).thenReturn(10);
 
         // When & Then
         InsufficientStockException exception = assertThrows(
@@ -117,12 +153,158 @@ class OrderServiceTest {
                 () -> orderService.createOrder(testRequest));
     }
 
+    @Test
+    void createOrder_OptimisticMode_NoItemLockAndResponseFromSnapshot() {
+        // Given
+        ItemSnapshot snapshot = mock(ItemSnapshot.class);
+        when(snapshot.getId()).thenReturn(1L);
+        when(snapshot.getName()).thenReturn("Test Item");
+        when(snapshot.getCurrentStock()).thenReturn(10);
+        when(optimisticStockUpdater.isEnabled()).thenReturn(true);
+        when(optimisticStockUpdater.apply(eq(1L), any())).thenAnswer(invocation -> {
+            ToIntFunction<ItemSnapshot> deltaFunction = invocation.getArgument(1);
+            assertEquals(-5, deltaFunction.applyAsInt(snapshot));
+            return snapshot;
+        });
+        when(itemRepository.getReferenceById(1L)).thenReturn(testItem);
+        when(orderNumberAllocator.next()).thenReturn(7L);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        OrderResponse response = orderService.createOrder(testRequest);
+
+        // Then
+        assertEquals("O7", response.getOrderNo());
+        assertEquals("Test Item", response.getItemName());
+        verify(itemRepository, never()).findByIdWithLock(any());
+        assertEquals(10, testItem.getCurrentStock()); // Balance changed by the conditional update, not the entity
+    }
+
+    @Test
+    void createOrder_GuardedMode_OneConditionalUpdateAndNoLock() {
+        // Given
+        properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.GUARDED);
+        ItemSnapshot snapshot = mock(ItemSnapshot.class);
+        when(snapshot.getId()).thenReturn(1L);
+        when(snapshot.getName()).thenReturn("Test Item");
+        when(snapshot.getPrice()).thenReturn(new BigDecimal("10.00"));
+        when(itemRepository.takeStockIfAvailable(1L, 5)).thenReturn(1);
+        when(itemRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot));
+        when(itemRepository.getReferenceById(1L)).thenReturn(testItem);
+        when(orderNumberAllocator.next()).thenReturn(7L, 8L);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        OrderRequest request = new OrderRequest(1L, 5, null);
+
+        // When
+        OrderResponse first = orderService.createOrder(request);
+        OrderResponse second = orderService.createOrder(request);
+
+        // Then: name and default price read once, then served by the catalog cache
+        assertEquals("O7", first.getOrderNo());
+        assertEquals("Test Item", second.getItemName());
+        assertEquals(new BigDecimal("10.00"), second.getPrice());
+        verify(itemRepository, times(2)).takeStockIfAvailable(1L, 5);
+        verify(itemRepository, times(1)).findSnapshotById(1L);
+        verify(itemRepository, never()).findByIdWithLock(any());
+        assertEquals(10, testItem.getCurrentStock()); // Balance changed by the guarded update, not the entity
+    }
+
+    @Test
+    void createOrder_ShardedItem_TakesFromBucketWithoutItemLock() {
+        // Given
+        ItemSnapshot snapshot = mock(ItemSnapshot.class);
+        when(snapshot.getId()).thenReturn(1L);
+        when(snapshot.getName()).thenReturn("Test Item");
+        when(snapshot.getPrice()).thenReturn(new BigDecimal("10.00"));
+        when(stockBucketService.isSharded(1L)).thenReturn(true);
+        when(itemRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot));
+        when(itemRepository.getReferenceById(1L)).thenReturn(testItem);
+        when(orderNumberAllocator.next()).thenReturn(7L);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        OrderResponse response = orderService.createOrder(new OrderRequest(1L, 5, null));
+
+        // Then
+        assertEquals("O7", response.getOrderNo());
+        assertEquals(new BigDecimal("10.00"), response.getPrice());
+        verify(stockBucketService).take(1L, 5);
+        verify(itemRepository, never()).findByIdWithLock(any());
+        verify(itemRepository, never()).takeStockIfAvailable(any(), anyInt());
+        assertEquals(10, testItem.getCurrentStock()); // Stock taken from a bucket, not the item row
+    }
+
+    @Test
+    void createOrder_GuardedMode_NothingUpdated_InsufficientStock() {
+        // Given
+        properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.GUARDED);
+        ItemSnapshot snapshot = mock(ItemSnapshot.class);
+        when(snapshot.getName()).thenReturn("Test Item");
+        when(snapshot.getCurrentStock()).thenReturn(3);
+        when(itemRepository.takeStockIfAvailable(1L, 5)).thenReturn(0);
+        when(itemRepository.findSnapshotById(1L)).thenReturn(Optional.of(snapshot));
+
+        // When & Then
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(testRequest));
+        assertTrue(exception.getMessage().contains("Available: 3"));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createOrder_GuardedMode_NothingUpdated_ItemNotFound() {
+        // Given
+        properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.GUARDED);
+        when(itemRepository.takeStockIfAvailable(1L, 5)).thenReturn(0);
+        when(itemRepository.findSnapshotById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(testRequest));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createOrdersForItem_OneLockAcceptsInArrivalOrder() {
+        // Given: 10 in stock, requests for 6, 5 and 4
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
+        when(orderNumberAllocator.next(2)).thenReturn(List.of(11L, 12L));
+        List<OrderRequest> requests = List.of(
+                new OrderRequest(1L, 6, null), new OrderRequest(1L, 5, null), new OrderRequest(1L, 4, null));
+
+        // When
+        List<StockWriteOutcome<OrderResponse>> outcomes = orderService.createOrdersForItem(1L, requests);
+
+        // Then: the second request no longer fits, the third still does
+        assertEquals("O11", outcomes.get(0).getResponse().getOrderNo());
+        assertInstanceOf(InsufficientStockException.class, outcomes.get(1).getFailure());
+        assertTrue(outcomes.get(1).getFailure().getMessage().contains("Available: 4"));
+        assertEquals("O12", outcomes.get(2).getResponse().getOrderNo());
+        assertEquals(0, testItem.getCurrentStock());
+        verify(itemRepository, times(1)).findByIdWithLock(1L);
+        verify(orderRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void createOrdersForItem_ItemNotFound_EveryRequestFails() {
+        // Given
+        when(itemRepository.findByIdWithLock(999L)).thenReturn(Optional.empty());
+
+        // When
+        List<StockWriteOutcome<OrderResponse>> outcomes = orderService.createOrdersForItem(999L,
+                List.of(new OrderRequest(999L, 1, null), new OrderRequest(999L, 2, null)));
+
+        // Then
+        assertEquals(2, outcomes.size());
+        outcomes.forEach(outcome -> assertInstanceOf(ResourceNotFoundException.class, outcome.getFailure()));
+        verify(orderRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void createOrder_AutoGeneratesOrderNumber() {
         // Given
+        testItem.setCurrentStock(20);
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
-        when(itemService.calculateCurrentStock(1L)).thenReturn(20);
-        when(orderRepository.getMaxOrderSequence()).thenReturn(5); // Last order was O5
+        when(orderNumberAllocator.next()).thenReturn(6L); // Allocator hands out 6 next
 
         Order expectedOrder = new Order();
         expectedOrder.setOrderNo("O6"); // Should generate O6
@@ -136,17 +318,21 @@ class OrderServiceTest {
         OrderResponse response = orderService.createOrder(testRequest);
 
         // Then
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(saved.capture());
+        assertEquals("O6", saved.getValue().getOrderNo());
+        assertEquals(6L, saved.getValue().getOrderSeq());
         assertEquals("O6", response.getOrderNo());
-        verify(orderRepository, times(1)).getMaxOrderSequence();
+        verify(orderNumberAllocator, times(1)).next();
     }
 
     @Test
     void getAllOrders_Success() {
         // Given
-        Page<Order> orderPage = new PageImpl<>(Arrays.asList(testOrder));
+        Page<OrderResponse> orderPage = new PageImpl<>(Arrays.asList(orderResponse(1L)));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(orderRepository.findAll(pageable)).thenReturn(orderPage);
+        when(orderRepository.findAllResponses(pageable)).thenReturn(orderPage);
 
         // When
         Page<OrderResponse> result = orderService.getAllOrders(pageable);
@@ -155,13 +341,47 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals("O1", result.getContent().get(0).getOrderNo());
-        verify(orderRepository, times(1)).findAll(pageable);
+        verify(orderRepository, times(1)).findAllResponses(pageable);
+        verify(orderRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getOrdersAfter_SeeksOnOrderSeqAndReturnsNextCursor() {
+        // Given: O9, O10 and O11 after O8; string order would put O10 first
+        List<OrderResponse> rows = Arrays.asList(orderResponse(9L), orderResponse(10L), orderResponse(11L));
+        String after = CursorCodec.encode(8L);
+        when(orderRepository.findResponsesAfter(8L, Limit.of(3))).thenReturn(rows);
+
+        // When
+        CursorPage<OrderResponse> result = orderService.getOrdersAfter(after, 2);
+
+        // Then: size + 1 rows fetched, the extra one only signals a next page
+        assertEquals(2, result.getContent().size());
+        assertEquals("O9", result.getContent().get(0).getOrderNo());
+        assertEquals("O10", result.getContent().get(1).getOrderNo());
+        assertTrue(result.isHasNext());
+        assertEquals(10L, CursorCodec.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getOrdersAfter_LastPage_HasNoNextCursor() {
+        // Given
+        when(orderRepository.findResponsesAfter(0L, Limit.of(11)))
+                .thenReturn(Arrays.asList(orderResponse(1L)));
+
+        // When
+        CursorPage<OrderResponse> result = orderService.getOrdersAfter("", 10);
+
+        // Then
+        assertEquals(1, result.getSize());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
     }
 
     @Test
     void getOrderById_Success() {
         // Given
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findResponseById("O1")).thenReturn(Optional.of(orderResponse(1L)));
 
         // When
         OrderResponse response = orderService.getOrderById("O1");
@@ -175,7 +395,7 @@ class OrderServiceTest {
     @Test
     void getOrderById_NotFound_ThrowsException() {
         // Given
-        when(orderRepository.findById("O999")).thenReturn(Optional.empty());
+        when(orderRepository.findResponseById("O999")).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class,
@@ -190,9 +410,9 @@ class OrderServiceTest {
         updateRequest.setQty(3);
         updateRequest.setPrice(new BigDecimal("30.00"));
 
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(testOrder));
+        testItem.setCurrentStock(15);
+        when(orderRepository.findByIdWithLock("O1")).thenReturn(Optional.of(testOrder));
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
-        when(itemService.calculateCurrentStock(1L)).thenReturn(15);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
         // When
@@ -200,8 +420,8 @@ class OrderServiceTest {
 
         // Then
         assertNotNull(response);
+        assertEquals(17, testItem.getCurrentStock()); // 15 + 5 (old) - 3 (new)
         verify(orderRepository, times(1)).save(any(Order.class));
-        verify(itemService, times(1)).calculateCurrentStock(1L);
     }
 
     @Test
@@ -212,34 +432,120 @@ class OrderServiceTest {
         updateRequest.setQty(30);
         updateRequest.setPrice(new BigDecimal("300.00"));
 
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdWithLock("O1")).thenReturn(Optional.of(testOrder));
         when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
-        when(itemService.calculateCurrentStock(1L)).thenReturn(10);
 
         // When & Then
         assertThrows(InsufficientStockException.class,
                 () -> orderService.updateOrder("O1", updateRequest));
+        assertEquals(10, testItem.getCurrentStock());
     }
 
     @Test
     void deleteOrder_Success() {
         // Given
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdWithLock("O1")).thenReturn(Optional.of(testOrder));
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
 
         // When
         orderService.deleteOrder("O1");
 
         // Then
+        assertEquals(15, testItem.getCurrentStock()); // Ordered qty returned
         verify(orderRepository, times(1)).delete(testOrder);
     }
 
     @Test
     void deleteOrder_NotFound_ThrowsException() {
         // Given
-        when(orderRepository.findById("O999")).thenReturn(Optional.empty());
+        when(orderRepository.findByIdWithLock("O999")).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class,
                 () -> orderService.deleteOrder("O999"));
     }
+
+    @Test
+    void createOrderBatch_Atomic_LocksDistinctItemsOnceAndAllocatesInBulk() {
+        // Given
+        Item otherItem = new Item();
+        otherItem.setId(2L);
+        otherItem.setName("Other Item");
+        otherItem.setPrice(new BigDecimal("5.00"));
+        otherItem.setCurrentStock(3);
+
+        BatchOrderRequest batch = new BatchOrderRequest(Arrays.asList(
+                new OrderRequest(2L, 1, null),
+                new OrderRequest(1L, 4, null),
+                new OrderRequest(1L, 6, null)), true);
+
+        when(itemRepository.findAllByIdWithLock(any())).thenReturn(Arrays.asList(testItem, otherItem));
+        when(orderNumberAllocator.next(3)).thenReturn(Arrays.asList(11L, 12L, 13L));
+
+        // When
+        BatchOrderResponse response = orderService.createOrderBatch(batch);
+
+        // Then
+        assertEquals(3, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+        assertEquals("O11", response.getResults().get(0).getOrder().getOrderNo());
+        assertEquals(new BigDecimal("5.00"), response.getResults().get(0).getOrder().getPrice());
+        assertEquals(0, testItem.getCurrentStock()); // 10 - 4 - 6
+        assertEquals(2, otherItem.getCurrentStock());
+        verify(itemRepository, times(1)).findAllByIdWithLock(any());
+        verify(itemRepository, never()).findByIdWithLock(any());
+        verify(orderRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void createOrderBatch_Atomic_CombinedDemandExceedsStock_ThrowsException() {
+        // Given: each line fits on its own, together they need 12 of 10
+        BatchOrderRequest batch = new BatchOrderRequest(Arrays.asList(
+                new OrderRequest(1L, 6, null),
+                new OrderRequest(1L, 6, null)), true);
+
+        when(itemRepository.findAllByIdWithLock(any())).thenReturn(List.of(testItem));
+
+        // When & Then
+        BatchOrderException exception = assertThrows(
+                BatchOrderException.class,
+                () -> orderService.createOrderBatch(batch));
+
+        assertEquals(2, exception.getResult().getFailed());
+        assertTrue(exception.getResult().getResults().get(0).getMessage().contains("combined demand"));
+        assertEquals(10, testItem.getCurrentStock());
+        verify(orderRepository, never()).saveAll(anyList());
+        verify(orderNumberAllocator, never()).next(anyInt());
+    }
+
+    @Test
+    void createOrderBatch_PerLine_AcceptsInArrivalOrderAndReportsFailures() {
+        // Given
+        BatchOrderRequest batch = new BatchOrderRequest(Arrays.asList(
+                new OrderRequest(1L, 6, null),
+                new OrderRequest(1L, 6, null), // Only 4 left
+                new OrderRequest(1L, 0, null), // Invalid qty
+                new OrderRequest(999L, 1, null), // Unknown item
+                new OrderRequest(1L, 4, null)), false);
+
+        when(itemRepository.findAllByIdWithLock(any())).thenReturn(List.of(testItem));
+        when(orderNumberAllocator.next(2)).thenReturn(Arrays.asList(1L, 2L));
+
+        // When
+        BatchOrderResponse response = orderService.createOrderBatch(batch);
+
+        // Then
+        assertEquals(2, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertTrue(response.getResults().get(1).getMessage().contains("Insufficient stock"));
+        assertTrue(response.getResults().get(2).getMessage().contains("Quantity must be at least 1"));
+        assertEquals("Item not found with id: 999", response.getResults().get(3).getMessage());
+        assertEquals("O2", response.getResults().get(4).getOrder().getOrderNo());
+        assertEquals(0, testItem.getCurrentStock());
+    }
+
+    private OrderResponse orderResponse(long orderSeq) {
+        return new OrderResponse("O" + orderSeq, 1L, "Test Item", 1, new BigDecimal("10.00"));
+    }
 }
@@ -0,0 +1,116 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.ItemResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query endpoints read a committed snapshot: while a writer holds an item lock with uncommitted stock changes,
+ * reads of that item, its orders and its ledger return at once with the last committed state
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:snapshot-read-test",
+                "spring.jpa.show-sql=false"
+        })
+class SnapshotReadTest {
+
+    // Well below the database lock timeout: a read that waited for the writer would fail either way
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(500);
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockBucketService stockBucketService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reads_WhileWriterHoldsItemLock_ReturnCommittedStateWithoutWaiting() throws Exception {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Locked Item", new BigDecimal("1.00"))).getId();
+        Long topUpId = inventoryService.recordTransaction(new InventoryRequest(itemId, 10, "T")).getId();
+        String orderNo = orderService.createOrder(new OrderRequest(itemId, 2, null)).getOrderNo();
+
+        // When: a writer locks the item, takes stock for a new order and keeps its transaction open
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<?> writer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                orderService.createOrder(new OrderRequest(itemId, 5, null));
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            // Then: every read returns without waiting and sees neither the new order nor its stock
+            assertTimeout(READ_TIMEOUT, () -> assertEquals(8, itemService.getItemById(itemId).getCurrentStock()));
+            assertTimeout(READ_TIMEOUT, () -> assertEquals(8, itemService.calculateCurrentStock(itemId)));
+            assertTimeout(READ_TIMEOUT, () -> assertEquals(8, itemService.calculateStockFromLedger(itemId)));
+            assertTimeout(READ_TIMEOUT, () -> assertEquals(8, itemService.getAllItems(PageRequest.of(0, 100))
+                    .getContent().stream()
+                    .filter(item -> item.getId().equals(itemId))
+                    .mapToInt(ItemResponse::getCurrentStock)
+                    .sum()));
+            assertTimeout(READ_TIMEOUT, () -> assertEquals(2, orderService.getOrderById(orderNo).getQty()));
+            assertTimeout(READ_TIMEOUT, () -> assertEquals(10, inventoryService.getTransactionById(topUpId).getQty()));
+            assertTimeout(READ_TIMEOUT, () -> assertFalse(orderService.getOrdersAfter("", 100).getContent().stream()
+                    .anyMatch(order -> order.getItemId().equals(itemId) && order.getQty() == 5)));
+
+            // And: once the writer commits, reads see its order
+            release.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+            assertEquals(3, itemService.getItemById(itemId).getCurrentStock());
+            assertEquals(3, itemService.calculateStockFromLedger(itemId));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getItemsAfter_IncludesBucketStock() {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Sharded Item", new BigDecimal("1.00"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 9, "T"));
+        stockBucketService.configure(itemId, 3);
+
+        // When: the projection adds the stock buckets to the item row, like the entity read does
+        ItemResponse listed = itemService.getItemsAfter(CursorCodec.encode(itemId - 1), 1).getContent().get(0);
+
+        // Then
+        assertEquals(itemId, listed.getId());
+        assertEquals(9, listed.getCurrentStock());
+        assertEquals(itemService.getItemById(itemId), listed);
+    }
+}
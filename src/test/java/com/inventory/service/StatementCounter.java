@@ -0,0 +1,60 @@
+package com.inventory.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements Hibernate prepares inside a block (needs hibernate.generate_statistics=true)
+ * The persistence context is cleared before the block, so nothing is served from it, and flushed after,
+ * so pending writes are counted. Statements run through JdbcTemplate bypass Hibernate and are not seen.
+ */
+final class StatementCounter {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    StatementCounter(EntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.entityManager = entityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "Set spring.jpa.properties.hibernate.generate_statistics=true");
+    }
+
+    long count(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Entities loaded by the last counted block (0 for pure projections)
+     */
+    long entitiesLoaded() {
+        return statistics.getEntityLoadCount();
+    }
+
+    /**
+     * Fails if the block runs more than budget statements
+     */
+    long assertAtMost(long budget, String label, Runnable action) {
+        long statements = count(action);
+        assertTrue(statements <= budget, label + " ran " + statements + " statements, budget is " + budget);
+        return statements;
+    }
+
+    /**
+     * Fails if the same operation runs more statements on more data (N+1), or exceeds the budget
+     */
+    void assertConstant(long budget, String label, Runnable small, Runnable large) {
+        long smallCount = assertAtMost(budget, label + " (small)", small);
+        long largeCount = assertAtMost(budget, label + " (large)", large);
+        assertEquals(smallCount, largeCount, label + " ran " + smallCount + " statements on the small input but "
+                + largeCount + " on the large one");
+    }
+}
@@ -0,0 +1,185 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * In-memory stock admission against the database: concurrent orders and withdrawals never oversell,
+ * rejections skip the write, and other stock changes reach the counters after commit
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:stock-admission-test",
+                "spring.jpa.show-sql=false",
+                "inventory.stock.admission-enabled=true"
+        })
+class StockAdmissionTest {
+
+    private static final int WRITERS = 16;
+    private static final int WRITES_PER_WRITER = 50;
+
+    @Autowired
+    private StockAdmission stockAdmission;
+
+    @Autowired
+    private StockWriteCombiner stockWriteCombiner;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void load_CountersStartFromBalances() {
+        Long penId = jdbcTemplate.queryForObject("SELECT id FROM item WHERE name = 'Pen'", Long.class);
+
+        assertEquals(itemService.calculateCurrentStock(penId).longValue(), stockAdmission.available(penId));
+    }
+
+    @Test
+    void concurrentOrdersAndWithdrawals_StockNeverNegative() throws Exception {
+        // Given: stock for about a third of the attempted quantity
+        Long itemId = itemService.createItem(new ItemRequest("Contended Item", new BigDecimal("1.00"))).getId();
+        int stock = WRITERS * WRITES_PER_WRITER;
+        inventoryService.recordTransaction(new InventoryRequest(itemId, stock, "T"));
+
+        // When: writers order or withdraw 1-5 units while a watcher samples the balance and the counter
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong lowest = new AtomicLong(Long.MAX_VALUE);
+        try {
+            Future<?> watcher = executor.submit(() -> {
+                while (running.get()) {
+                    lowest.accumulateAndGet(Math.min(itemService.calculateCurrentStock(itemId),
+                            stockAdmission.available(itemId)), Math::min);
+                }
+            });
+            List<Future<Integer>> taken = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                Callable<Integer> writer = () -> {
+                    start.await();
+                    int qtyTaken = 0;
+                    for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                        int qty = ThreadLocalRandom.current().nextInt(1, 6);
+                        try {
+                            if (i % 2 == 0) {
+                                stockWriteCombiner.createOrder(new OrderRequest(itemId, qty, null));
+                            } else {
+                                stockWriteCombiner.recordTransaction(new InventoryRequest(itemId, qty, "W"));
+                            }
+                            qtyTaken += qty;
+                        } catch (InsufficientStockException ex) {
+                            // Expected once stock runs low
+                        }
+                    }
+                    return qtyTaken;
+                };
+                taken.add(executor.submit(writer));
+            }
+            start.countDown();
+            int qtyTaken = 0;
+            for (Future<Integer> future : taken) {
+                qtyTaken += future.get();
+            }
+            running.set(false);
+            watcher.get();
+
+            // Then: every accepted unit left the balance, nothing more, and the counter agrees
+            int balance = itemService.calculateCurrentStock(itemId);
+            assertTrue(lowest.get() >= 0, "lowest observed: " + lowest.get());
+            assertTrue(balance >= 0, "balance: " + balance);
+            assertEquals(stock - qtyTaken, balance);
+            assertEquals(balance, itemService.calculateStockFromLedger(itemId));
+            assertEquals(balance, stockAdmission.available(itemId));
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void admit_Oversell_RejectedWithoutRunningWrite() {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Scarce Item", new BigDecimal("1.00"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 3, "T"));
+
+        // When / Then
+        assertThrows(InsufficientStockException.class,
+                () -> stockAdmission.admit(itemId, 4, () -> fail("write must not run")));
+        assertEquals(3L, stockAdmission.available(itemId));
+    }
+
+    @Test
+    void admit_FailedWrite_ReservationReturned() {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Flaky Item", new BigDecimal("1.00"))).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 3, "T"));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> stockAdmission.admit(itemId, 2, () -> {
+            assertEquals(1L, stockAdmission.available(itemId)); // Reserved while the write runs
+            throw new IllegalStateException("write failed");
+        }));
+
+        // Then
+        assertEquals(3L, stockAdmission.available(itemId));
+    }
+
+    @Test
+    void otherStockChanges_ReachCountersAfterCommit() {
+        // Given
+        Long itemId = itemService.createItem(new ItemRequest("Tracked Item", new BigDecimal("1.00"))).getId();
+        assertEquals(0L, stockAdmission.available(itemId));
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 10, "T"));
+        String orderNo = stockWriteCombiner.createOrder(new OrderRequest(itemId, 4, null)).getOrderNo();
+        Long withdrawalId = stockWriteCombiner.recordTransaction(new InventoryRequest(itemId, 2, "W")).getId();
+        assertEquals(4L, stockAdmission.available(itemId));
+
+        // When / Then: updates and deletes outside admission
+        orderService.updateOrder(orderNo, new OrderRequest(itemId, 1, null));
+        assertEquals(7L, stockAdmission.available(itemId));
+        inventoryService.deleteTransaction(withdrawalId);
+        assertEquals(9L, stockAdmission.available(itemId));
+        orderService.deleteOrder(orderNo);
+        assertEquals(10L, stockAdmission.available(itemId));
+        assertEquals(10, itemService.calculateCurrentStock(itemId));
+
+        // A rejected database write leaves the counter alone
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.updateOrder(stockWriteCombiner.createOrder(new OrderRequest(itemId, 1, null))
+                        .getOrderNo(), new OrderRequest(itemId, 11, null)));
+        assertEquals(9L, stockAdmission.available(itemId));
+
+        itemService.deleteItem(itemId);
+        assertNull(stockAdmission.available(itemId));
+    }
+}
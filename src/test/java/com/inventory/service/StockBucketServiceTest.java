@@ -0,0 +1,260 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.StockBucketResponse;
+import com.inventory.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stock buckets against the database: configuring splits the stock, hot writers never oversell,
+ * top-ups spread, locked writers fold the buckets back and reads always see the whole stock
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:stock-bucket-test",
+                "spring.jpa.show-sql=false"
+        })
+class StockBucketServiceTest {
+
+    private static final int WRITERS = 16;
+    private static final int WRITES_PER_WRITER = 50;
+
+    @Autowired
+    private StockBucketService stockBucketService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private StockRebuildJob stockRebuildJob;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockCheckpointService stockCheckpointService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void configure_SplitsStockEvenlyAndBack() {
+        // Given
+        Long itemId = createItemWithStock("Split Item", 10);
+
+        // When
+        StockBucketResponse sharded = stockBucketService.configure(itemId, 4);
+
+        // Then
+        assertEquals(List.of(3, 3, 2, 2), sharded.getBucketStock());
+        assertEquals(0, sharded.getItemRowStock());
+        assertEquals(10, sharded.getCurrentStock());
+        assertTrue(stockBucketService.isSharded(itemId));
+        assertEquals(10, itemService.getItemById(itemId).getCurrentStock());
+
+        // When: back to the item row
+        StockBucketResponse unsharded = stockBucketService.configure(itemId, 1);
+
+        // Then
+        assertEquals(List.of(), unsharded.getBucketStock());
+        assertEquals(10, unsharded.getItemRowStock());
+        assertFalse(stockBucketService.isSharded(itemId));
+        assertEquals(List.of(), stockBucketService.getBuckets(itemId).getBucketStock());
+    }
+
+    @Test
+    void configure_OutOfRange_Rejected() {
+        Long itemId = createItemWithStock("Unsplit Item", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> stockBucketService.configure(itemId, 0));
+        assertThrows(IllegalArgumentException.class, () -> stockBucketService.configure(itemId, 65));
+    }
+
+    @Test
+    void concurrentOrdersAndWithdrawals_NoOversellAndMatchesLedger() throws Exception {
+        // Given: stock for about a third of the attempted quantity, over 8 buckets
+        int stock = WRITERS * WRITES_PER_WRITER;
+        Long itemId = createItemWithStock("Hot Item", stock);
+        stockBucketService.configure(itemId, 8);
+
+        // When: writers order or withdraw 1-5 units each
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> taken = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                Callable<Integer> writer = () -> {
+                    start.await();
+                    int qtyTaken = 0;
+                    for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                        int qty = ThreadLocalRandom.current().nextInt(1, 6);
+                        try {
+                            if (i % 2 == 0) {
+                                orderService.createOrder(new OrderRequest(itemId, qty, null));
+                            } else {
+                                inventoryService.recordTransaction(new InventoryRequest(itemId, qty, "W"));
+                            }
+                            qtyTaken += qty;
+                        } catch (InsufficientStockException ex) {
+                            // Expected once stock runs low
+                        }
+                    }
+                    return qtyTaken;
+                };
+                taken.add(executor.submit(writer));
+            }
+            start.countDown();
+            int qtyTaken = 0;
+            for (Future<Integer> future : taken) {
+                qtyTaken += future.get();
+            }
+
+            // Then: every accepted unit left the stock, nothing more, and no bucket went negative
+            StockBucketResponse buckets = stockBucketService.getBuckets(itemId);
+            assertEquals(stock - qtyTaken, buckets.getCurrentStock());
+            assertEquals(stock - qtyTaken, itemService.calculateCurrentStock(itemId));
+            assertEquals(stock - qtyTaken, itemService.calculateStockFromLedger(itemId));
+            assertTrue(buckets.getBucketStock().stream().allMatch(qty -> qty >= 0), buckets.toString());
+            assertTrue(qtyTaken > stock - 5, "stock left unsold: " + (stock - qtyTaken));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void take_NoBucketCoversQty_Rebalances() {
+        // Given: 3 + 3 + 2 + 2
+        Long itemId = createItemWithStock("Spread Item", 10);
+        stockBucketService.configure(itemId, 4);
+
+        // When
+        orderService.createOrder(new OrderRequest(itemId, 7, null));
+
+        // Then: the remaining 3 spread over the buckets again
+        StockBucketResponse buckets = stockBucketService.getBuckets(itemId);
+        assertEquals(List.of(1, 1, 1, 0), buckets.getBucketStock());
+        assertEquals(0, buckets.getItemRowStock());
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(new OrderRequest(itemId, 4, null)));
+    }
+
+    @Test
+    void topUp_SpreadsOverBuckets() {
+        // Given
+        Long itemId = createItemWithStock("Refilled Item", 0);
+        stockBucketService.configure(itemId, 4);
+
+        // When
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 6, "T"));
+
+        // Then
+        assertEquals(List.of(2, 2, 1, 1), stockBucketService.getBuckets(itemId).getBucketStock());
+        assertEquals(6, itemService.getItemById(itemId).getCurrentStock());
+        assertEquals(6, itemService.calculateStockFromLedger(itemId));
+    }
+
+    @Test
+    void lockedWrite_FoldsBucketsIntoItemRow() {
+        // Given
+        Long itemId = createItemWithStock("Folded Item", 8);
+        stockBucketService.configure(itemId, 4);
+        String orderNo = orderService.createOrder(new OrderRequest(itemId, 1, null)).getOrderNo();
+
+        // When: an update locks the item and checks the whole stock
+        orderService.updateOrder(orderNo, new OrderRequest(itemId, 8, null));
+
+        // Then
+        StockBucketResponse buckets = stockBucketService.getBuckets(itemId);
+        assertEquals(List.of(0, 0, 0, 0), buckets.getBucketStock());
+        assertEquals(0, buckets.getCurrentStock());
+        assertEquals(0, itemService.calculateStockFromLedger(itemId));
+
+        // And: a top-up refills the buckets, a rebuild finds nothing to correct
+        inventoryService.recordTransaction(new InventoryRequest(itemId, 4, "T"));
+        assertEquals(List.of(1, 1, 1, 1), stockBucketService.getBuckets(itemId).getBucketStock());
+        assertEquals(4, itemService.getItemById(itemId).getCurrentStock());
+        stockRebuildJob.rebuildStockBalances();
+        assertEquals(4, itemService.calculateCurrentStock(itemId));
+    }
+
+    @Test
+    void deleteItem_StopsRoutingToBuckets() {
+        // Given
+        Long itemId = createItemWithStock("Retired Item", 4);
+        stockBucketService.configure(itemId, 2);
+
+        // When
+        itemService.deleteItem(itemId);
+
+        // Then
+        assertFalse(stockBucketService.isSharded(itemId));
+    }
+
+    @Test
+    void rollForward_WaitsForOpenBucketWriter() throws Exception {
+        // Given: 5 + 5 + 5 + 5
+        Long itemId = createItemWithStock("Checkpointed Item", 20);
+        stockBucketService.configure(itemId, 4);
+
+        // When: a bucket writer appends an order and keeps its transaction open while a later order commits
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<?> openWriter = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                orderService.createOrder(new OrderRequest(itemId, 1, null));
+                appended.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(appended.await(5, TimeUnit.SECONDS));
+            orderService.createOrder(new OrderRequest(itemId, 2, null));
+            Future<Integer> rollForward = executor.submit(() -> stockCheckpointService.rollForward(List.of(itemId)));
+
+            // Then: the roll-forward waits for the open writer's bucket instead of moving the watermark past it
+            Thread.sleep(200);
+            assertFalse(rollForward.isDone());
+            release.countDown();
+            openWriter.get(5, TimeUnit.SECONDS);
+            assertEquals(1, rollForward.get(5, TimeUnit.SECONDS));
+            assertEquals(17, itemService.calculateStockFromLedger(itemId));
+            assertEquals(17, itemService.calculateCurrentStock(itemId));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createItemWithStock(String name, int stock) {
+        Long itemId = itemService.createItem(new ItemRequest(name, new BigDecimal("1.00"))).getId();
+        if (stock > 0) {
+            inventoryService.recordTransaction(new InventoryRequest(itemId, stock, "T"));
+        }
+        return itemId;
+    }
+}
@@ -0,0 +1,172 @@
+package com.inventory.service;
+
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.StockRebuildResponse;
+import com.inventory.entity.StockCheckpoint;
+import com.inventory.repository.StockCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.inventory.service.TestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stock checkpoints against the database: ledger stock from checkpoint + tail must always equal the
+ * materialized balance, including after updates, moves and deletes of rows the checkpoint already covers
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:checkpoint-test",
+                "spring.jpa.show-sql=false",
+                "inventory.checkpoint.enabled=false" // Rolled forward explicitly
+        })
+class StockCheckpointServiceTest {
+
+    @Autowired
+    private StockCheckpointJob stockCheckpointJob;
+
+    @Autowired
+    private StockCheckpointRepository stockCheckpointRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private StockRebuildJob stockRebuildJob;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private Long itemA;
+    private Long itemB;
+
+    @BeforeEach
+    void setUp() {
+        itemA = itemService.createItem(new ItemRequest("Checkpoint A", new BigDecimal("1.00"))).getId();
+        itemB = itemService.createItem(new ItemRequest("Checkpoint B", new BigDecimal("1.00"))).getId();
+    }
+
+    @Test
+    void rollForward_FoldsLedgerIntoBalanceAndMovesWatermarks() {
+        // Given
+        inventoryService.recordTransaction(new InventoryRequest(itemA, 20, "T"));
+        Long lastInventoryId = inventoryService.recordTransaction(new InventoryRequest(itemA, 3, "W")).getId();
+        orderService.createOrder(new OrderRequest(itemA, 4, null));
+
+        // When
+        stockCheckpointJob.rollForwardAll();
+
+        // Then
+        StockCheckpoint checkpoint = stockCheckpointRepository.findById(itemA).orElseThrow();
+        assertEquals(13, checkpoint.getBalance());
+        assertEquals(lastInventoryId, checkpoint.getInventoryWatermark());
+        assertTrue(checkpoint.getOrderWatermark() > 0);
+        assertNotNull(checkpoint.getUpdatedAt());
+        assertLedgerMatchesBalance(itemService, itemA);
+
+        // Nothing new: the next run writes no checkpoint for the item
+        assertFalse(stockCheckpointRepository.findItemIdsWithNewLedgerRows().contains(itemA));
+    }
+
+    @Test
+    void ledgerStock_AddsRowsAfterCheckpoint() {
+        // Given
+        inventoryService.recordTransaction(new InventoryRequest(itemA, 10, "T"));
+        stockCheckpointJob.rollForwardAll();
+
+        // When
+        inventoryService.recordTransaction(new InventoryRequest(itemA, 5, "T"));
+        orderService.createOrder(new OrderRequest(itemA, 2, null));
+
+        // Then
+        assertEquals(13, itemService.calculateStockFromLedger(itemA));
+        assertEquals(13, itemService.calculateStockFromLedger(List.of(itemA)).get(itemA));
+        assertLedgerMatchesBalance(itemService, itemA);
+    }
+
+    @Test
+    void changesBelowWatermark_AdjustCheckpointBalance() {
+        // Given
+        Long topUp = inventoryService.recordTransaction(new InventoryRequest(itemA, 30, "T")).getId();
+        Long withdrawal = inventoryService.recordTransaction(new InventoryRequest(itemA, 5, "W")).getId();
+        inventoryService.recordTransaction(new InventoryRequest(itemB, 10, "T"));
+        String order = orderService.createOrder(new OrderRequest(itemA, 4, null)).getOrderNo();
+        String movedOrder = orderService.createOrder(new OrderRequest(itemA, 2, null)).getOrderNo();
+        stockCheckpointJob.rollForwardAll();
+
+        // When: same-item updates, cross-item moves and deletes of covered rows
+        inventoryService.updateTransaction(topUp, new InventoryRequest(itemA, 25, "T"));
+        inventoryService.updateTransaction(withdrawal, new InventoryRequest(itemB, 1, "W"));
+        orderService.updateOrder(order, new OrderRequest(itemA, 6, null));
+        orderService.updateOrder(movedOrder, new OrderRequest(itemB, 3, null));
+        orderService.deleteOrder(order);
+
+        // Then
+        assertEquals(25, itemService.calculateCurrentStock(itemA));
+        assertEquals(6, itemService.calculateCurrentStock(itemB));
+        assertLedgerMatchesBalance(itemService, itemA);
+        assertLedgerMatchesBalance(itemService, itemB);
+
+        // And rolling forward again keeps them equal
+        stockCheckpointJob.rollForwardAll();
+        assertLedgerMatchesBalance(itemService, itemA);
+        assertLedgerMatchesBalance(itemService, itemB);
+        assertEquals(0, stockRebuildJob.rebuildStockBalances().getItemsCorrected());
+    }
+
+    @Test
+    void deletedRowsAfterWatermark_StillMoveIt() {
+        // Given
+        inventoryService.recordTransaction(new InventoryRequest(itemA, 10, "T"));
+        stockCheckpointJob.rollForwardAll();
+        Long deleted = inventoryService.recordTransaction(new InventoryRequest(itemA, 4, "T")).getId();
+        inventoryService.deleteTransaction(deleted);
+
+        // When
+        stockCheckpointJob.rollForwardAll();
+
+        // Then
+        StockCheckpoint checkpoint = stockCheckpointRepository.findById(itemA).orElseThrow();
+        assertEquals(10, checkpoint.getBalance());
+        assertEquals(deleted, checkpoint.getInventoryWatermark());
+        assertFalse(stockCheckpointRepository.findItemIdsWithNewLedgerRows().contains(itemA));
+        assertLedgerMatchesBalance(itemService, itemA);
+    }
+
+    @Test
+    void fullRebuild_RepairsDriftedCheckpoint() {
+        // Given: a checkpoint whose balance drifted from the ledger it covers
+        inventoryService.recordTransaction(new InventoryRequest(itemA, 10, "T"));
+        orderService.createOrder(new OrderRequest(itemA, 3, null));
+        stockCheckpointJob.rollForwardAll();
+        StockCheckpoint checkpoint = stockCheckpointRepository.findById(itemA).orElseThrow();
+        checkpoint.setBalance(checkpoint.getBalance() + 5);
+        stockCheckpointRepository.save(checkpoint);
+        assertEquals(12, itemService.calculateStockFromLedger(itemA));
+
+        // When
+        StockRebuildResponse rebuild = stockRebuildJob.rebuildStockBalances(true);
+
+        // Then: the whole ledger was summed, the right balance kept and the checkpoint reset
+        assertEquals(0, rebuild.getItemsCorrected());
+        assertEquals(7, itemService.calculateCurrentStock(itemA));
+        assertFalse(stockCheckpointRepository.existsById(itemA));
+        assertLedgerMatchesBalance(itemService, itemA);
+
+        // And: rolled forward from scratch, the checkpoint agrees with the ledger again
+        stockCheckpointJob.rollForwardAll();
+        assertEquals(7, stockCheckpointRepository.findById(itemA).orElseThrow().getBalance());
+        assertEquals(0, stockRebuildJob.rebuildStockBalances().getItemsCorrected());
+    }
+}
@@ -0,0 +1,123 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.InventoryRequest;
+import com.inventory.dto.request.ItemRequest;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.OrderResponse;
+import com.inventory.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent writers on one item, in optimistic and guarded mode and through the write combiner
+ * Every accepted order must be reflected in the balance, and the balance must never go negative
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:stock-concurrency-test",
+                "spring.jpa.show-sql=false",
+                "inventory.stock.concurrency-mode=optimistic",
+                "inventory.stock.optimistic-max-attempts=1000",
+                "inventory.write-combining.enabled=true",
+                "inventory.write-combining.max-batch-size=16"
+        })
+class StockConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int ORDERS_PER_WRITER = 20;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockWriteCombiner stockWriteCombiner;
+
+    @Autowired
+    private InventoryProperties properties;
+
+    @Test
+    void concurrentOrders_NoOversellAndNoLostUpdate() throws Exception {
+        // Uncombined, through the entry point that retries lost races in a new transaction
+        properties.getWriteCombining().setEnabled(false);
+        try {
+            assertNoOversell(stockWriteCombiner::createOrder);
+        } finally {
+            properties.getWriteCombining().setEnabled(true);
+        }
+    }
+
+    @Test
+    void combinedOrders_NoOversellAndNoLostUpdate() throws Exception {
+        assertNoOversell(stockWriteCombiner::createOrder);
+    }
+
+    @Test
+    void guardedOrders_NoOversellAndNoLostUpdate() throws Exception {
+        properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.GUARDED);
+        try {
+            assertNoOversell(orderService::createOrder);
+        } finally {
+            properties.getStock().setConcurrencyMode(InventoryProperties.ConcurrencyMode.OPTIMISTIC);
+        }
+    }
+
+    private void assertNoOversell(Function<OrderRequest, OrderResponse> createOrder) throws Exception {
+        // Given: stock for only half of the attempted orders
+        Long itemId = itemService.createItem(new ItemRequest("Hot Item", new BigDecimal("1.00"))).getId();
+        int stock = WRITERS * ORDERS_PER_WRITER / 2;
+        inventoryService.recordTransaction(new InventoryRequest(itemId, stock, "T"));
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<Integer>> accepted = new ArrayList<>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                Callable<Integer> writer = () -> {
+                    int created = 0;
+                    for (int i = 0; i < ORDERS_PER_WRITER; i++) {
+                        try {
+                            OrderResponse order = createOrder.apply(new OrderRequest(itemId, 1, null));
+                            assertEquals("Hot Item", order.getItemName());
+                            created++;
+                        } catch (InsufficientStockException ex) {
+                            // Expected once stock runs out
+                        }
+                    }
+                    return created;
+                };
+                accepted.add(executor.submit(writer));
+            }
+            int created = 0;
+            for (Future<Integer> future : accepted) {
+                created += future.get();
+            }
+
+            // Then
+            assertEquals(stock, created);
+            assertEquals(0, itemService.calculateCurrentStock(itemId));
+            assertEquals(0, itemService.calculateStockFromLedger(itemId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventory.service;
+
+import com.inventory.dto.response.StockRebuildResponse;
+import com.inventory.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockRebuildJob
+ */
+@ExtendWith(MockitoExtension.class)
+class StockRebuildJobTest {
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private StockCheckpointJob stockCheckpointJob;
+
+    @InjectMocks
+    private StockRebuildJob stockRebuildJob;
+
+    @Test
+    void rebuildStockBalances_OneServiceCallPerChunk() {
+        // Given: two full chunks and a partial one
+        List<Long> itemIds = LongStream.rangeClosed(1, 2 * StockRebuildJob.CHUNK_SIZE + 10).boxed().toList();
+        when(itemRepository.findAllIds()).thenReturn(itemIds);
+        when(itemService.rebuildStockBalances(anyList(), eq(false))).thenAnswer(invocation ->
+                new StockRebuildResponse(invocation.<List<Long>>getArgument(0).size(), 1));
+
+        // When
+        StockRebuildResponse result = stockRebuildJob.rebuildStockBalances();
+
+        // Then: each chunk commits in its own service call (transaction), so its locks go with it
+        assertEquals(itemIds.size(), result.getItemsScanned());
+        assertEquals(3, result.getItemsCorrected());
+        verify(itemService).rebuildStockBalances(itemIds.subList(0, StockRebuildJob.CHUNK_SIZE), false);
+        verify(itemService).rebuildStockBalances(itemIds.subList(2 * StockRebuildJob.CHUNK_SIZE, itemIds.size()), false);
+        verify(itemService, times(3)).rebuildStockBalances(anyList(), anyBoolean());
+    }
+
+    @Test
+    void rebuildStockBalances_RollsCheckpointsForwardFirstUnlessFull() {
+        // Given
+        when(itemRepository.findAllIds()).thenReturn(List.of(1L));
+        when(itemService.rebuildStockBalances(anyList(), anyBoolean())).thenReturn(new StockRebuildResponse(1, 0));
+
+        // When
+        stockRebuildJob.rebuildStockBalances();
+        stockRebuildJob.rebuildStockBalances(true);
+
+        // Then: the incremental rebuild rolls forward before its first chunk; the full one resets them instead
+        InOrder inOrder = inOrder(stockCheckpointJob, itemService);
+        inOrder.verify(stockCheckpointJob).rollForwardAll();
+        inOrder.verify(itemService).rebuildStockBalances(List.of(1L), false);
+        verify(stockCheckpointJob, times(1)).rollForwardAll();
+    }
+}
@@ -0,0 +1,229 @@
+package com.inventory.service;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.request.OrderRequest;
+import com.inventory.dto.response.OrderResponse;
+import com.inventory.exception.InsufficientStockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockWriteCombiner
+ */
+@ExtendWith(MockitoExtension.class)
+class StockWriteCombinerTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private StockBucketService stockBucketService; // No item sharded
+
+    private InventoryProperties properties;
+    private StockWriteCombiner combiner;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InventoryProperties();
+        properties.getWriteCombining().setEnabled(true);
+        StockAdmission admission = new StockAdmission(null, properties); // Disabled: passes writes through
+        OptimisticStockUpdater updater = new OptimisticStockUpdater(null, properties); // Pessimistic: runs writes once
+        combiner = new StockWriteCombiner(orderService, inventoryService, admission, stockBucketService, updater,
+                properties);
+    }
+
+    @Test
+    void createOrder_Disabled_GoesStraightToService() {
+        // Given
+        properties.getWriteCombining().setEnabled(false);
+        OrderRequest request = new OrderRequest(1L, 1, null);
+        when(orderService.createOrder(request)).thenReturn(response("O1"));
+
+        // When
+        OrderResponse response = combiner.createOrder(request);
+
+        // Then
+        assertEquals("O1", response.getOrderNo());
+        verify(orderService, never()).createOrdersForItem(any(), anyList());
+    }
+
+    @Test
+    void createOrder_Uncontended_BatchOfOne() {
+        // Given
+        when(orderService.createOrdersForItem(eq(1L), anyList()))
+                .thenReturn(List.of(StockWriteOutcome.success(response("O1"))));
+
+        // When
+        OrderResponse response = combiner.createOrder(new OrderRequest(1L, 1, null));
+
+        // Then: the drained queue is dropped
+        assertEquals("O1", response.getOrderNo());
+        assertFalse(combiner.hasOrderQueue(1L));
+    }
+
+    @Test
+    void createOrder_RejectedRequest_ThrowsItsOwnException() {
+        // Given
+        when(orderService.createOrdersForItem(eq(1L), anyList()))
+                .thenReturn(List.of(StockWriteOutcome.failure(new InsufficientStockException("Insufficient stock"))));
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> combiner.createOrder(new OrderRequest(1L, 1, null)));
+    }
+
+    @Test
+    void createOrder_InvalidQuantity_TakesSingleRequestPath() {
+        // Given
+        OrderRequest request = new OrderRequest(1L, 0, null);
+        when(orderService.createOrder(request)).thenThrow(new IllegalArgumentException("Quantity must be positive"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> combiner.createOrder(request));
+        verify(orderService, never()).createOrdersForItem(any(), anyList());
+    }
+
+    @Test
+    void createOrder_ConcurrentCallers_CombinedIntoOneBatch() throws Exception {
+        // Given: the first batch is held open until three more callers have queued behind it
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(orderService.createOrdersForItem(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<OrderRequest> batch = invocation.getArgument(1);
+            batchSizes.add(batch.size());
+            if (batchSizes.size() == 1) {
+                firstBatchStarted.countDown();
+                assertTrue(releaseFirstBatch.await(5, TimeUnit.SECONDS));
+            }
+            List<StockWriteOutcome<OrderResponse>> outcomes = new ArrayList<>();
+            for (OrderRequest request : batch) {
+                outcomes.add(request.getQty() > 2
+                        ? StockWriteOutcome.failure(new InsufficientStockException("Insufficient stock"))
+                        : StockWriteOutcome.success(response("O" + request.getQty())));
+            }
+            return outcomes;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // When
+            CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(
+                    () -> combiner.createOrder(new OrderRequest(1L, 1, null)), executor);
+            assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+            List<CompletableFuture<OrderResponse>> queued = new ArrayList<>();
+            for (int qty = 2; qty <= 4; qty++) {
+                int requestedQty = qty;
+                queued.add(CompletableFuture.supplyAsync(
+                        () -> combiner.createOrder(new OrderRequest(1L, requestedQty, null)), executor));
+            }
+            while (combiner.pendingOrders(1L) < 3) {
+                Thread.sleep(5);
+            }
+            releaseFirstBatch.countDown();
+
+            // Then: one batch of one, then the three waiting callers together, each with its own outcome
+            assertEquals("O1", first.get(5, TimeUnit.SECONDS).getOrderNo());
+            assertEquals("O2", queued.get(0).get(5, TimeUnit.SECONDS).getOrderNo());
+            for (CompletableFuture<OrderResponse> rejected : queued.subList(1, 3)) {
+                Exception ex = assertThrows(Exception.class, () -> rejected.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(InsufficientStockException.class, ex.getCause());
+            }
+            assertEquals(List.of(1, 3), batchSizes);
+            assertFalse(combiner.hasOrderQueue(1L));
+        } finally {
+            releaseFirstBatch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createOrder_DrainerReturnsOnceItsOwnRequestIsDone() throws Exception {
+        // Given: a batch size of one, and the second batch held open
+        properties.getWriteCombining().setMaxBatchSize(1);
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        CountDownLatch releaseSecondBatch = new CountDownLatch(1);
+        List<Integer> drainedQty = new CopyOnWriteArrayList<>();
+        when(orderService.createOrdersForItem(eq(1L), anyList())).thenAnswer(invocation -> {
+            OrderRequest request = invocation.<List<OrderRequest>>getArgument(1).get(0);
+            drainedQty.add(request.getQty());
+            if (drainedQty.size() == 1) {
+                firstBatchStarted.countDown();
+                assertTrue(releaseFirstBatch.await(5, TimeUnit.SECONDS));
+            } else if (drainedQty.size() == 2) {
+                assertTrue(releaseSecondBatch.await(5, TimeUnit.SECONDS));
+            }
+            return List.of(StockWriteOutcome.success(response("O" + request.getQty())));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // When: two callers queue behind the first
+            CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(
+                    () -> combiner.createOrder(new OrderRequest(1L, 1, null)), executor);
+            assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+            List<CompletableFuture<OrderResponse>> queued = new ArrayList<>();
+            for (int qty = 2; qty <= 3; qty++) {
+                int requestedQty = qty;
+                queued.add(CompletableFuture.supplyAsync(
+                        () -> combiner.createOrder(new OrderRequest(1L, requestedQty, null)), executor));
+            }
+            while (combiner.pendingOrders(1L) < 2) {
+                Thread.sleep(5);
+            }
+            releaseFirstBatch.countDown();
+
+            // Then: the first caller returns while a queued caller drains the next batch
+            while (drainedQty.size() < 2) {
+                Thread.sleep(5);
+            }
+            assertEquals("O1", first.get(5, TimeUnit.SECONDS).getOrderNo());
+            releaseSecondBatch.countDown();
+            for (CompletableFuture<OrderResponse> response : queued) {
+                assertNotNull(response.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(3, drainedQty.size());
+            assertFalse(combiner.hasOrderQueue(1L));
+        } finally {
+            releaseFirstBatch.countDown();
+            releaseSecondBatch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createOrder_FailedBatch_EveryCallerGetsTheFailureAndQueueIsDropped() {
+        // Given
+        when(orderService.createOrdersForItem(eq(1L), anyList())).thenThrow(new IllegalStateException("Rolled back"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> combiner.createOrder(new OrderRequest(1L, 1, null)));
+        assertFalse(combiner.hasOrderQueue(1L));
+    }
+
+    private OrderResponse response(String orderNo) {
+        OrderResponse response = new OrderResponse();
+        response.setOrderNo(orderNo);
+        return response;
+    }
+}
@@ -0,0 +1,35 @@
+package com.inventory.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Helpers shared by the database-backed tests
+ */
+public final class TestSupport {
+
+    private TestSupport() {
+    }
+
+    /**
+     * JDBC batches needed to write rows: hibernate.jdbc.batch_size and the id sequence allocation size are both 50
+     */
+    public static int batches(int rows) {
+        return (rows + 49) / 50;
+    }
+
+    /**
+     * Run a single-value query such as SELECT COUNT(*)
+     */
+    public static long count(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    /**
+     * The materialized balance (with stock buckets) equals the ledger sum from the item's checkpoint
+     */
+    public static void assertLedgerMatchesBalance(ItemService itemService, Long itemId) {
+        assertEquals(itemService.calculateCurrentStock(itemId), itemService.calculateStockFromLedger(itemId));
+    }
+}